@@ -0,0 +1,124 @@
+package com.example.demo;
+
+import com.example.demo.category.Category;
+import com.example.demo.category.CategoryDto;
+import com.example.demo.category.CategoryMapper;
+import com.example.demo.deal.Deal;
+import com.example.demo.deal.Status;
+import com.example.demo.image.PhotoRepository;
+import com.example.demo.manufacturer.Manufacturer;
+import com.example.demo.manufacturer.ManufacturerMapper;
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioServiceImpl;
+import com.example.demo.minio.PresignedUrlSigner;
+import com.example.demo.tool.Condition;
+import com.example.demo.tool.Tool;
+import com.example.demo.tool.ToolMapper;
+import com.example.demo.tool.Type;
+import com.example.demo.user.Role;
+import com.example.demo.user.User;
+import com.example.demo.user.UserMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public final class BenchmarkFixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    public static MinioProperties minioProperties() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setBucket("toolsbucket");
+        minioProperties.setEndpoint("http://toolsminio:9000");
+        minioProperties.setProxyUrl("http://localhost:80");
+        minioProperties.setUser("benchmark_user");
+        minioProperties.setPassword("benchmark_password");
+        return minioProperties;
+    }
+
+    public static ToolMapper toolMapper() {
+        MinioProperties minioProperties = minioProperties();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new ToolMapper(
+                new UserMapper(),
+                new ManufacturerMapper(),
+                new CategoryMapper(),
+                new MinioServiceImpl(null, minioProperties, new PresignedUrlSigner(minioProperties, meterRegistry), meterRegistry),
+                minioProperties,
+                photoRepository());
+    }
+
+    /**
+     * Reports every photo as having variants, so the mapper signs all three sizes as in steady state.
+     * The lookup answers from memory, so benchmarks built on it exclude the cost of the database query.
+     */
+    public static PhotoRepository photoRepository() {
+        PhotoRepository photoRepository = Mockito.mock(PhotoRepository.class);
+        Mockito.when(photoRepository.findWithVariants(ArgumentMatchers.anyCollection()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<Collection<String>>getArgument(0)));
+        return photoRepository;
+    }
+
+    public static User user(Long id) {
+        return User.builder()
+                .id(id)
+                .firstname("Ivan")
+                .lastname("Ivanov")
+                .login("user" + id + "@gmail.com")
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+    public static Tool tool(Long id) {
+        return Tool.builder()
+                .id(id)
+                .owner(user(id % 100))
+                .manufacturer(Manufacturer.builder().id(id % 10).name("Makita").build())
+                .category(Category.builder().id(id % 20).name("Drill").build())
+                .type(Type.RENT)
+                .condition(Condition.USED)
+                .price(new BigDecimal("3000.00"))
+                .description("Cordless drill with two batteries and a charger, lightly used, tool number " + id)
+                .photos(List.of(id + "-1.jpg", id + "-2.jpg", id + "-3.jpg"))
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .build();
+    }
+
+    public static List<Tool> tools(int size) {
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(BenchmarkFixtures::tool)
+                .toList();
+    }
+
+    public static List<CategoryDto> categories(int size) {
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(id -> CategoryDto.builder().id(id).name("Category " + id).build())
+                .toList();
+    }
+
+    public static Deal deal(Long id) {
+        return Deal.builder()
+                .id(id)
+                .owner(user(id % 100))
+                .requester(user(id % 100 + 100))
+                .tool(tool(id))
+                .price(new BigDecimal("3000.00"))
+                .message("Can I rent it for the weekend?")
+                .status(Status.PENDING)
+                .startDate(NOW)
+                .endDate(NOW.plusDays(2))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import com.example.demo.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codec serializer with the JDK serialization it replaced; the {@code bytes} counter
+ * reports the size of one serialized value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheValueSerializerBenchmark {
+
+    @Param({"rating", "categories"})
+    private String value;
+
+    @Param({"jdk", "codec"})
+    private String serializer;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object cacheValue;
+    private byte[] bytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytes;
+    }
+
+    @Setup
+    public void setup() {
+        redisSerializer = "jdk".equals(serializer)
+                ? new JdkSerializationRedisSerializer()
+                : new CacheValueSerializer(List.of(new DoubleCacheValueCodec(), new JdkCacheValueCodec(getClass().getClassLoader())), 1024);
+        cacheValue = switch (value) {
+            case "rating" -> 4.25;
+            case "categories" -> BenchmarkFixtures.categories(30);
+            default -> throw new IllegalArgumentException("Unknown value: " + value);
+        };
+        bytes = redisSerializer.serialize(cacheValue);
+    }
+
+    @Benchmark
+    public byte[] serialize(Size size) {
+        byte[] result = redisSerializer.serialize(cacheValue);
+        size.bytes = result.length;
+        return result;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.deal;
+
+import com.example.demo.BenchmarkFixtures;
+import com.example.demo.user.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealMapperBenchmark {
+
+    private DealMapper dealMapper;
+    private Deal deal;
+    private List<Deal> page;
+
+    @Setup
+    public void setup() {
+        dealMapper = new DealMapper(new UserMapper(), BenchmarkFixtures.toolMapper());
+        deal = BenchmarkFixtures.deal(1L);
+        page = LongStream.rangeClosed(1, 20)
+                .mapToObj(BenchmarkFixtures::deal)
+                .toList();
+    }
+
+    @Benchmark
+    public DealDto toDto() {
+        return dealMapper.toDto(deal);
+    }
+
+    @Benchmark
+    public List<DealDto> toDtosPage() {
+        return dealMapper.toDtos(page);
+    }
+}
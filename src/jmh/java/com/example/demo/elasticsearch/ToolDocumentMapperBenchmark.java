@@ -0,0 +1,39 @@
+package com.example.demo.elasticsearch;
+
+import com.example.demo.BenchmarkFixtures;
+import com.example.demo.tool.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolDocumentMapperBenchmark {
+
+    private ToolDocumentMapper toolDocumentMapper;
+    private Tool tool;
+
+    @Setup
+    public void setup() {
+        toolDocumentMapper = new ToolDocumentMapper();
+        tool = BenchmarkFixtures.tool(1L);
+    }
+
+    @Benchmark
+    public ToolDocument toDocument() {
+        return toolDocumentMapper.toDocument(tool);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.image;
+
+import com.example.demo.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageServiceBenchmark {
+
+    private ImageServiceImpl imageService;
+    private MultipartFile photo;
+
+    @Setup
+    public void setup() {
+        imageService = new ImageServiceImpl(BenchmarkFixtures.minioProperties(), null, null, null, null);
+        byte[] content = new byte[1024 * 1024];
+        new Random(42).nextBytes(content);
+        photo = new MockMultipartFile("files", "cordless-drill.photo.jpg", "image/jpeg", content);
+    }
+
+    @Benchmark
+    public String generateFileName() {
+        return imageService.generateFileName(photo);
+    }
+}
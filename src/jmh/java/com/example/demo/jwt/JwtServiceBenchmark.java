@@ -0,0 +1,95 @@
+package com.example.demo.jwt;
+
+import com.example.demo.user.Role;
+import com.example.demo.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "934091AE98362741F722202EED3288E8FF2509C73641ADBF75EEB3195A926B40";
+    private static final long EXPIRATION_TIME = 8640000;
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtServiceImpl(SECRET_KEY, EXPIRATION_TIME);
+        user = User.builder()
+                .id(1L)
+                .firstname("Ivan")
+                .lastname("Ivanov")
+                .login("IvanIvanov@gmail.com")
+                .role(Role.ROLE_USER)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        Claims claims = jwtService.extractClaims(token);
+        return jwtService.isValid(user, claims);
+    }
+
+    @Benchmark
+    public String generateWithKeyPerCall() {
+        return Jwts.builder()
+                .setClaims(new HashMap<>())
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .signWith(decodeKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public boolean validateWithParserPerCall() {
+        String login = parseWithNewParser(token).getSubject();
+        return user.getUsername().equals(login)
+                && user.getUsername().equals(parseWithNewParser(token).getSubject())
+                && new Date().before(parseWithNewParser(token).getExpiration());
+    }
+
+    private Claims parseWithNewParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(decodeKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private Key decodeKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    }
+}
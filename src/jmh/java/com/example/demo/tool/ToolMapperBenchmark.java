@@ -0,0 +1,50 @@
+package com.example.demo.tool;
+
+import com.example.demo.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps tools to signed DTOs. Variant readiness comes from an in-memory {@code PhotoRepository}, so the
+ * database lookup {@link ToolMapper#toDtos} makes per page is not part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolMapperBenchmark {
+
+    private ToolMapper toolMapper;
+    private Tool tool;
+    private List<Tool> page;
+
+    @Setup
+    public void setup() {
+        toolMapper = BenchmarkFixtures.toolMapper();
+        tool = BenchmarkFixtures.tool(1L);
+        page = BenchmarkFixtures.tools(20);
+    }
+
+    @Benchmark
+    public ToolDto toDto() {
+        return toolMapper.toDto(tool);
+    }
+
+    @Benchmark
+    public List<ToolDto> toDtosPage() {
+        return toolMapper.toDtos(page);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.load;
+
+import com.example.demo.BaseIT;
+import com.example.demo.elasticsearch.ToolReindexer;
+import com.example.demo.jwt.JwtService;
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import com.example.demo.review.UserRatingStatsRebuildJob;
+import com.example.demo.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiLoadIT extends BaseIT {
+
+    private static final int USERS = Integer.getInteger("load.users", 10_000);
+    private static final int TOOLS = Integer.getInteger("load.tools", 100_000);
+    private static final int DEALS = Integer.getInteger("load.deals", 1_000_000);
+    private static final int REVIEWS = Integer.getInteger("load.reviews", 200_000);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT30S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT2M"));
+    private static final String REPORT = System.getProperty("load.report", "target/load-report.json");
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final int TOKENS = 1_000;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MinioService minioService;
+
+    @Autowired
+    private MinioProperties minioProperties;
+
+    @Autowired
+    private ToolReindexer toolReindexer;
+
+    @Autowired
+    private UserRatingStatsRebuildJob userRatingStatsRebuildJob;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    private static void configureLoadProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts", () -> "true");
+        registry.add("logging.level.com.example.demo", () -> "WARN");
+        registry.add("logging.level.com.example.demo.load", () -> "INFO");
+    }
+
+    @Test
+    public void mixedWorkload_reportLatencyPerEndpoint() throws InterruptedException, IOException {
+        new LoadDataGenerator(jdbcTemplate, minioService, minioProperties, SEED).seed(USERS, TOOLS, DEALS, REVIEWS);
+        userRatingStatsRebuildJob.rebuild();
+        toolReindexer.reindex();
+
+        List<String> tokens = LongStream.rangeClosed(1, Math.min(USERS, TOKENS))
+                .mapToObj(id -> jwtService.generateToken(User.builder().login("load-user-" + id + "@gmail.com").build()))
+                .toList();
+        List<LoadResult> results = new LoadDriver(scenarios(tokens), THREADS).run(WARMUP, DURATION);
+
+        report(results);
+        for (LoadResult result : results) {
+            assertTrue(result.getErrors() <= result.getRequests() * MAX_ERROR_RATE,
+                    result.getEndpoint() + " failed " + result.getErrors() + " of " + result.getRequests() + " requests");
+        }
+    }
+
+    private List<LoadScenario> scenarios(List<String> tokens) {
+        return List.of(
+                new LoadScenario("GET /api/v1/tools", 30, random -> get(tokens, random,
+                        "/api/v1/tools?pageSize=20&pageNumber=" + random.nextInt(100))),
+                new LoadScenario("GET /api/v1/tools/search", 25, random -> get(tokens, random,
+                        "/api/v1/tools/search?pageSize=20&description=" + word(random) + filters(random))),
+                new LoadScenario("GET /api/v1/deals", 20, random -> get(tokens, random,
+                        "/api/v1/deals?pageSize=20&pageNumber=" + random.nextInt(5))),
+                new LoadScenario("GET /api/v1/reviews/{id}/rating", 20, random -> get(tokens, random,
+                        "/api/v1/reviews/" + (1 + random.nextInt(USERS)) + "/rating")),
+                new LoadScenario("POST /api/v1/deals/rental", 5, random -> {
+                    LocalDateTime startDate = LocalDateTime.now().plusDays(1 + random.nextInt(30)).withNano(0);
+                    String body = "{\"toolId\":" + (1 + random.nextInt(TOOLS))
+                            + ",\"price\":" + (100 + random.nextInt(20_000))
+                            + ",\"message\":\"Load test rental\""
+                            + ",\"startDate\":\"" + startDate + "\""
+                            + ",\"endDate\":\"" + startDate.plusDays(3) + "\"}";
+                    return request(tokens, random, "/api/v1/deals/rental")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }));
+    }
+
+    private HttpRequest get(List<String> tokens, ThreadLocalRandom random, String path) {
+        return request(tokens, random, path).GET().build();
+    }
+
+    private HttpRequest.Builder request(List<String> tokens, ThreadLocalRandom random, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+    }
+
+    private static String word(ThreadLocalRandom random) {
+        return LoadDataGenerator.WORDS.get(random.nextInt(LoadDataGenerator.WORDS.size()));
+    }
+
+    private static String filters(ThreadLocalRandom random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "&category=" + (1 + random.nextInt(LoadDataGenerator.CATEGORIES));
+            case 1 -> "&gte=1000&lte=" + (2000 + random.nextInt(18_000));
+            default -> "";
+        };
+    }
+
+    private void report(List<LoadResult> results) throws IOException {
+        StringBuilder table = new StringBuilder(String.format("%n%-34s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (LoadResult result : results) {
+            table.append(String.format("%-34s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.getEndpoint(), result.getRequests(), result.getErrors(), result.getThroughput(),
+                    result.getP50(), result.getP95(), result.getP99(), result.getMax()));
+        }
+        LOGGER.info("report - {} tools, {} deals, {} threads, {}{}", TOOLS, DEALS, THREADS, DURATION, table);
+
+        File report = new File(REPORT);
+        report.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, results);
+        LOGGER.info("report - Written to {}", report.getAbsolutePath());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.load;
+
+import com.example.demo.category.Category;
+import com.example.demo.deal.Deal;
+import com.example.demo.deal.Status;
+import com.example.demo.manufacturer.Manufacturer;
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import com.example.demo.review.Review;
+import com.example.demo.tool.Condition;
+import com.example.demo.tool.Tool;
+import com.example.demo.tool.Type;
+import com.example.demo.user.Role;
+import com.example.demo.user.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+public class LoadDataGenerator {
+
+    public static final int MANUFACTURERS = 50;
+    public static final int CATEGORIES = 30;
+    public static final int PHOTOS = 20;
+    public static final List<String> WORDS = List.of("drill", "hammer", "saw", "grinder", "makita", "bosch", "dewalt",
+            "cordless", "battery", "ladder", "wrench", "sander", "jigsaw", "perforator", "screwdriver");
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadDataGenerator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MinioService minioService;
+    private final MinioProperties minioProperties;
+    private final Random random;
+
+    public LoadDataGenerator(JdbcTemplate jdbcTemplate, MinioService minioService, MinioProperties minioProperties, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minioService = minioService;
+        this.minioProperties = minioProperties;
+        this.random = new Random(seed);
+    }
+
+    public void seed(int users, int tools, int deals, int reviews) {
+        LOGGER.info("seed - Seeding {} users, {} tools, {} deals, {} reviews", users, tools, deals, reviews);
+        long startedAt = System.currentTimeMillis();
+
+        seedPhotos();
+        insert("INSERT INTO users (id, firstname, lastname, login, password, role) VALUES (?, ?, ?, ?, ?, ?)",
+                users, this::user, user -> new Object[]{user.getId(), user.getFirstname(), user.getLastname(), user.getLogin(), user.getPassword(), user.getRole().name()});
+        insert("INSERT INTO manufacturers (id, name) VALUES (?, ?)",
+                MANUFACTURERS, id -> Manufacturer.builder().id(id).name("Manufacturer " + id).build(), manufacturer -> new Object[]{manufacturer.getId(), manufacturer.getName()});
+        insert("INSERT INTO categories (id, name) VALUES (?, ?)",
+                CATEGORIES, id -> Category.builder().id(id).name("Category " + id).build(), category -> new Object[]{category.getId(), category.getName()});
+        insert("INSERT INTO tools (id, owner_id, manufacturer_id, category_id, type, condition, price, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                tools, id -> tool(id, users), tool -> new Object[]{tool.getId(), tool.getOwner().getId(), tool.getManufacturer().getId(), tool.getCategory().getId(),
+                        tool.getType().name(), tool.getCondition().name(), tool.getPrice(), tool.getDescription(),
+                        Timestamp.valueOf(tool.getCreatedAt()), Timestamp.valueOf(tool.getUpdatedAt())});
+        insert("INSERT INTO photos_tools (tool_id, photo) VALUES (?, ?)",
+                tools, id -> id, id -> new Object[]{id, photo(id)});
+        jdbcTemplate.update("INSERT INTO photos (name, ref_count) SELECT photo, COUNT(*) FROM photos_tools GROUP BY photo");
+        insert("INSERT INTO deals (id, owner_id, requester_id, tool_id, price, message, status, start_date, end_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                deals, id -> deal(id, users, tools), deal -> new Object[]{deal.getId(), deal.getOwner().getId(), deal.getRequester().getId(), deal.getTool().getId(),
+                        deal.getPrice(), deal.getMessage(), deal.getStatus().name(), Timestamp.valueOf(deal.getStartDate()), Timestamp.valueOf(deal.getEndDate())});
+        insert("INSERT INTO reviews (id, sender_id, recipient_id, deal_id, rating, message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                reviews, id -> review(id, users, deals), review -> new Object[]{review.getId(), review.getSender().getId(), review.getRecipient().getId(),
+                        review.getDeal().getId(), review.getRating(), review.getMessage(), Timestamp.valueOf(review.getCreatedAt())});
+
+        for (String table : List.of("users", "manufacturers", "categories", "tools", "deals", "reviews")) {
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)");
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        LOGGER.info("seed - Seeded dataset in {} ms", System.currentTimeMillis() - startedAt);
+    }
+
+    private void seedPhotos() {
+        for (int i = 0; i < PHOTOS; i++) {
+            minioService.uploadFile(photo(i), minioProperties.getBucket(), new ByteArrayInputStream(new byte[1024]), 1024);
+        }
+    }
+
+    private <T> void insert(String sql, long count, LongFunction<T> generator, RowMapper<T> rowMapper) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            batch.add(rowMapper.toRow(generator.apply(id)));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        LOGGER.debug("insert - Inserted {} rows: {}", count, sql.substring(0, sql.indexOf('(')));
+    }
+
+    private User user(long id) {
+        return User.builder()
+                .id(id)
+                .firstname("Firstname " + id)
+                .lastname("Lastname " + id)
+                .login("load-user-" + id + "@gmail.com")
+                .role(Role.ROLE_USER)
+                .build();
+    }
+
+    private Tool tool(long id, int users) {
+        LocalDateTime createdAt = START.plusMinutes(id);
+        return Tool.builder()
+                .id(id)
+                .owner(User.builder().id(1 + random.nextLong(users)).build())
+                .manufacturer(Manufacturer.builder().id(1 + random.nextLong(MANUFACTURERS)).build())
+                .category(Category.builder().id(1 + random.nextLong(CATEGORIES)).build())
+                .type(random.nextInt(4) == 0 ? Type.SALE : Type.RENT)
+                .condition(random.nextBoolean() ? Condition.NEW : Condition.USED)
+                .price(BigDecimal.valueOf(100 + random.nextInt(20_000)))
+                .description(description())
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    private Deal deal(long id, int users, int tools) {
+        LocalDateTime startDate = START.plusHours(random.nextInt(24 * 365));
+        long ownerId = 1 + random.nextLong(users);
+        return Deal.builder()
+                .id(id)
+                .owner(User.builder().id(ownerId).build())
+                .requester(User.builder().id(1 + (ownerId + random.nextLong(users - 1)) % users).build())
+                .tool(Tool.builder().id(1 + random.nextLong(tools)).build())
+                .price(BigDecimal.valueOf(100 + random.nextInt(20_000)))
+                .message("Load test deal " + id)
+                .status(Status.values()[random.nextInt(Status.values().length)])
+                .startDate(startDate)
+                .endDate(startDate.plusDays(1 + random.nextInt(14)))
+                .build();
+    }
+
+    private Review review(long id, int users, int deals) {
+        return Review.builder()
+                .id(id)
+                .sender(User.builder().id(1 + random.nextLong(users)).build())
+                .recipient(User.builder().id(1 + random.nextLong(users)).build())
+                .deal(Deal.builder().id(1 + random.nextLong(deals)).build())
+                .rating(1 + random.nextInt(5))
+                .message("Load test review " + id)
+                .createdAt(START.plusMinutes(id))
+                .build();
+    }
+
+    private String description() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            description.append(WORDS.get(random.nextInt(WORDS.size()))).append(' ');
+        }
+        return description.toString().trim();
+    }
+
+    private static String photo(long id) {
+        return "load-photo-" + id % PHOTOS + ".jpg";
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        Object[] toRow(T value);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadDriver {
+
+    private static final long MAX_LATENCY = TimeUnit.SECONDS.toNanos(60);
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadDriver.class);
+
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final List<LoadScenario> scenarios;
+    private final int totalWeight;
+    private final int threads;
+
+    public LoadDriver(List<LoadScenario> scenarios, int threads) {
+        this.httpExecutor = Executors.newFixedThreadPool(threads);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpExecutor)
+                .build();
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(LoadScenario::weight).sum();
+        this.threads = threads;
+    }
+
+    public List<LoadResult> run(Duration warmup, Duration duration) throws InterruptedException {
+        try {
+            LOGGER.info("run - Warming up {} scenarios with {} threads for {}", scenarios.size(), threads, warmup);
+            drive(warmup);
+
+            LOGGER.info("run - Measuring {} scenarios with {} threads for {}", scenarios.size(), threads, duration);
+            long startedAt = System.nanoTime();
+            Map<LoadScenario, Stats> stats = drive(duration);
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+            List<LoadResult> results = new ArrayList<>(stats.size());
+            stats.forEach((scenario, stat) -> results.add(stat.toResult(scenario.name(), seconds)));
+            return results;
+        } finally {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private Map<LoadScenario, Stats> drive(Duration duration) throws InterruptedException {
+        Map<LoadScenario, Stats> stats = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> stats.put(scenario, new Stats()));
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    LoadScenario scenario = pick(ThreadLocalRandom.current());
+                    send(scenario, stats.get(scenario));
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        return stats;
+    }
+
+    private LoadScenario pick(ThreadLocalRandom random) {
+        int point = random.nextInt(totalWeight);
+        for (LoadScenario scenario : scenarios) {
+            point -= scenario.weight();
+            if (point < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void send(LoadScenario scenario, Stats stats) {
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(scenario.request().apply(ThreadLocalRandom.current()), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                stats.errors.increment();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("send - Request for scenario: {} failed: {}", scenario.name(), e.getMessage());
+            stats.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.latency.recordValue(Math.min(System.nanoTime() - startedAt, MAX_LATENCY));
+    }
+
+    private static class Stats {
+
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private LoadResult toResult(String endpoint, double seconds) {
+            return LoadResult.builder()
+                    .endpoint(endpoint)
+                    .requests(latency.getTotalCount())
+                    .errors(errors.sum())
+                    .throughput(latency.getTotalCount() / seconds)
+                    .p50(millis(latency.getValueAtPercentile(50)))
+                    .p95(millis(latency.getValueAtPercentile(95)))
+                    .p99(millis(latency.getValueAtPercentile(99)))
+                    .max(millis(latency.getMaxValue()))
+                    .build();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
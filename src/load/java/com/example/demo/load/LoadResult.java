@@ -0,0 +1,29 @@
+package com.example.demo.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadResult {
+
+    private String endpoint;
+
+    private long requests;
+
+    private long errors;
+
+    private double throughput;
+
+    private double p50;
+
+    private double p95;
+
+    private double p99;
+
+    private double max;
+}
@@ -0,0 +1,8 @@
+package com.example.demo.load;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+public record LoadScenario(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache.codec")
+@Getter
+@Setter
+public class CacheCodecProperties {
+
+    private int compressionThreshold = 1024;
+}
@@ -0,0 +1,128 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replaces the auto-configured Redis cache manager with a two-level one. The Redis manager is still
+ * built from {@code spring.cache.*} and the {@link RedisCacheManagerBuilderCustomizer} beans, and is
+ * exposed as a bean so that its statistics keep being exported with {@code cache.manager=redis}; the
+ * local layer is exported with {@code cache.manager=twoLevel}. Values are written by the
+ * {@link CacheValueCodec} beans, with JDK serialization only as the fallback. Redis keeps entries
+ * {@code cache.refresh.stale-ttl} past {@code spring.cache.redis.time-to-live} so that a stale
+ * value can be served while it is reloaded.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheValueSerializer cacheValueSerializer(ObjectProvider<CacheValueCodec<?>> codecs,
+                                                     CacheCodecProperties cacheCodecProperties,
+                                                     ResourceLoader resourceLoader) {
+        List<CacheValueCodec<?>> orderedCodecs = new ArrayList<>(codecs.orderedStream().toList());
+        orderedCodecs.add(new JdkCacheValueCodec(resourceLoader.getClassLoader()));
+        return new CacheValueSerializer(orderedCodecs, cacheCodecProperties.getCompressionThreshold());
+    }
+
+    @Bean
+    public RedisCacheManager redisCacheManager(CacheProperties cacheProperties, RedisConnectionFactory connectionFactory,
+                                               CacheValueSerializer cacheValueSerializer,
+                                               CacheRefreshProperties cacheRefreshProperties,
+                                               ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers) {
+        CacheProperties.Redis redisProperties = cacheProperties.getRedis();
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer));
+        if (redisProperties.getTimeToLive() != null) {
+            configuration = configuration.entryTtl(redisProperties.getTimeToLive().plus(cacheRefreshProperties.getStaleTtl()));
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            configuration = configuration.disableKeyPrefix();
+        }
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuration)
+                .initialCacheNames(new LinkedHashSet<>(cacheProperties.getCacheNames()));
+        if (redisProperties.isEnableStatistics()) {
+            builder.enableStatistics();
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 LocalCacheProperties localCacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, localCacheProperties.getInvalidationChannel(),
+                UUID.randomUUID().toString());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheRefreshExecutor(CacheRefreshProperties cacheRefreshProperties) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(cacheRefreshProperties.getThreads(), threadFactory);
+    }
+
+    @Bean
+    public CacheRefresher cacheRefresher(CacheRefreshProperties cacheRefreshProperties, ExecutorService cacheRefreshExecutor,
+                                         StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry) {
+        return new CacheRefresher(cacheRefreshProperties, cacheRefreshExecutor, stringRedisTemplate, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public TwoLevelCacheManager twoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                                     CacheProperties cacheProperties,
+                                                     LocalCacheProperties localCacheProperties,
+                                                     CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                     CacheRefresher cacheRefresher) {
+        return new TwoLevelCacheManager(redisCacheManager, localCacheProperties, cacheInvalidationPublisher, cacheRefresher,
+                cacheProperties.getRedis().getTimeToLive());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager twoLevelCacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            LocalCacheProperties localCacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(twoLevelCacheManager, cacheInvalidationPublisher.getNodeId()),
+                new ChannelTopic(localCacheProperties.getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+public class CacheInvalidationListener implements MessageListener {
+
+    private final CacheManager cacheManager;
+    private final String nodeId;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    public CacheInvalidationListener(CacheManager cacheManager, String nodeId) {
+        this.cacheManager = cacheManager;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(parts[1]);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            String key = parts.length == 3 ? parts[2] : null;
+            LOGGER.debug("onMessage - Evicting local entry of cache: {}, key: {}", parts[1], key);
+            twoLevelCache.evictLocal(key);
+        }
+    }
+}
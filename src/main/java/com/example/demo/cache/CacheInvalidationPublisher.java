@@ -0,0 +1,36 @@
+package com.example.demo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Announces local cache changes as {@code nodeId:cacheName[:key]} so that every other node can
+ * drop its stale L1 entry; the node id lets the sender ignore its own messages.
+ */
+public class CacheInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publish(String cacheName, String key) {
+        String message = key == null ? nodeId + ":" + cacheName : nodeId + ":" + cacheName + ":" + key;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            LOGGER.warn("publish - Failed to publish invalidation for cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+}
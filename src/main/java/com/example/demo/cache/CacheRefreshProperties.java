@@ -0,0 +1,21 @@
+package com.example.demo.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache.refresh")
+@Getter
+@Setter
+public class CacheRefreshProperties {
+
+    private Duration staleTtl = Duration.ofHours(1);
+    private double beta = 1.0;
+    private int threads = 2;
+    private boolean distributedLock = false;
+    private Duration lockTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,161 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Decides when a cached value is reloaded and makes sure it is reloaded once. Values are refreshed in
+ * the background when they turn stale, or slightly before with a probability that grows as expiry
+ * approaches and with the time the value took to load (the XFetch rule), so that popular keys don't
+ * all expire at the same moment. A missing value is loaded by the calling thread; with
+ * {@code cache.refresh.distributed-lock} a Redis lock makes the other nodes wait for it instead of
+ * loading it too.
+ */
+public class CacheRefresher {
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+    private static final long LOCK_POLL_MILLIS = 50;
+
+    private final CacheRefreshProperties properties;
+    private final ExecutorService executor;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheRefresher.class);
+
+    public CacheRefresher(CacheRefreshProperties properties, ExecutorService executor, StringRedisTemplate redisTemplate,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean shouldRefresh(StampedValue value, long now) {
+        double earlyMillis = value.loadMillis() * properties.getBeta() * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return now + earlyMillis >= value.freshUntil();
+    }
+
+    /**
+     * Runs {@code refresh} on the refresh executor unless this node is already refreshing the key, or,
+     * with the distributed lock, another node is.
+     */
+    public void refreshAsync(String cacheName, Object key, String trigger, Runnable refresh) {
+        String id = cacheName + "::" + key;
+        if (!refreshing.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                String outcome = "success";
+                try {
+                    String token = tryLock(id);
+                    if (token == null) {
+                        outcome = "locked";
+                        return;
+                    }
+                    try {
+                        refresh.run();
+                    } finally {
+                        unlock(id, token);
+                    }
+                } catch (RuntimeException e) {
+                    outcome = "error";
+                    LOGGER.warn("refreshAsync - Failed to refresh cache: {}, key: {}", cacheName, key, e);
+                } finally {
+                    refreshing.remove(id);
+                    counter(cacheName, trigger, outcome).increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(id);
+            LOGGER.warn("refreshAsync - Refresh rejected for cache: {}, key: {}", cacheName, key);
+        }
+    }
+
+    /**
+     * Loads a missing value. With the distributed lock, a node that doesn't get the lock polls
+     * {@code lookup} until the holder has stored the value, and loads it itself after the lock timeout.
+     */
+    public Object load(String cacheName, Object key, Supplier<Cache.ValueWrapper> lookup, Callable<Object> loader) throws Exception {
+        if (!properties.isDistributedLock()) {
+            return loader.call();
+        }
+        String id = cacheName + "::" + key;
+        long deadline = System.currentTimeMillis() + properties.getLockTimeout().toMillis();
+        while (true) {
+            String token = tryLock(id);
+            if (token != null) {
+                try {
+                    return loader.call();
+                } finally {
+                    unlock(id, token);
+                }
+            }
+            Thread.sleep(LOCK_POLL_MILLIS);
+            Cache.ValueWrapper value = lookup.get();
+            if (value != null) {
+                return value.get();
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                LOGGER.debug("load - Lock wait timed out, loading cache: {}, key: {}", cacheName, key);
+                return loader.call();
+            }
+        }
+    }
+
+    private String tryLock(String id) {
+        if (!properties.isDistributedLock()) {
+            return "";
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(id), token, properties.getLockTimeout());
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            LOGGER.warn("tryLock - Cannot take the Redis lock for: {}, loading without it", id, e);
+            return "";
+        }
+    }
+
+    private void unlock(String id, String token) {
+        if (token.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(UNLOCK, List.of(lockKey(id)), token);
+        } catch (RuntimeException e) {
+            LOGGER.warn("unlock - Cannot release the Redis lock for: {}, it expires on its own", id, e);
+        }
+    }
+
+    private static String lockKey(String id) {
+        return "lock:" + id;
+    }
+
+    private Counter counter(String cacheName, String trigger, String outcome) {
+        return Counter.builder("cache.refresh")
+                .description("Background reloads of cached values")
+                .tag("cache", cacheName)
+                .tag("trigger", trigger)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Encodes one type of cached value for Redis. The id and version are written into the envelope of
+ * every entry: ids must be unique, and the version must be bumped whenever the encoding changes,
+ * after which entries written by the old encoding are read as misses.
+ */
+public interface CacheValueCodec<T> {
+
+    byte id();
+
+    byte version();
+
+    Class<T> type();
+
+    void encode(T value, OutputStream out) throws IOException;
+
+    T decode(InputStream in) throws IOException;
+}
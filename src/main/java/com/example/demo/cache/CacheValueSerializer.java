@@ -0,0 +1,131 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes cache values as a four byte envelope followed by the payload of the first codec accepting
+ * the value: format, codec id, codec version and flags. A {@link StampedValue} sets a flag and adds
+ * its fresh-until time and load time after the envelope. Payloads of at least
+ * {@code compressionThreshold} bytes are deflated. An entry of an unknown format, codec or version,
+ * including one written by plain JDK serialization, is read as {@code null} so that the cache
+ * treats it as a miss and reloads it.
+ */
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte FORMAT = 1;
+    static final byte COMPRESSED = 1;
+    static final byte STAMPED = 2;
+    private static final int HEADER_SIZE = 4;
+    private static final int STAMP_SIZE = 12;
+
+    private final List<CacheValueCodec<?>> codecs;
+    private final Map<Byte, CacheValueCodec<?>> codecsById = new HashMap<>();
+    private final int compressionThreshold;
+
+    /**
+     * @param codecs tried in order when writing, so more specific types go first
+     * @param compressionThreshold payload size from which payloads are deflated, non-positive to never deflate
+     */
+    public CacheValueSerializer(List<CacheValueCodec<?>> codecs, int compressionThreshold) {
+        this.codecs = List.copyOf(codecs);
+        this.compressionThreshold = compressionThreshold;
+        for (CacheValueCodec<?> codec : codecs) {
+            CacheValueCodec<?> existing = codecsById.putIfAbsent(codec.id(), codec);
+            if (existing != null) {
+                throw new IllegalStateException("Cache value codecs " + existing.getClass().getName() + " and "
+                        + codec.getClass().getName() + " share the id: " + codec.id());
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        StampedValue stamped = value instanceof StampedValue stampedValue ? stampedValue : null;
+        Object unwrapped = stamped != null ? stamped.value() : value;
+        CacheValueCodec<Object> codec = codecFor(unwrapped);
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+            codec.encode(unwrapped, payload);
+            boolean compress = compressionThreshold > 0 && payload.size() >= compressionThreshold;
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + STAMP_SIZE + payload.size());
+            out.write(FORMAT);
+            out.write(codec.id());
+            out.write(codec.version());
+            out.write((compress ? COMPRESSED : 0) | (stamped != null ? STAMPED : 0));
+            if (stamped != null) {
+                DataOutputStream stampOut = new DataOutputStream(out);
+                stampOut.writeLong(stamped.freshUntil());
+                stampOut.writeInt(stamped.loadMillis());
+            }
+            if (compress) {
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater)) {
+                    payload.writeTo(deflaterOut);
+                } finally {
+                    deflater.end();
+                }
+            } else {
+                payload.writeTo(out);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize cache value of type: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != FORMAT) {
+            return null;
+        }
+        CacheValueCodec<?> codec = codecsById.get(bytes[1]);
+        if (codec == null || codec.version() != bytes[2]) {
+            return null;
+        }
+        InputStream in = new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        try {
+            boolean stamped = (bytes[3] & STAMPED) != 0;
+            long freshUntil = 0;
+            int loadMillis = 0;
+            if (stamped) {
+                DataInputStream stampIn = new DataInputStream(in);
+                freshUntil = stampIn.readLong();
+                loadMillis = stampIn.readInt();
+            }
+            try (InputStream payload = (bytes[3] & COMPRESSED) != 0 ? new InflaterInputStream(in) : in) {
+                Object value = codec.decode(payload);
+                return stamped ? new StampedValue(value, freshUntil, loadMillis) : value;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Cannot deserialize cache value with codec: " + codec.getClass().getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheValueCodec<Object> codecFor(Object value) {
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.type().isInstance(value)) {
+                return (CacheValueCodec<Object>) codec;
+            }
+        }
+        throw new SerializationException("No cache value codec for type: " + value.getClass().getName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Component
+public class DoubleCacheValueCodec implements CacheValueCodec<Double> {
+
+    @Override
+    public byte id() {
+        return 1;
+    }
+
+    @Override
+    public byte version() {
+        return 1;
+    }
+
+    @Override
+    public Class<Double> type() {
+        return Double.class;
+    }
+
+    @Override
+    public void encode(Double value, OutputStream out) throws IOException {
+        new DataOutputStream(out).writeDouble(value);
+    }
+
+    @Override
+    public Double decode(InputStream in) throws IOException {
+        return new DataInputStream(in).readDouble();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.cache;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Fallback for values without a dedicated codec.
+ */
+public class JdkCacheValueCodec implements CacheValueCodec<Serializable> {
+
+    public static final byte ID = 0;
+
+    private final DefaultSerializer serializer = new DefaultSerializer();
+    private final DefaultDeserializer deserializer;
+
+    public JdkCacheValueCodec(ClassLoader classLoader) {
+        this.deserializer = new DefaultDeserializer(classLoader);
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte version() {
+        return 1;
+    }
+
+    @Override
+    public Class<Serializable> type() {
+        return Serializable.class;
+    }
+
+    @Override
+    public void encode(Serializable value, OutputStream out) throws IOException {
+        serializer.serialize(value, out);
+    }
+
+    @Override
+    public Serializable decode(InputStream in) throws IOException {
+        return (Serializable) deserializer.deserialize(in);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache.local")
+@Getter
+@Setter
+public class LocalCacheProperties {
+
+    private long maxSize = 10000;
+    private Duration timeToLive = Duration.ofSeconds(30);
+    private Map<String, Duration> cacheTimeToLive = new HashMap<>();
+    private String invalidationChannel = "cache-invalidation";
+
+    public Duration getTimeToLive(String cacheName) {
+        return cacheTimeToLive.getOrDefault(cacheName, timeToLive);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.cache;
+
+/**
+ * A value as stored in Redis, together with the time it stops being fresh and how long it took to
+ * load. Redis keeps the entry {@code cache.refresh.stale-ttl} longer, so that it can still be served
+ * while a new value is loaded.
+ */
+public record StampedValue(Object value, long freshUntil, int loadMillis) {
+
+    public boolean isStale(long now) {
+        return now >= freshUntil;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves reads from a bounded in-process cache and falls back to the shared Redis cache. Writes go
+ * to Redis first and are announced to the other nodes, which drop their local copy. Local entries
+ * are keyed by the key's string form, as Redis keys are, so that a key received over pub/sub
+ * matches the one the annotation produced.
+ * <p>
+ * Values written to Redis are stamped with the end of their {@code freshTtl}. Synchronized loads
+ * ({@code @Cacheable(sync = true)}) go through the local cache's per-key loading, so a key is
+ * loaded once per node; a stale or nearly stale value is still returned while {@link CacheRefresher}
+ * reloads it in the background. Unsynchronized reads treat a stale value as a miss.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheRefresher refresher;
+    private final Duration freshTtl;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local, Cache remote,
+                         CacheInvalidationPublisher invalidationPublisher, CacheRefresher refresher, Duration freshTtl) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refresher = refresher;
+        this.freshTtl = freshTtl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.getIfPresent(key.toString());
+        if (value == null) {
+            value = getRemote(key);
+            if (value != null) {
+                local.put(key.toString(), value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object result = value != null ? value.get() : null;
+        if (result != null && type != null && !type.isInstance(result)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + result);
+        }
+        return (T) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) local.get(key.toString(), el -> new SimpleValueWrapper(load(key, valueLoader))).get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, stamp(value, 0));
+        local.put(key.toString(), new SimpleValueWrapper(value));
+        invalidationPublisher.publish(name, key.toString());
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key.toString());
+        invalidationPublisher.publish(name, key.toString());
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Drops the local copy after another node changed the entry; a {@code null} key drops them all.
+     */
+    public void evictLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private ValueWrapper getRemote(Object key) {
+        ValueWrapper value = remote.get(key);
+        if (value != null && value.get() instanceof StampedValue stamped) {
+            return stamped.isStale(System.currentTimeMillis()) ? null : new SimpleValueWrapper(stamped.value());
+        }
+        return value;
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        ValueWrapper value = remote.get(key);
+        if (value != null) {
+            if (value.get() instanceof StampedValue stamped) {
+                long now = System.currentTimeMillis();
+                if (refresher.shouldRefresh(stamped, now)) {
+                    refresher.refreshAsync(name, key, stamped.isStale(now) ? "stale" : "early", () -> refresh(key, valueLoader));
+                }
+                return stamped.value();
+            }
+            return value.get();
+        }
+        try {
+            return refresher.load(name, key, () -> getRemote(key), () -> loadAndStore(key, valueLoader));
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void refresh(Object key, Callable<?> valueLoader) {
+        try {
+            Object value = loadAndStore(key, valueLoader);
+            local.put(key.toString(), new SimpleValueWrapper(value));
+            invalidationPublisher.publish(name, key.toString());
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) throws Exception {
+        long startedAt = System.nanoTime();
+        Object value = valueLoader.call();
+        remote.put(key, stamp(value, (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)));
+        return value;
+    }
+
+    private Object stamp(Object value, int loadMillis) {
+        if (value == null || freshTtl == null) {
+            return value;
+        }
+        return new StampedValue(value, System.currentTimeMillis() + freshTtl.toMillis(), loadMillis);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Wraps every cache of the Redis cache manager into a {@link TwoLevelCache} with its own bounded
+ * local layer, expiring after {@code cache.local.time-to-live} or the per-cache override. Values
+ * stay fresh in Redis for {@code freshTtl}, or forever when it is {@code null}.
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final LocalCacheProperties localCacheProperties;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheRefresher refresher;
+    private final Duration freshTtl;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, LocalCacheProperties localCacheProperties,
+                                CacheInvalidationPublisher invalidationPublisher, CacheRefresher refresher, Duration freshTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localCacheProperties = localCacheProperties;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refresher = refresher;
+        this.freshTtl = freshTtl;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream()
+                .map(this::getMissingCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return new TwoLevelCache(name, Caffeine.newBuilder()
+                .maximumSize(localCacheProperties.getMaxSize())
+                .expireAfterWrite(localCacheProperties.getTimeToLive(name))
+                .recordStats()
+                .<String, Cache.ValueWrapper>build(), remote, invalidationPublisher, refresher, freshTtl);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+/**
+ * Exports the statistics of the local layer; the Redis layer is exported through the Redis cache
+ * manager itself.
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), tags);
+    }
+}
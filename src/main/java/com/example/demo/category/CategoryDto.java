@@ -6,12 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO representing a categories details")
-public class CategoryDto {
+public class CategoryDto implements Serializable {
 
     @Schema(description = "Category id", example = "1")
     private Long id;
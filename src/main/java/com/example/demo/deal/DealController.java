@@ -1,6 +1,7 @@
 package com.example.demo.deal;
 
 import com.example.demo.exception.ResponseError;
+import com.example.demo.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -199,6 +200,79 @@ public class DealController {
         return ResponseEntity.ok(dealService.findRequestsSentToMeByStatus(status, pageable));
     }
 
+    @Operation(
+            summary = "Find all deal requests to current user with cursor",
+            description = "Searches all deal requests sent to the current user from newest to oldest. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All deal requests successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<DealDto>> findRequestsSentToMeAfter(
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for find all deal requests to current user with cursor - pageSize: {}", pageSize);
+        return ResponseEntity.ok(dealService.findRequestsSentToMeAfter(cursor, pageSize));
+    }
+
+    @Operation(
+            summary = "Find all deal requests to current user filtered by status with cursor",
+            description = "Searches all deal requests sent to the current user filtered by status from newest to oldest. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All deal requests successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/status/cursor")
+    public ResponseEntity<CursorPage<DealDto>> findRequestsSentToMeByStatusAfter(
+            @RequestParam(value = "status") @Parameter(description = "Status of deal", example = "APPROVED", required = true) Status status,
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for find all deal requests to current user by status with cursor - pageSize: {}, status: {}", pageSize, status);
+        return ResponseEntity.ok(dealService.findRequestsSentToMeByStatusAfter(status, cursor, pageSize));
+    }
+
     @Operation(
             summary = "Confirms the deal request"
     )
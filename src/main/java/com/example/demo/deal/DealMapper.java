@@ -1,10 +1,14 @@
 package com.example.demo.deal;
 
+import com.example.demo.tool.ToolDto;
 import com.example.demo.tool.ToolMapper;
 import com.example.demo.user.UserMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 @Component
 @RequiredArgsConstructor
 public class DealMapper {
@@ -13,11 +17,25 @@ public class DealMapper {
     private final ToolMapper toolMapper;
 
     public DealDto toDto(Deal deal) {
+        return toDto(deal, toolMapper.toDto(deal.getTool()));
+    }
+
+    public List<DealDto> toDtos(List<Deal> deals) {
+        List<ToolDto> tools = toolMapper.toDtos(deals.stream()
+                .map(Deal::getTool)
+                .toList());
+
+        return IntStream.range(0, deals.size())
+                .mapToObj(i -> toDto(deals.get(i), tools.get(i)))
+                .toList();
+    }
+
+    private DealDto toDto(Deal deal, ToolDto tool) {
         return DealDto.builder()
                 .id(deal.getId())
                 .owner(userMapper.toDto(deal.getOwner()))
                 .requester(userMapper.toDto(deal.getRequester()))
-                .tool(toolMapper.toDto(deal.getTool()))
+                .tool(tool)
                 .price(deal.getPrice())
                 .status(deal.getStatus())
                 .message(deal.getMessage())
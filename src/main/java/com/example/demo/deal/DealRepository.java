@@ -3,11 +3,33 @@ package com.example.demo.deal;
 import com.example.demo.user.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DealRepository extends JpaRepository<Deal, Long> {
 
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
     Page<Deal> findByOwner(User owner, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
     Page<Deal> findByOwnerAndStatus(User owner, Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
+    @Query("SELECT d FROM Deal d WHERE d.owner = :owner ORDER BY d.id DESC")
+    Slice<Deal> findFirstSliceByOwner(@Param("owner") User owner, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
+    @Query("SELECT d FROM Deal d WHERE d.owner = :owner AND d.id < :id ORDER BY d.id DESC")
+    Slice<Deal> findSliceByOwnerAfter(@Param("owner") User owner, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
+    @Query("SELECT d FROM Deal d WHERE d.owner = :owner AND d.status = :status ORDER BY d.id DESC")
+    Slice<Deal> findFirstSliceByOwnerAndStatus(@Param("owner") User owner, @Param("status") Status status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "requester", "tool", "tool.owner", "tool.manufacturer", "tool.category"})
+    @Query("SELECT d FROM Deal d WHERE d.owner = :owner AND d.status = :status AND d.id < :id ORDER BY d.id DESC")
+    Slice<Deal> findSliceByOwnerAndStatusAfter(@Param("owner") User owner, @Param("status") Status status, @Param("id") Long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.example.demo.deal;
 
+import com.example.demo.pagination.CursorPage;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,11 +11,15 @@ public interface DealService {
 
     Page<DealDto> findRequestsSentToMe(Pageable pageable);
 
+    CursorPage<DealDto> findRequestsSentToMeAfter(String cursor, int pageSize);
+
     void confirm(Long id);
 
     void cancel(Long id);
 
     Page<DealDto> findRequestsSentToMeByStatus(Status status, Pageable pageable);
 
+    CursorPage<DealDto> findRequestsSentToMeByStatusAfter(Status status, String cursor, int pageSize);
+
     DealDto purchase(@Valid PurchaseRequest purchaseRequest);
 }
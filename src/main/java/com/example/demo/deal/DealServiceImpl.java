@@ -3,6 +3,9 @@ package com.example.demo.deal;
 import com.example.demo.exception.DealNotFoundException;
 import com.example.demo.exception.ToolNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
+import com.example.demo.pagination.PageSize;
 import com.example.demo.tool.Tool;
 import com.example.demo.tool.ToolRepository;
 import com.example.demo.user.User;
@@ -11,8 +14,12 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +32,7 @@ public class DealServiceImpl implements DealService {
     private static final Logger LOGGER = LoggerFactory.getLogger(DealServiceImpl.class);
 
     @Override
+    @Transactional
     public DealDto rent(RentalRequest rentalRequest) {
         LOGGER.debug("rent: Creating a new deal request for tool with id: {}", rentalRequest.getToolId());
 
@@ -50,6 +58,7 @@ public class DealServiceImpl implements DealService {
     }
 
     @Override
+    @Transactional
     public DealDto purchase(PurchaseRequest purchaseRequest) {
         LOGGER.debug("purchase: Creating a new deal request for tool with id: {}", purchaseRequest.getToolId());
 
@@ -73,32 +82,64 @@ public class DealServiceImpl implements DealService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<DealDto> findRequestsSentToMe(Pageable pageable) {
         LOGGER.debug("findRequestsSentToMe: Fetching deal requests sent to the current user - pageNumber: {}, pageSize: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-        User owner = userService.getCurrentUser();
+        User owner = userService.getCurrentUserReference();
         Page<Deal> deals = dealRepository.findByOwner(owner, pageable);
 
-        LOGGER.debug("findRequestsSentToMe: Fetched {} deal requests sent to the current user: {}", deals.getContent().size(), owner.getLogin());
-        return deals.map(dealMapper::toDto);
+        LOGGER.debug("findRequestsSentToMe: Fetched {} deal requests sent to the current user with id: {}", deals.getContent().size(), owner.getId());
+        return new PageImpl<>(dealMapper.toDtos(deals.getContent()), pageable, deals.getTotalElements());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<DealDto> findRequestsSentToMeAfter(String cursor, int pageSize) {
+        LOGGER.debug("findRequestsSentToMeAfter: Fetching deal requests sent to the current user after cursor - pageSize: {}", pageSize);
+
+        User owner = userService.getCurrentUserReference();
+        Pageable pageable = PageRequest.ofSize(PageSize.check(pageSize));
+        Slice<Deal> deals = cursor == null
+                ? dealRepository.findFirstSliceByOwner(owner, pageable)
+                : dealRepository.findSliceByOwnerAfter(owner, KeysetCursor.decode(cursor).getId(), pageable);
+
+        LOGGER.debug("findRequestsSentToMeAfter: Fetched {} deal requests sent to the current user with id: {}", deals.getContent().size(), owner.getId());
+        return toCursorPage(deals, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<DealDto> findRequestsSentToMeByStatusAfter(Status status, String cursor, int pageSize) {
+        LOGGER.debug("findRequestsSentToMeByStatusAfter: Fetching deal requests sent to the current user by status after cursor - pageSize: {}, status: {}", pageSize, status);
+
+        User owner = userService.getCurrentUserReference();
+        Pageable pageable = PageRequest.ofSize(PageSize.check(pageSize));
+        Slice<Deal> deals = cursor == null
+                ? dealRepository.findFirstSliceByOwnerAndStatus(owner, status, pageable)
+                : dealRepository.findSliceByOwnerAndStatusAfter(owner, status, KeysetCursor.decode(cursor).getId(), pageable);
+
+        LOGGER.debug("findRequestsSentToMeByStatusAfter: Fetched {} deal requests sent to the current user with id: {} by status: {}", deals.getContent().size(), owner.getId(), status);
+        return toCursorPage(deals, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<DealDto> findRequestsSentToMeByStatus(Status status, Pageable pageable) {
         LOGGER.debug("findRequestsSentToMeByStatus: Fetching deal requests sent to the current user by status - pageNumber: {}, pageSize: {}, status: {}", pageable.getPageNumber(), pageable.getPageSize(), status);
 
-        User owner = userService.getCurrentUser();
+        User owner = userService.getCurrentUserReference();
         Page<Deal> deals = dealRepository.findByOwnerAndStatus(owner, status, pageable);
 
-        LOGGER.debug("findRequestsSentToMeByStatus: Fetched {} deal requests sent to the current user: {} by status: {}", deals.getContent().size(), owner.getLogin(), status);
-        return deals.map(dealMapper::toDto);
+        LOGGER.debug("findRequestsSentToMeByStatus: Fetched {} deal requests sent to the current user with id: {} by status: {}", deals.getContent().size(), owner.getId(), status);
+        return new PageImpl<>(dealMapper.toDtos(deals.getContent()), pageable, deals.getTotalElements());
     }
 
     @Override
     public void confirm(Long id) {
         LOGGER.debug("confirm - Confirming deal request by id: {}", id);
 
-        User owner = userService.getCurrentUser();
+        User owner = userService.getCurrentUserReference();
         Deal deal = dealRepository.findById(id)
                         .orElseThrow(() -> new DealNotFoundException("Deal with id: " + id + " not found"));
         checkUserRights(deal, owner);
@@ -112,7 +153,7 @@ public class DealServiceImpl implements DealService {
     public void cancel(Long id) {
         LOGGER.debug("confirm - Canceling deal request by id: {}", id);
 
-        User owner = userService.getCurrentUser();
+        User owner = userService.getCurrentUserReference();
         Deal deal = dealRepository.findById(id)
                 .orElseThrow(() -> new DealNotFoundException("Deal with id: " + id + " not found"));
         checkUserRights(deal, owner);
@@ -127,4 +168,21 @@ public class DealServiceImpl implements DealService {
             throw new UserDontHavePermissionException("User with id: " + user.getId() + " cannot modify deal with id: " + deal.getId());
         }
     }
+
+    private CursorPage<DealDto> toCursorPage(Slice<Deal> deals, int pageSize) {
+        String nextCursor = null;
+        if (deals.hasNext()) {
+            nextCursor = KeysetCursor.builder()
+                    .id(deals.getContent().get(deals.getContent().size() - 1).getId())
+                    .build()
+                    .encode();
+        }
+
+        return CursorPage.<DealDto>builder()
+                .content(dealMapper.toDtos(deals.getContent()))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(deals.hasNext())
+                .build();
+    }
 }
@@ -1,9 +1,15 @@
 package com.example.demo.elasticsearch;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 @RequiredArgsConstructor
 public class ElasticConfig extends ElasticsearchConfiguration {
@@ -17,4 +23,11 @@ public class ElasticConfig extends ElasticsearchConfiguration {
                 .withBasicAuth(elasticProperties.getUsername(), elasticProperties.getPassword())
                 .build();
     }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService reindexExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("tool-reindex-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(Math.max(1, elasticProperties.getReindexSlices()) + 1, threadFactory);
+    }
 }
@@ -13,37 +13,52 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
 @Component
 @RequiredArgsConstructor
 public class ElasticInitializer implements CommandLineRunner {
 
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+
     private final ElasticsearchClient elasticsearchClient;
     private final ElasticProperties elasticProperties;
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticInitializer.class);
 
     @Override
     public void run(String... args) throws Exception {
-        createIndex(elasticProperties.getIndex());
-    }
-
-    private void createIndex(String indexName) {
+        String alias = elasticProperties.getIndex();
         try {
             BooleanResponse isExist = elasticsearchClient.indices().exists(new ExistsRequest.Builder()
-                    .index(elasticProperties.getIndex())
+                    .index(alias)
                     .build());
             if (!isExist.value()) {
-                LOGGER.debug("Creating index: {}", indexName);
-                try (InputStream inputStream = ElasticInitializer.class.getClassLoader().getResourceAsStream("elasticsearch/tool-mapping.json")) {
-                    elasticsearchClient.indices().create(new CreateIndexRequest.Builder()
-                            .index(indexName)
-                            .withJson(inputStream)
-                            .build());
-                    LOGGER.debug("Index: {} created successfully", indexName);
-                }
+                createIndex(versionedName(alias), alias);
             }
         } catch (IOException e) {
             throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
         }
     }
+
+    public void createIndex(String indexName, String alias) {
+        LOGGER.debug("Creating index: {} with alias: {}", indexName, alias);
+        try (InputStream inputStream = ElasticInitializer.class.getClassLoader().getResourceAsStream("elasticsearch/tool-mapping.json")) {
+            CreateIndexRequest.Builder builder = new CreateIndexRequest.Builder()
+                    .index(indexName)
+                    .withJson(inputStream);
+            if (alias != null) {
+                builder.aliases(alias, a -> a);
+            }
+            elasticsearchClient.indices().create(builder.build());
+            LOGGER.debug("Index: {} created successfully", indexName);
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    public static String versionedName(String alias) {
+        return alias + "_" + VERSION_FORMAT.format(Instant.now());
+    }
 }
@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "elasticsearch")
 @Getter
@@ -18,4 +20,22 @@ public class ElasticProperties {
     private String url;
 
     private String index;
+
+    private int maxResultWindow = 10000;
+
+    private String pitKeepAlive = "1m";
+
+    private int bulkSize = 500;
+
+    private long bulkFlushInterval = 500L;
+
+    private int bulkMaxRetries = 10;
+
+    private long bulkInitialBackoff = 200L;
+
+    private long bulkMaxBackoff = 300_000L;
+
+    private int reindexSlices = 4;
+
+    private Duration outboxClaimTimeout = Duration.ofMinutes(1);
 }
@@ -1,5 +1,7 @@
 package com.example.demo.elasticsearch;
 
+import org.springframework.data.domain.Pageable;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -9,5 +11,13 @@ public interface ElasticService {
 
     void delete(Long toolId);
 
-    List<Long> search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte);
+    ToolBulkResult bulk(List<ToolIndexOperation> operations);
+
+    ToolBulkResult bulk(String index, List<ToolIndexOperation> operations);
+
+    ToolBulkResult bulkIntoAlias(String alias, List<ToolIndexOperation> operations);
+
+    ToolSearchHits search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, Pageable pageable);
+
+    ToolSearchHits searchAfter(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, String cursor, int size);
 }
@@ -1,21 +1,37 @@
 package com.example.demo.elasticsearch;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.DeleteRequest;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.exception.InvalidPaginationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.elasticsearch.core.RefreshPolicy;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -24,6 +40,8 @@ public class ElasticServiceImpl implements ElasticService {
 
     private final ElasticProperties elasticProperties;
     private final ElasticsearchClient elasticsearchClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticServiceImpl.class);
 
     @Override
@@ -35,12 +53,8 @@ public class ElasticServiceImpl implements ElasticService {
                 .id(String.valueOf(toolDocument.getId()))
                 .document(toolDocument)
                 .build();
-        try {
-            elasticsearchClient.index(request);
-            LOGGER.debug("Successfully saved document with id: {} to index: {}", toolDocument.getId(), index);
-        } catch (IOException e) {
-            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
-        }
+        timed("index", () -> elasticsearchClient.index(request));
+        LOGGER.debug("Successfully saved document with id: {} to index: {}", toolDocument.getId(), index);
     }
 
     @Override
@@ -51,62 +65,266 @@ public class ElasticServiceImpl implements ElasticService {
                 .index(index)
                 .id(String.valueOf(toolId))
                 .build();
-        try {
-            elasticsearchClient.delete(request);
-            LOGGER.debug("Successfully deleted document with id: {} from index: {}", toolId, index);
-        } catch (IOException e) {
-            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        timed("delete", () -> elasticsearchClient.delete(request));
+        LOGGER.debug("Successfully deleted document with id: {} from index: {}", toolId, index);
+    }
+
+    @Override
+    public ToolBulkResult bulk(List<ToolIndexOperation> operations) {
+        return bulk(elasticProperties.getIndex(), operations);
+    }
+
+    @Override
+    public ToolBulkResult bulk(String index, List<ToolIndexOperation> operations) {
+        return bulk(index, operations, false);
+    }
+
+    @Override
+    public ToolBulkResult bulkIntoAlias(String alias, List<ToolIndexOperation> operations) {
+        return bulk(alias, operations, true);
+    }
+
+    private ToolBulkResult bulk(String index, List<ToolIndexOperation> operations, boolean requireAlias) {
+        LOGGER.debug("Sending bulk request with {} operations to index: {}", operations.size(), index);
+        BulkRequest.Builder builder = new BulkRequest.Builder().index(index);
+        if (requireAlias) {
+            builder.requireAlias(true);
+        }
+        for (ToolIndexOperation operation : operations) {
+            String id = String.valueOf(operation.getToolId());
+            VersionType versionType = operation.getVersion() != null ? VersionType.External : null;
+            if (operation.isDelete()) {
+                builder.operations(o -> o.delete(d -> d.id(id).version(operation.getVersion()).versionType(versionType)));
+            } else {
+                builder.operations(o -> o.index(i -> i.id(id).version(operation.getVersion()).versionType(versionType).document(operation.getDocument())));
+            }
+        }
+
+        BulkRequest request = builder.build();
+        BulkResponse response = timed("bulk", () -> elasticsearchClient.bulk(request));
+        if (!response.errors()) {
+            LOGGER.debug("Successfully applied {} bulk operations to index: {}", operations.size(), index);
+            return ToolBulkResult.empty();
         }
 
+        ToolBulkResult result = ToolBulkResult.empty();
+        List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < items.size(); i++) {
+            BulkResponseItem item = items.get(i);
+            if (item.error() == null) {
+                continue;
+            }
+            if (item.status() == 409) {
+                LOGGER.debug("Skipping stale bulk {} of document with id: {} in index: {}", item.operationType().jsonValue(), item.id(), index);
+                continue;
+            }
+            if (item.status() == 429 || item.status() >= 500) {
+                result.getRetryable().add(operations.get(i));
+            } else {
+                result.getRejected().put(operations.get(i).getToolId(), item.status() + ": " + item.error().reason());
+                LOGGER.error("Bulk {} of document with id: {} in index: {} failed with status: {}, reason: {}",
+                        item.operationType().jsonValue(), item.id(), index, item.status(), item.error().reason());
+            }
+        }
+        LOGGER.debug("Bulk request to index: {} has {} retryable and {} rejected failures", index, result.getRetryable().size(), result.getRejected().size());
+        return result;
     }
 
     @Override
-    public List<Long> search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte) {
+    public ToolSearchHits search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, Pageable pageable) {
         String index = elasticProperties.getIndex();
-        LOGGER.debug("Searching documents with filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {} from index: {}",
-                description, manufacturer, category, type, condition, gte, lte, index);
+        LOGGER.debug("Searching documents with filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {} from index: {}, pageNumber: {}, pageSize: {}",
+                description, manufacturer, category, type, condition, gte, lte, index, pageable.getPageNumber(), pageable.getPageSize());
+
+        if (pageable.getOffset() + pageable.getPageSize() > elasticProperties.getMaxResultWindow()) {
+            throw new InvalidPaginationException("Page is too deep for offset pagination, max result window is: " + elasticProperties.getMaxResultWindow() + ". Use cursor search instead");
+        }
+
         SearchRequest searchRequest = new SearchRequest.Builder()
                 .index(index)
-                .query(q -> q.bool(b -> {
-                    if (description != null && !description.isBlank()) {
-                        b.must(m -> m.match(m1 -> m1.field("description").query(description)));
-                    }
-                    if (manufacturer != null) {
-                        b.filter(f -> f.term(t -> t.field("manufacturer").value(manufacturer)));
-                    }
-                    if (category != null) {
-                        b.filter(f -> f.term(t -> t.field("category").value(category)));
-                    }
-                    if (type != null) {
-                        b.filter(f -> f.term(t -> t.field("type").value(type)));
-                    }
-                    if (condition != null) {
-                        b.filter(f -> f.term(t -> t.field("condition").value(condition)));
-                    }
-                    if (gte != null && lte != null) {
-                        b.filter(f -> f.range(r -> r.number(n -> n
-                                .field("price")
-                                .gte(gte.doubleValue())
-                                .lte(lte.doubleValue())
-                        )));
-                    }
-                    return b;
-                }))
+                .query(buildQuery(description, manufacturer, category, type, condition, gte, lte))
+                .from((int) pageable.getOffset())
+                .size(pageable.getPageSize())
+                .source(s -> s.fetch(false))
+                .build();
+
+        SearchResponse<Void> response = executeSearch(searchRequest, "offset");
+        LOGGER.debug("Successfully received: {} documents from index: {}", response.hits().hits().size(), index);
+
+        return ToolSearchHits.builder()
+                .ids(extractIds(response))
+                .total(response.hits().total() != null ? response.hits().total().value() : response.hits().hits().size())
+                .build();
+    }
+
+    @Override
+    public ToolSearchHits searchAfter(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, String cursor, int size) {
+        String index = elasticProperties.getIndex();
+        LOGGER.debug("Searching documents after cursor with filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {} from index: {}, pageSize: {}",
+                description, manufacturer, category, type, condition, gte, lte, index, size);
+
+        SearchCursor searchCursor = cursor != null ? decodeCursor(cursor) : null;
+        String pitId = searchCursor != null ? searchCursor.getPitId() : openPointInTime(index);
+
+        SearchRequest.Builder builder = new SearchRequest.Builder()
+                .query(buildQuery(description, manufacturer, category, type, condition, gte, lte))
+                .pit(p -> p.id(pitId).keepAlive(k -> k.time(elasticProperties.getPitKeepAlive())))
+                .size(size)
+                .trackTotalHits(t -> t.enabled(false))
+                .source(s -> s.fetch(false))
+                .sort(SortOptions.of(s -> s.score(sc -> sc.order(SortOrder.Desc))))
+                .sort(SortOptions.of(s -> s.field(f -> f.field("_shard_doc").order(SortOrder.Asc))));
+        if (searchCursor != null) {
+            builder.searchAfter(searchCursor.getSort().stream()
+                    .map(this::toFieldValue)
+                    .toList());
+        }
+
+        SearchResponse<Void> response = executeSearch(builder.build(), "cursor");
+        List<Hit<Void>> hits = response.hits().hits();
+        LOGGER.debug("Successfully received: {} documents after cursor from index: {}", hits.size(), index);
+
+        String nextPitId = response.pitId() != null ? response.pitId() : pitId;
+        String nextCursor = null;
+        if (hits.size() == size) {
+            nextCursor = encodeCursor(SearchCursor.builder()
+                    .pitId(nextPitId)
+                    .sort(hits.get(hits.size() - 1).sort().stream()
+                            .map(FieldValue::_get)
+                            .toList())
+                    .build());
+        } else {
+            closePointInTime(nextPitId);
+        }
+
+        return ToolSearchHits.builder()
+                .ids(extractIds(response))
+                .total(hits.size())
+                .nextCursor(nextCursor)
                 .build();
+    }
+
+    private Query buildQuery(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte) {
+        return Query.of(q -> q.bool(b -> {
+            if (description != null && !description.isBlank()) {
+                b.must(m -> m.match(m1 -> m1.field("description").query(description)));
+            }
+            if (manufacturer != null) {
+                b.filter(f -> f.term(t -> t.field("manufacturer").value(manufacturer)));
+            }
+            if (category != null) {
+                b.filter(f -> f.term(t -> t.field("category").value(category)));
+            }
+            if (type != null) {
+                b.filter(f -> f.term(t -> t.field("type").value(type)));
+            }
+            if (condition != null) {
+                b.filter(f -> f.term(t -> t.field("condition").value(condition)));
+            }
+            if (gte != null && lte != null) {
+                b.filter(f -> f.range(r -> r.number(n -> n
+                        .field("price")
+                        .gte(gte.doubleValue())
+                        .lte(lte.doubleValue())
+                )));
+            }
+            return b;
+        }));
+    }
+
+    private SearchResponse<Void> executeSearch(SearchRequest searchRequest, String pagination) {
+        SearchResponse<Void> response = timed("search", () -> elasticsearchClient.search(searchRequest, Void.class));
+        DistributionSummary.builder("elasticsearch.search.hits")
+                .description("Documents returned per search request")
+                .tag("pagination", pagination)
+                .register(meterRegistry)
+                .record(response.hits().hits().size());
+        return response;
+    }
 
-        SearchResponse<Void> response = null;
+    private <T> T timed(String operation, ElasticCall<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            response = elasticsearchClient.search(searchRequest, Void.class);
-            LOGGER.debug("Successfully received: {} documents from index: {}", response.hits().hits().size(), index);
+            T result = call.execute();
+            outcome = "success";
+            return result;
         } catch (IOException e) {
             throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("elasticsearch.requests")
+                    .description("Latency of Elasticsearch requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
+    }
 
-
-        List<Long> ids = response.hits().hits().stream()
+    private List<Long> extractIds(SearchResponse<Void> response) {
+        return response.hits().hits().stream()
                 .map(el -> Long.valueOf(el.id()))
                 .toList();
+    }
+
+    private String openPointInTime(String index) {
+        OpenPointInTimeRequest request = new OpenPointInTimeRequest.Builder()
+                .index(index)
+                .keepAlive(k -> k.time(elasticProperties.getPitKeepAlive()))
+                .build();
+        String pitId = timed("open_pit", () -> elasticsearchClient.openPointInTime(request)).id();
+        LOGGER.debug("Opened point in time for index: {}", index);
+        return pitId;
+    }
+
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchClient.closePointInTime(new ClosePointInTimeRequest.Builder()
+                    .id(pitId)
+                    .build());
+            LOGGER.debug("Closed point in time after the last page");
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close point in time: {}", e.getMessage());
+        }
+    }
+
+    private FieldValue toFieldValue(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return FieldValue.of(((Number) value).doubleValue());
+        }
+        if (value instanceof Number number) {
+            return FieldValue.of(number.longValue());
+        }
+        if (value instanceof Boolean bool) {
+            return FieldValue.of(bool);
+        }
+        if (value == null) {
+            return FieldValue.NULL;
+        }
+        return FieldValue.of(value.toString());
+    }
+
+    private String encodeCursor(SearchCursor searchCursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(searchCursor));
+        } catch (IOException e) {
+            throw new ElasticsearchException("Cursor encode exception: " + e.getMessage(), e);
+        }
+    }
+
+    private SearchCursor decodeCursor(String cursor) {
+        try {
+            SearchCursor searchCursor = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), SearchCursor.class);
+            if (searchCursor.getPitId() == null || searchCursor.getSort() == null || searchCursor.getSort().isEmpty()) {
+                throw new InvalidPaginationException("Cursor is malformed");
+            }
+            return searchCursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidPaginationException("Cursor is malformed: " + e.getMessage(), e);
+        }
+    }
 
-        return ids;
+    @FunctionalInterface
+    private interface ElasticCall<T> {
+        T execute() throws IOException;
     }
 }
@@ -0,0 +1,91 @@
+package com.example.demo.elasticsearch;
+
+import com.example.demo.exception.ResponseError;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/reindex")
+@RequiredArgsConstructor
+@Tag(
+        name = "Reindex controller",
+        description = "Controller for rebuilding the tool search index"
+)
+public class ReindexController {
+
+    private final ToolReindexer toolReindexer;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReindexController.class);
+
+    @Operation(
+            summary = "Start reindex",
+            description = "Loads all tools into a new index and switches the alias to it when done"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "202", description = "Reindex started"),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "409", description = "Reindex is already running",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping
+    public ResponseEntity<ReindexStatus> start() {
+        LOGGER.info("[POST] Request for start reindex");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toolReindexer.start());
+    }
+
+    @Operation(
+            summary = "Get reindex status",
+            description = "Returns progress and throughput of the current or last reindex"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Reindex status successfully received"),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping
+    public ResponseEntity<ReindexStatus> getStatus() {
+        LOGGER.info("[GET] Request for reindex status");
+        return ResponseEntity.ok(toolReindexer.getStatus());
+    }
+}
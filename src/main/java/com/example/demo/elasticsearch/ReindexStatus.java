@@ -0,0 +1,23 @@
+package com.example.demo.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReindexStatus {
+
+    private boolean running;
+
+    private String index;
+
+    private long total;
+
+    private long indexed;
+
+    private long docsPerSecond;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchCursor {
+
+    private String pitId;
+
+    private List<Object> sort;
+}
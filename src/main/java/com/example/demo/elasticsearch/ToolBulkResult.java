@@ -0,0 +1,30 @@
+package com.example.demo.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ToolBulkResult {
+
+    // Operations that failed with 429 or 5xx and can be sent again
+    @Builder.Default
+    private List<ToolIndexOperation> retryable = new ArrayList<>();
+
+    // Tool id -> "status: reason" of operations Elasticsearch refused, sending them again gives the same answer
+    @Builder.Default
+    private Map<Long, String> rejected = new LinkedHashMap<>();
+
+    public static ToolBulkResult empty() {
+        return ToolBulkResult.builder().build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.elasticsearch;
 
 import com.example.demo.tool.Tool;
+import com.example.demo.tool.ToolIndexView;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -17,4 +18,16 @@ public class ToolDocumentMapper {
                 .description(tool.getDescription())
                 .build();
     }
+
+    public ToolDocument toDocument(ToolIndexView tool) {
+        return ToolDocument.builder()
+                .id(tool.getId())
+                .manufacturer(tool.getManufacturerId())
+                .category(tool.getCategoryId())
+                .type(tool.getToolType().name())
+                .condition(tool.getToolCondition().name())
+                .price(tool.getPrice())
+                .description(tool.getDescription())
+                .build();
+    }
 }
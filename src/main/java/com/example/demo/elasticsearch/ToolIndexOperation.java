@@ -0,0 +1,30 @@
+package com.example.demo.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ToolIndexOperation {
+
+    private Long toolId;
+
+    private ToolDocument document;
+
+    private Long version;
+
+    public boolean isDelete() {
+        return document == null;
+    }
+
+    public static long versionOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000L;
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.demo.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.exception.ReindexInProgressException;
+import com.example.demo.tool.ToolIndexView;
+import com.example.demo.tool.ToolRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ToolReindexer {
+
+    private static final int MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF = 200L;
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticProperties elasticProperties;
+    private final ElasticInitializer elasticInitializer;
+    private final ElasticService elasticService;
+    private final ToolRepository toolRepository;
+    private final ToolDocumentMapper toolDocumentMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService reindexExecutor;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ToolReindexer.class);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong indexed = new AtomicLong();
+    private volatile String currentIndex;
+    private volatile long total;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    /**
+     * Returns the write alias of the index a reindex on any node is loading, or null when none is running.
+     * The alias lives in Elasticsearch so relays on every node dual-write into the shadow index.
+     */
+    public String getShadowIndex() {
+        String shadowAlias = shadowAlias();
+        try {
+            return elasticsearchClient.indices().existsAlias(e -> e.name(shadowAlias)).value() ? shadowAlias : null;
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    public ReindexStatus getStatus() {
+        return ReindexStatus.builder()
+                .running(running.get())
+                .index(currentIndex)
+                .total(total)
+                .indexed(indexed.get())
+                .docsPerSecond(docsPerSecond())
+                .build();
+    }
+
+    public ReindexStatus start() {
+        acquire();
+        try {
+            reindexExecutor.execute(() -> {
+                try {
+                    reindexInto(ElasticInitializer.versionedName(elasticProperties.getIndex()));
+                } catch (RuntimeException e) {
+                    LOGGER.error("reindex - Reindex failed: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            throw e;
+        }
+        return getStatus();
+    }
+
+    public ReindexStatus reindex() {
+        acquire();
+        try {
+            reindexInto(ElasticInitializer.versionedName(elasticProperties.getIndex()));
+        } finally {
+            running.set(false);
+        }
+        return getStatus();
+    }
+
+    private void acquire() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReindexInProgressException("Reindex into index: " + currentIndex + " is already running");
+        }
+    }
+
+    private void reindexInto(String newIndex) {
+        String alias = elasticProperties.getIndex();
+        LOGGER.info("reindex - Reindexing tools into index: {} behind alias: {}", newIndex, alias);
+
+        currentIndex = newIndex;
+        indexed.set(0);
+        total = toolRepository.count();
+        startedAt = System.nanoTime();
+        finishedAt = 0;
+
+        elasticInitializer.createIndex(newIndex, null);
+        try {
+            pointShadowAlias(newIndex);
+            IndexSettings settings = prepareForBulkLoad(newIndex);
+            loadSlices(newIndex);
+            restoreSettings(newIndex, settings);
+            swapAlias(alias, newIndex);
+        } catch (RuntimeException e) {
+            deleteIndex(newIndex);
+            throw e;
+        } finally {
+            finishedAt = System.nanoTime();
+        }
+
+        LOGGER.info("reindex - Reindexed {} tools into index: {} in {} ms, {} docs/s",
+                indexed.get(), newIndex, TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt), docsPerSecond());
+    }
+
+    private IndexSettings prepareForBulkLoad(String index) {
+        try {
+            IndexSettings settings = elasticsearchClient.indices().getSettings(g -> g.index(index)).get(index).settings();
+            IndexSettings indexSettings = settings != null && settings.index() != null ? settings.index() : settings;
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s
+                            .refreshInterval(Time.of(t -> t.time("-1")))
+                            .numberOfReplicas("0")));
+            return indexSettings;
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    private void restoreSettings(String index, IndexSettings settings) {
+        String replicas = settings != null && settings.numberOfReplicas() != null ? settings.numberOfReplicas() : "1";
+        Time refreshInterval = settings != null && settings.refreshInterval() != null
+                ? settings.refreshInterval()
+                : Time.of(t -> t.time(DEFAULT_REFRESH_INTERVAL));
+        try {
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s
+                            .refreshInterval(refreshInterval)
+                            .numberOfReplicas(replicas)));
+            elasticsearchClient.indices().refresh(r -> r.index(index));
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    private void pointShadowAlias(String newIndex) {
+        String shadowAlias = shadowAlias();
+        try {
+            List<Action> actions = new ArrayList<>();
+            for (String staleIndex : indicesBehind(shadowAlias)) {
+                LOGGER.warn("reindex - Moving shadow alias: {} off index: {} left by an unfinished reindex", shadowAlias, staleIndex);
+                actions.add(Action.of(a -> a.remove(r -> r.index(staleIndex).alias(shadowAlias))));
+            }
+            actions.add(Action.of(a -> a.add(ad -> ad.index(newIndex).alias(shadowAlias).isWriteIndex(true))));
+
+            elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    private void swapAlias(String alias, String newIndex) {
+        try {
+            List<Action> actions = new ArrayList<>();
+            for (String oldIndex : indicesBehind(alias)) {
+                actions.add(Action.of(a -> a.removeIndex(r -> r.index(oldIndex))));
+            }
+            actions.add(Action.of(a -> a.add(ad -> ad.index(newIndex).alias(alias))));
+            actions.add(Action.of(a -> a.remove(r -> r.index(newIndex).alias(shadowAlias()))));
+
+            elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+            LOGGER.info("reindex - Alias: {} now points to index: {}, removed {} old indexes", alias, newIndex, actions.size() - 2);
+        } catch (IOException e) {
+            throw new ElasticsearchException("Elastic search exception: " + e.getMessage(), e);
+        }
+    }
+
+    private Set<String> indicesBehind(String alias) throws IOException {
+        return elasticsearchClient.indices().get(g -> g
+                .index(alias)
+                .ignoreUnavailable(true)
+                .allowNoIndices(true)).result().keySet();
+    }
+
+    private String shadowAlias() {
+        return elasticProperties.getIndex() + "_reindex";
+    }
+
+    private void deleteIndex(String index) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(index));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("reindex - Failed to delete index: {} after failed reindex: {}", index, e.getMessage());
+        }
+    }
+
+    private void loadSlices(String index) {
+        Long minId = toolRepository.findMinId();
+        Long maxId = toolRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return;
+        }
+
+        int slices = Math.max(1, elasticProperties.getReindexSlices());
+        long step = (maxId - minId) / slices + 1;
+        List<Future<?>> futures = new ArrayList<>(slices);
+        try {
+            for (long fromId = minId; fromId <= maxId; fromId += step) {
+                long from = fromId;
+                long to = Math.min(maxId, fromId + step - 1);
+                futures.add(reindexExecutor.submit(() -> loadSlice(index, from, to)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ElasticsearchException("Reindex exception: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ElasticsearchException("Reindex interrupted", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void loadSlice(String index, long fromId, long toId) {
+        LOGGER.debug("reindex - Loading tools with id from: {} to: {} into index: {}", fromId, toId, index);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ToolIndexView> tools = toolRepository.streamIndexViewsBetween(fromId, toId)) {
+                List<ToolIndexOperation> batch = new ArrayList<>(elasticProperties.getBulkSize());
+                Iterator<ToolIndexView> iterator = tools.iterator();
+                while (iterator.hasNext()) {
+                    ToolIndexView tool = iterator.next();
+                    batch.add(ToolIndexOperation.builder()
+                            .toolId(tool.getId())
+                            .document(toolDocumentMapper.toDocument(tool))
+                            .version(ToolIndexOperation.versionOf(tool.getUpdatedAt()))
+                            .build());
+                    if (batch.size() >= elasticProperties.getBulkSize()) {
+                        sendBatch(index, batch);
+                        batch = new ArrayList<>(elasticProperties.getBulkSize());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    sendBatch(index, batch);
+                }
+            }
+        });
+    }
+
+    private void sendBatch(String index, List<ToolIndexOperation> batch) {
+        List<ToolIndexOperation> remaining = elasticService.bulk(index, batch).getRetryable();
+        for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+            if (attempt > MAX_RETRIES) {
+                throw new ElasticsearchException("Reindex bulk request failed for " + remaining.size() + " tools after " + MAX_RETRIES + " retries");
+            }
+            try {
+                Thread.sleep(INITIAL_BACKOFF << attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ElasticsearchException("Reindex interrupted", e);
+            }
+            remaining = elasticService.bulk(index, remaining).getRetryable();
+        }
+
+        long done = indexed.addAndGet(batch.size());
+        LOGGER.debug("reindex - Indexed {} of {} tools into index: {}, {} docs/s", done, total, index, docsPerSecond());
+    }
+
+    private long docsPerSecond() {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        long elapsed = end - startedAt;
+        return startedAt == 0 || elapsed <= 0 ? 0 : indexed.get() * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ToolSearchHits {
+
+    private List<Long> ids;
+
+    private long total;
+
+    private String nextCursor;
+}
@@ -0,0 +1,6 @@
+package com.example.demo.event;
+
+public enum OutboxOperation {
+    INDEX,
+    DELETE
+}
@@ -0,0 +1,13 @@
+package com.example.demo.event;
+
+import lombok.*;
+
+@Data
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewCreatedEvent {
+
+    private Long recipientId;
+}
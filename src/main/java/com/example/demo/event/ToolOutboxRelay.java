@@ -0,0 +1,203 @@
+package com.example.demo.event;
+
+import com.example.demo.elasticsearch.ElasticProperties;
+import com.example.demo.elasticsearch.ElasticService;
+import com.example.demo.elasticsearch.ToolBulkResult;
+import com.example.demo.elasticsearch.ToolDocumentMapper;
+import com.example.demo.elasticsearch.ToolIndexOperation;
+import com.example.demo.elasticsearch.ToolReindexer;
+import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.tool.Tool;
+import com.example.demo.tool.ToolRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ToolOutboxRelay {
+
+    private final ToolOutboxRepository toolOutboxRepository;
+    private final ToolRepository toolRepository;
+    private final ToolDocumentMapper toolDocumentMapper;
+    private final ElasticService elasticService;
+    private final ElasticProperties elasticProperties;
+    private final ToolReindexer toolReindexer;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ToolOutboxRelay.class);
+
+    private final AtomicLong backlog = new AtomicLong();
+    private Timer lagTimer;
+    private Counter failedCounter;
+    private Counter deadLetterCounter;
+
+    // Whole-request failures (ES down or unreachable) pause the relay instead of resending every tick
+    private int consecutiveFailures;
+    private long pausedUntil;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("elasticsearch.outbox.size", backlog, AtomicLong::get)
+                .description("Tool changes waiting in the outbox after the last relay run")
+                .register(meterRegistry);
+        lagTimer = Timer.builder("elasticsearch.outbox.lag")
+                .description("Time from a committed tool change to its acknowledged bulk write")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("elasticsearch.outbox.failed")
+                .description("Bulk relay runs that failed and left the outbox untouched")
+                .register(meterRegistry);
+        deadLetterCounter = Counter.builder("elasticsearch.outbox.dead.letters")
+                .description("Outbox events moved to tool_outbox_dead_letter after a rejection or too many retries")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${elasticsearch.bulk-flush-interval:500}")
+    public void relay() {
+        if (System.currentTimeMillis() < pausedUntil) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ClaimedBatch batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null) {
+            backlog.set(0);
+            return;
+        }
+        List<ToolIndexOperation> operations = batch.operations();
+
+        Set<Long> retryable = new HashSet<>();
+        Map<Long, String> rejected = new HashMap<>();
+        try {
+            if (!operations.isEmpty()) {
+                // Shadow first: if the alias swap lands in between, the live write below already reaches the new index
+                String shadowIndex = toolReindexer.getShadowIndex();
+                if (shadowIndex != null) {
+                    collect(elasticService.bulkIntoAlias(shadowIndex, operations), retryable, rejected);
+                }
+                collect(elasticService.bulk(operations), retryable, rejected);
+            }
+        } catch (ElasticsearchException e) {
+            consecutiveFailures++;
+            long backoff = backoff(consecutiveFailures);
+            pausedUntil = System.currentTimeMillis() + backoff;
+            LOGGER.warn("relay - Bulk request with {} operations failed {} times in a row, keeping outbox events and pausing for {} ms: {}",
+                    operations.size(), consecutiveFailures, backoff, e.getMessage());
+            failedCounter.increment();
+            List<Long> claimed = batch.events().stream().map(ToolOutbox::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> toolOutboxRepository.release(claimed));
+            return;
+        }
+        consecutiveFailures = 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>(batch.events().size());
+        List<Long> retried = new ArrayList<>();
+        Map<String, List<Long>> deadLetters = new HashMap<>();
+        for (ToolOutbox event : batch.events()) {
+            String reason = rejected.get(event.getToolId());
+            if (reason == null && retryable.contains(event.getToolId()) && event.getAttempts() >= elasticProperties.getBulkMaxRetries()) {
+                reason = "Retryable failure after " + event.getAttempts() + " retries";
+            }
+            if (reason != null) {
+                deadLetters.computeIfAbsent(reason, key -> new ArrayList<>()).add(event.getId());
+            } else if (retryable.contains(event.getToolId())) {
+                retried.add(event.getId());
+            } else {
+                delivered.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            toolOutboxRepository.deleteAllByIdInBatch(delivered);
+            if (!retried.isEmpty()) {
+                toolOutboxRepository.retryLater(retried, now, elasticProperties.getBulkInitialBackoff(), elasticProperties.getBulkMaxBackoff());
+            }
+            deadLetters.forEach((reason, ids) -> {
+                toolOutboxRepository.copyToDeadLetter(ids, reason, now);
+                toolOutboxRepository.deleteAllByIdInBatch(ids);
+            });
+        });
+        int dead = deadLetters.values().stream().mapToInt(List::size).sum();
+        if (dead > 0) {
+            deadLetterCounter.increment(dead);
+            LOGGER.warn("relay - Moved {} outbox events to the dead letter table: {}", dead, deadLetters.keySet());
+        }
+        backlog.set(toolOutboxRepository.count());
+
+        LOGGER.debug("relay - Relayed {} outbox events, {} scheduled for retry, {} dead-lettered", delivered.size(), retried.size(), dead);
+    }
+
+    private void collect(ToolBulkResult result, Set<Long> retryable, Map<Long, String> rejected) {
+        result.getRetryable().forEach(operation -> retryable.add(operation.getToolId()));
+        rejected.putAll(result.getRejected());
+    }
+
+    private long backoff(int failures) {
+        return Math.min(elasticProperties.getBulkMaxBackoff(), elasticProperties.getBulkInitialBackoff() << Math.min(failures - 1, 30));
+    }
+
+    /**
+     * Locks the oldest unclaimed events, leases them for {@code elasticsearch.outbox-claim-timeout} and builds their
+     * bulk operations, so the row locks are released on commit before Elasticsearch is called. A relay that dies
+     * mid-batch leaves the lease to expire and the events are picked up again.
+     */
+    private ClaimedBatch claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ToolOutbox> events = toolOutboxRepository.lockBatch(elasticProperties.getBulkSize(), now);
+        if (events.isEmpty()) {
+            return null;
+        }
+        LOGGER.debug("claimBatch - Claimed {} outbox events for Elasticsearch", events.size());
+        toolOutboxRepository.claim(events.stream().map(ToolOutbox::getId).toList(), now.plus(elasticProperties.getOutboxClaimTimeout()));
+
+        Map<Long, ToolOutbox> latest = new LinkedHashMap<>();
+        for (ToolOutbox event : events) {
+            latest.put(event.getToolId(), event);
+        }
+        Map<Long, Tool> tools = toolRepository.findAllByIdIn(latest.keySet()).stream()
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+
+        List<ToolIndexOperation> operations = new ArrayList<>(latest.size());
+        for (ToolOutbox event : latest.values()) {
+            Tool tool = tools.get(event.getToolId());
+            if (event.getOperation() == OutboxOperation.DELETE) {
+                operations.add(ToolIndexOperation.builder()
+                        .toolId(event.getToolId())
+                        .version(ToolIndexOperation.versionOf(event.getCreatedAt()))
+                        .build());
+            } else if (tool != null) {
+                operations.add(ToolIndexOperation.builder()
+                        .toolId(event.getToolId())
+                        .document(toolDocumentMapper.toDocument(tool))
+                        .version(ToolIndexOperation.versionOf(tool.getUpdatedAt()))
+                        .build());
+            }
+        }
+        return new ClaimedBatch(events, operations);
+    }
+
+    private record ClaimedBatch(List<ToolOutbox> events, List<ToolIndexOperation> operations) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.event;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ToolOutboxRepository extends JpaRepository<ToolOutbox, Long> {
+
+    @Query(value = "SELECT * FROM tool_outbox WHERE claimed_until IS NULL OR claimed_until < :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ToolOutbox> lockBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ToolOutbox o SET o.claimedUntil = :claimedUntil WHERE o.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query("UPDATE ToolOutbox o SET o.claimedUntil = NULL WHERE o.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Counts a failed delivery and keeps the events out of {@link #lockBatch} until {@code initialBackoff * 2^attempts}
+     * milliseconds (at most {@code maxBackoff}) have passed.
+     */
+    @Modifying
+    @Query(value = "UPDATE tool_outbox SET attempts = attempts + 1, claimed_until = :now + LEAST(:maxBackoff, :initialBackoff * POWER(2, LEAST(attempts, 30))) * INTERVAL '1 millisecond' WHERE id IN :ids", nativeQuery = true)
+    int retryLater(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now, @Param("initialBackoff") long initialBackoff, @Param("maxBackoff") long maxBackoff);
+
+    @Modifying
+    @Query(value = "INSERT INTO tool_outbox_dead_letter (id, tool_id, operation, created_at, attempts, reason, failed_at) SELECT id, tool_id, operation, created_at, attempts, :reason, :now FROM tool_outbox WHERE id IN :ids ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyToDeadLetter(@Param("ids") Collection<Long> ids, @Param("reason") String reason, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package com.example.demo.event;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ToolPhotosRemovedEvent {
+
+    private List<String> fileNames;
+}
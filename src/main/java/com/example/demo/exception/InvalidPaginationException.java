@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+public class InvalidPaginationException extends RuntimeException {
+
+    public InvalidPaginationException(String message) {
+        super(message);
+    }
+
+    public InvalidPaginationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,6 +2,10 @@ package com.example.demo.exception;
 
 public class MinIoException extends RuntimeException {
 
+    public MinIoException(String message) {
+        super(message);
+    }
+
     public MinIoException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -0,0 +1,8 @@
+package com.example.demo.exception;
+
+public class ReindexInProgressException extends RuntimeException {
+
+    public ReindexInProgressException(String message) {
+        super(message);
+    }
+}
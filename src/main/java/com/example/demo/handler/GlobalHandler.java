@@ -149,6 +149,22 @@ public class GlobalHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseError);
     }
 
+    @ExceptionHandler(InvalidPaginationException.class)
+    public ResponseEntity<ResponseError> invalidPaginationExcHandler(InvalidPaginationException exc) {
+        LOGGER.error("[Invalid Pagination Exception]: {}", exc.getMessage());
+        ResponseError responseError = buildResponseError(exc.getMessage(), HttpStatus.BAD_REQUEST);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseError);
+    }
+
+    @ExceptionHandler(ReindexInProgressException.class)
+    public ResponseEntity<ResponseError> reindexInProgressExcHandler(ReindexInProgressException exc) {
+        LOGGER.error("[Reindex In Progress Exception]: {}", exc.getMessage());
+        ResponseError responseError = buildResponseError(exc.getMessage(), HttpStatus.CONFLICT);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(responseError);
+    }
+
 
     private ResponseError buildResponseError(String message, HttpStatus status) {
         return ResponseError.builder()
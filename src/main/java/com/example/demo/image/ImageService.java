@@ -8,7 +8,7 @@ public interface ImageService {
 
     String uploadAndGetFileName(MultipartFile file);
 
-    String generateFileName(String originalFileName);
+    String generateFileName(MultipartFile file);
 
     List<String> processFiles(List<MultipartFile> files);
 
@@ -8,19 +8,39 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ImageServiceImpl implements ImageService {
 
+    private static final int HASH_BUFFER_SIZE = 65536;
+
     private final MinioProperties minioProperties;
     private final MinioService minioService;
+    private final ExecutorService minioExecutor;
+    private final PhotoRepository photoRepository;
+    private final PlatformTransactionManager transactionManager;
     private final Logger LOGGER = LoggerFactory.getLogger(ImageServiceImpl.class);
 
     @Override
@@ -30,13 +50,27 @@ public class ImageServiceImpl implements ImageService {
         }
         LOGGER.debug("Attempting to upload file to storage: {}", file.getOriginalFilename());
 
-        String fileName = generateFileName(file.getOriginalFilename());
-        LOGGER.debug("Generated unique file name: {}", fileName);
+        String fileName = generateFileName(file);
+        LOGGER.debug("Generated content addressed file name: {}", fileName);
 
-        try (InputStream inputStream = file.getInputStream()) {
-                minioService.uploadFile(fileName, minioProperties.getBucket(), inputStream);
-        } catch (IOException e) {
-            throw new FileUploadException("File upload exception: " + e.getMessage(), e);
+        photoRepository.acquire(fileName);
+        try {
+            if (minioService.exists(fileName, minioProperties.getBucket())) {
+                LOGGER.debug("File: {} is already stored, skipping upload", fileName);
+                return fileName;
+            }
+            try (InputStream inputStream = file.getInputStream()) {
+                minioService.uploadFile(fileName, minioProperties.getBucket(), inputStream, file.getSize());
+            } catch (IOException e) {
+                throw new FileUploadException("File upload exception: " + e.getMessage(), e);
+            }
+        } catch (RuntimeException e) {
+            try {
+                deleteFiles(List.of(fileName));
+            } catch (RuntimeException cleanupException) {
+                e.addSuppressed(cleanupException);
+            }
+            throw e;
         }
 
         LOGGER.debug("Successfully uploaded file: {}", fileName);
@@ -44,26 +78,142 @@ public class ImageServiceImpl implements ImageService {
     }
 
     @Override
-    public String generateFileName(String originalFileName) {
+    public String generateFileName(MultipartFile file) {
+        String originalFileName = file.getOriginalFilename();
         int lastDotIndex = originalFileName.lastIndexOf('.');
-        String extension = (lastDotIndex != -1) ? originalFileName.substring(lastDotIndex + 1) : "unknown";
+        String extension = (lastDotIndex != -1) ? originalFileName.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT) : "unknown";
 
-        return UUID.randomUUID() + "." + extension;
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = file.getInputStream()) {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new FileUploadException("File upload exception: " + e.getMessage(), e);
+        }
+        return HexFormat.of().formatHex(digest.digest()) + "." + extension;
     }
 
     @Override
     public List<String> processFiles(List<MultipartFile> files) {
-        return files.stream()
+        List<MultipartFile> nonEmptyFiles = files.stream()
                 .filter(el -> !el.isEmpty())
-                .map(this::uploadAndGetFileName)
                 .toList();
+        LOGGER.debug("Uploading {} files with concurrency: {}", nonEmptyFiles.size(), minioProperties.getUploadConcurrency());
+
+        Semaphore permits = new Semaphore(Math.max(1, minioProperties.getUploadConcurrency()));
+        List<Future<String>> uploads = new ArrayList<>(nonEmptyFiles.size());
+        RuntimeException failure = null;
+        try {
+            for (MultipartFile file : nonEmptyFiles) {
+                permits.acquire();
+                uploads.add(minioExecutor.submit(() -> {
+                    try {
+                        return uploadAndGetFileName(file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            uploads.forEach(el -> el.cancel(true));
+            failure = new FileUploadException("File upload interrupted", e);
+        }
+        return awaitAndCleanup(uploads, failure);
     }
 
+    /**
+     * Releases one reference per file name and removes the objects, with their variants, whose last
+     * reference went away. The release commits on its own; the removal then runs in a second, short
+     * transaction that locks only the rows still at zero, so an upload of the same content waits in
+     * {@link PhotoRepository#acquire} until the objects are gone and then stores them again. If the
+     * removal fails, the rows stay at zero and {@link OrphanPhotoCleanupJob} retries them.
+     */
     @Override
     public void deleteFiles(List<String> fileNames) {
-        if (fileNames != null) {
-            fileNames.forEach(el -> minioService.removeFile(el, minioProperties.getBucket()));
+        if (fileNames == null || fileNames.isEmpty()) {
+            return;
+        }
+        Map<String, Long> references = fileNames.stream()
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> released = transactionTemplate.execute(status -> {
+            references.forEach(photoRepository::release);
+            return photoRepository.findUnreferenced(references.keySet());
+        });
+        if (released.isEmpty()) {
+            LOGGER.debug("Released {} files, all still referenced", fileNames.size());
+            return;
+        }
+
+        List<String> removed = transactionTemplate.execute(status -> {
+            List<String> removable = photoRepository.lockRemovable(released);
+            if (!removable.isEmpty()) {
+                minioService.removeFiles(withVariants(removable), minioProperties.getBucket());
+                photoRepository.deleteAllByIdInBatch(removable);
+            }
+            return removable;
+        });
+        LOGGER.debug("Released {} files, removed unreferenced: {}", fileNames.size(), removed);
+    }
+
+    private List<String> withVariants(List<String> fileNames) {
+        List<String> objectNames = new ArrayList<>(fileNames.size() * (ImageVariant.values().length + 1));
+        for (String fileName : fileNames) {
+            objectNames.add(fileName);
+            for (ImageVariant variant : ImageVariant.values()) {
+                objectNames.add(variant.fileName(fileName, minioProperties.getVariantFormat()));
+            }
+        }
+        return objectNames;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private List<String> awaitAndCleanup(List<Future<String>> uploads, RuntimeException failure) {
+        List<String> fileNames = new ArrayList<>(uploads.size());
+        for (Future<String> upload : uploads) {
+            try {
+                fileNames.add(upload.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new FileUploadException("File upload exception: " + e.getCause().getMessage(), e.getCause());
+                }
+            } catch (CancellationException e) {
+                LOGGER.debug("Upload cancelled");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                uploads.forEach(el -> el.cancel(true));
+                if (failure == null) {
+                    failure = new FileUploadException("File upload interrupted", e);
+                }
+            }
+        }
+        if (failure == null) {
+            return fileNames;
+        }
+
+        LOGGER.debug("Upload failed, removing {} already uploaded files", fileNames.size());
+        if (!fileNames.isEmpty()) {
+            try {
+                deleteFiles(fileNames);
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            }
         }
+        throw failure;
     }
 
 }
@@ -0,0 +1,28 @@
+package com.example.demo.image;
+
+import com.example.demo.minio.MinioProperties;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    MEDIUM("medium"),
+    THUMBNAIL("thumb");
+
+    private final String prefix;
+
+    public int getMaxSize(MinioProperties minioProperties) {
+        return this == THUMBNAIL ? minioProperties.getThumbnailSize() : minioProperties.getMediumSize();
+    }
+
+    public String fileName(String originalFileName, String format) {
+        return prefix + "/" + originalFileName + "." + format;
+    }
+
+    public static String originalFileName(String fileName) {
+        int slashIndex = fileName.indexOf('/');
+        int lastDotIndex = fileName.lastIndexOf('.');
+        return (slashIndex != -1 && lastDotIndex > slashIndex) ? fileName.substring(slashIndex + 1, lastDotIndex) : fileName;
+    }
+}
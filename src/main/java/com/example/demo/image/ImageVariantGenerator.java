@@ -0,0 +1,167 @@
+package com.example.demo.image;
+
+import com.example.demo.event.PhotoVariantsReadyEvent;
+import com.example.demo.exception.FileUploadException;
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+@Component
+@RequiredArgsConstructor
+public class ImageVariantGenerator {
+
+    private final MinioService minioService;
+    private final MinioProperties minioProperties;
+    private final MeterRegistry meterRegistry;
+    private final PhotoRepository photoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    @PostConstruct
+    public void checkVariantFormat() {
+        if (!ImageIO.getImageWritersByFormatName(minioProperties.getVariantFormat()).hasNext()) {
+            throw new IllegalStateException("No image writer available for variant format: " + minioProperties.getVariantFormat());
+        }
+    }
+
+    public void generate(String fileName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            if (minioService.exists(ImageVariant.THUMBNAIL.fileName(fileName, minioProperties.getVariantFormat()), minioProperties.getBucket())) {
+                LOGGER.debug("generate - Variants already stored for file: {}", fileName);
+                outcome = "exists";
+                markReady(fileName);
+                return;
+            }
+            boolean generated = generateVariants(fileName);
+            outcome = generated ? "success" : "unsupported";
+            if (generated) {
+                markReady(fileName);
+            } else {
+                photoRepository.updateVariantStatus(fileName, VariantStatus.UNSUPPORTED);
+            }
+        } finally {
+            sample.stop(Timer.builder("image.variants")
+                    .description("Latency of decoding a photo and uploading its resized variants")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Commits the READY status before publishing, so tool entries evicted by the event are reloaded
+     * with the variant names.
+     */
+    private void markReady(String fileName) {
+        photoRepository.updateVariantStatus(fileName, VariantStatus.READY);
+        eventPublisher.publishEvent(PhotoVariantsReadyEvent.builder().fileName(fileName).build());
+    }
+
+    private boolean generateVariants(String fileName) {
+        try (InputStream inputStream = minioService.getFile(fileName, minioProperties.getBucket());
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            BufferedImage image = decode(imageInputStream);
+            if (image == null) {
+                LOGGER.debug("generate - Unsupported image format, skipping variants for file: {}", fileName);
+                return false;
+            }
+
+            for (ImageVariant variant : ImageVariant.values()) {
+                image = resize(image, variant.getMaxSize(minioProperties));
+                byte[] bytes = encode(image);
+                minioService.uploadFile(variant.fileName(fileName, minioProperties.getVariantFormat()),
+                        minioProperties.getBucket(), new ByteArrayInputStream(bytes), bytes.length);
+            }
+            LOGGER.debug("generate - Generated variants for file: {}", fileName);
+            return true;
+        } catch (IOException e) {
+            throw new FileUploadException("Image processing exception: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes the first frame, subsampled while reading so that a large photo never lands in
+     * the heap at full resolution; the result is still at least as large as the medium variant.
+     */
+    private BufferedImage decode(ImageInputStream imageInputStream) throws IOException {
+        Iterator<ImageReader> readers = imageInputStream == null ? null : ImageIO.getImageReaders(imageInputStream);
+        if (readers == null || !readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInputStream, true, true);
+            int subsampling = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / minioProperties.getMediumSize());
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(minioProperties.getVariantFormat()).next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(minioProperties.getVariantQuality());
+            }
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.image;
+
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import com.example.demo.tool.ToolRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class OrphanPhotoCleanupJob {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MinioService minioService;
+    private final MinioProperties minioProperties;
+    private final ToolRepository toolRepository;
+    private final PhotoRepository photoRepository;
+    private final PlatformTransactionManager transactionManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrphanPhotoCleanupJob.class);
+
+    @Scheduled(cron = "${minio.orphan-cleanup-cron:0 30 3 * * *}")
+    public void cleanup() {
+        Instant modifiedBefore = Instant.now().minusSeconds(minioProperties.getOrphanGracePeriod());
+        LOGGER.debug("cleanup - Removing unreferenced files modified before: {}", modifiedBefore);
+
+        int removed = 0;
+        try (Stream<String> fileNames = minioService.listFiles(minioProperties.getBucket(), modifiedBefore)) {
+            Iterator<String> iterator = fileNames.iterator();
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    removed += removeOrphans(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+
+        LOGGER.debug("cleanup - Removed {} unreferenced files", removed);
+    }
+
+    /**
+     * Removes objects without a photos row or tool reference, and reconciles the rows of the rest against
+     * photos_tools. Only rows idle for the grace period are touched, so an upload whose tool transaction is
+     * still open keeps its count. The objects are removed while their rows, or placeholder rows for objects
+     * without one, are locked, so an upload of the same content waits and then stores it again.
+     */
+    private int removeOrphans(List<String> batch) {
+        List<String> originals = batch.stream()
+                .map(ImageVariant::originalFileName)
+                .distinct()
+                .toList();
+        Set<String> stored = photoRepository.findStored(originals);
+        Set<String> referenced = toolRepository.findReferencedPhotos(originals);
+        List<String> unstored = originals.stream()
+                .filter(el -> !stored.contains(el) && !referenced.contains(el))
+                .sorted()
+                .toList();
+        List<String> candidates = stored.stream()
+                .sorted()
+                .toList();
+        if (unstored.isEmpty() && candidates.isEmpty()) {
+            return 0;
+        }
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Set<String> orphans = new HashSet<>();
+            if (!candidates.isEmpty()) {
+                List<String> idle = photoRepository.lockIdle(candidates, minioProperties.getOrphanGracePeriod());
+                if (!idle.isEmpty()) {
+                    int repaired = photoRepository.reconcile(idle);
+                    List<String> unreferenced = photoRepository.findUnreferenced(idle);
+                    if (repaired > 0) {
+                        LOGGER.warn("removeOrphans - Repaired {} reference counts, {} of them unreferenced", repaired, unreferenced.size());
+                    }
+                    orphans.addAll(unreferenced);
+                }
+            }
+            for (String candidate : unstored) {
+                if (photoRepository.lockUnreferenced(candidate) == 1) {
+                    orphans.add(candidate);
+                }
+            }
+
+            List<String> fileNames = batch.stream()
+                    .filter(el -> orphans.contains(ImageVariant.originalFileName(el)))
+                    .toList();
+            if (!fileNames.isEmpty()) {
+                minioService.removeFiles(fileNames, minioProperties.getBucket());
+            }
+            if (!orphans.isEmpty()) {
+                photoRepository.deleteAllByIdInBatch(orphans);
+            }
+            return fileNames.size();
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.image;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "photos")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Photo {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant_status", nullable = false)
+    private VariantStatus variantStatus = VariantStatus.PENDING;
+}
@@ -0,0 +1,35 @@
+package com.example.demo.image;
+
+import com.example.demo.event.ToolPhotosRemovedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Component
+@RequiredArgsConstructor
+public class PhotoCleanupListener {
+
+    private final ImageService imageService;
+    private final ExecutorService minioExecutor;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhotoCleanupListener.class);
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handlePhotosRemoved(ToolPhotosRemovedEvent toolPhotosRemovedEvent) {
+        List<String> fileNames = toolPhotosRemovedEvent.getFileNames();
+
+        LOGGER.debug("Received ToolPhotosRemovedEvent for {} files", fileNames.size());
+        minioExecutor.execute(() -> {
+            try {
+                imageService.deleteFiles(fileNames);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to delete files: {}, leaving them to the orphan cleanup", fileNames, e);
+            }
+        });
+    }
+}
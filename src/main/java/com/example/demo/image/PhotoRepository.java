@@ -0,0 +1,63 @@
+package com.example.demo.image;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface PhotoRepository extends JpaRepository<Photo, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO photos (name, ref_count) VALUES (:name, 1) ON CONFLICT (name) DO UPDATE SET ref_count = photos.ref_count + 1, updated_at = now()", nativeQuery = true)
+    void acquire(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "UPDATE photos SET ref_count = ref_count - :count, updated_at = now() WHERE name = :name", nativeQuery = true)
+    int release(@Param("name") String name, @Param("count") long count);
+
+    /**
+     * Locks the rows that are still unreferenced. A name acquired again since its release is skipped, and
+     * an {@link #acquire} of a locked name waits until the removal commits.
+     */
+    @Query(value = "SELECT name FROM photos WHERE name IN :names AND ref_count <= 0 ORDER BY name FOR UPDATE", nativeQuery = true)
+    List<String> lockRemovable(@Param("names") Collection<String> names);
+
+    @Modifying
+    @Query(value = "INSERT INTO photos (name, ref_count) VALUES (:name, 0) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int lockUnreferenced(@Param("name") String name);
+
+    @Query(value = "SELECT name FROM photos WHERE name IN :names AND updated_at < now() - :idleSeconds * INTERVAL '1 second' ORDER BY name FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> lockIdle(@Param("names") Collection<String> names, @Param("idleSeconds") long idleSeconds);
+
+    /**
+     * Sets ref_count to the number of photos_tools rows, repairing counts left behind by a crash
+     * or rollback between {@link #acquire} and the tool commit.
+     */
+    @Modifying
+    @Query(value = "UPDATE photos SET ref_count = (SELECT COUNT(*) FROM photos_tools WHERE photo = photos.name) WHERE name IN :names AND ref_count <> (SELECT COUNT(*) FROM photos_tools WHERE photo = photos.name)", nativeQuery = true)
+    int reconcile(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.name FROM Photo p WHERE p.name IN :names AND p.refCount <= 0")
+    List<String> findUnreferenced(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.name FROM Photo p WHERE p.name IN :names")
+    Set<String> findStored(@Param("names") Collection<String> names);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Photo p SET p.variantStatus = :status WHERE p.name = :name")
+    int updateVariantStatus(@Param("name") String name, @Param("status") VariantStatus status);
+
+    @Query("SELECT p.name FROM Photo p WHERE p.name IN :names AND p.variantStatus = com.example.demo.image.VariantStatus.READY")
+    Set<String> findWithVariants(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.name FROM Photo p WHERE p.variantStatus = com.example.demo.image.VariantStatus.PENDING AND p.refCount > 0 AND p.name > :after ORDER BY p.name")
+    List<String> findPendingVariantsAfter(@Param("after") String after, Pageable pageable);
+}
@@ -0,0 +1,66 @@
+package com.example.demo.image;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+@Component
+@RequiredArgsConstructor
+public class PhotoVariantBackfillJob {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final PhotoRepository photoRepository;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ExecutorService imageExecutor;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhotoVariantBackfillJob.class);
+
+    // Covers photos uploaded before variants existed and uploads whose AFTER_COMMIT generation was lost
+    @Scheduled(cron = "${minio.variant-backfill-cron:0 */10 * * * *}")
+    public void backfill() {
+        int generated = 0;
+        int failed = 0;
+        String after = "";
+        List<String> batch;
+        do {
+            batch = photoRepository.findPendingVariantsAfter(after, PageRequest.ofSize(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            LOGGER.debug("backfill - Generating variants for {} photos after: {}", batch.size(), after);
+
+            List<Future<?>> futures = new ArrayList<>(batch.size());
+            for (String fileName : batch) {
+                futures.add(imageExecutor.submit(() -> imageVariantGenerator.generate(fileName)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                    generated++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    LOGGER.warn("backfill - Failed to generate variants for file: {}, it stays pending", batch.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(el -> el.cancel(true));
+                    LOGGER.warn("backfill - Interrupted after {} photos", generated);
+                    return;
+                }
+            }
+            after = batch.get(batch.size() - 1);
+        } while (batch.size() == BATCH_SIZE);
+
+        if (generated > 0 || failed > 0) {
+            LOGGER.info("backfill - Processed {} photos, {} failed", generated, failed);
+        }
+    }
+}
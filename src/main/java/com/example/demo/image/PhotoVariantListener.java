@@ -0,0 +1,34 @@
+package com.example.demo.image;
+
+import com.example.demo.event.ToolPhotosAddedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+
+@Component
+@RequiredArgsConstructor
+public class PhotoVariantListener {
+
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final ExecutorService imageExecutor;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhotoVariantListener.class);
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handlePhotosAdded(ToolPhotosAddedEvent toolPhotosAddedEvent) {
+        LOGGER.debug("Received ToolPhotosAddedEvent for {} files", toolPhotosAddedEvent.getFileNames().size());
+        for (String fileName : toolPhotosAddedEvent.getFileNames()) {
+            imageExecutor.execute(() -> {
+                try {
+                    imageVariantGenerator.generate(fileName);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Failed to generate variants for file: {}, clients fall back to the original", fileName, e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.image;
+
+public enum VariantStatus {
+    PENDING,
+    READY,
+    UNSUPPORTED
+}
@@ -19,6 +19,8 @@ public interface JwtService {
 
      boolean isValid(UserDetails user, String token);
 
+     boolean isValid(UserDetails user, Claims claims);
+
      String generateToken(Map<String, Object> claims, UserDetails userDetails);
 
      String generateToken(UserDetails userDetails);
@@ -1,6 +1,7 @@
 package com.example.demo.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -19,13 +20,17 @@ import java.util.Map;
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    private final String SECRET_KEY;
+    private final Key SECRET_KEY;
     private final long EXPIRATION_TIME;
+    private final JwtParser jwtParser;
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtServiceImpl.class);
 
     public JwtServiceImpl(@Value("${jwt.secret-key}") String SECRET_KEY, @Value("${jwt.expiration-time}") long EXPIRATION_TIME) {
-        this.SECRET_KEY = SECRET_KEY;
+        this.SECRET_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
         this.EXPIRATION_TIME = EXPIRATION_TIME;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(this.SECRET_KEY)
+                .build();
     }
 
     @Override
@@ -48,9 +53,7 @@ public class JwtServiceImpl implements JwtService {
     @Override
     public Claims extractClaims(String token) {
         LOGGER.debug("Extracting claims from token");
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -71,15 +74,19 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public boolean isValid(UserDetails user, String token) {
-        boolean isValid = user.getUsername().equals(extractLogin(token)) && new Date().before(extractExpiration(token));
+        return isValid(user, extractClaims(token));
+    }
+
+    @Override
+    public boolean isValid(UserDetails user, Claims claims) {
+        boolean isValid = user.getUsername().equals(claims.getSubject()) && new Date().before(claims.getExpiration());
         LOGGER.debug("Token validation for user {}: {}", user.getUsername(), isValid);
         return isValid;
     }
 
     @Override
     public Key getSecretKey() {
-        byte[] decode = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(decode);
+        return SECRET_KEY;
     }
 
 }
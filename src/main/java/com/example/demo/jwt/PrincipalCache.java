@@ -0,0 +1,46 @@
+package com.example.demo.jwt;
+
+import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.user.UserPrincipal;
+import com.example.demo.user.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> cache;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalCache.class);
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${jwt.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the principal for the login, loading it at most once per login while concurrent requests wait.
+     * Logins and roles are never changed after a user is created, so entries only expire by TTL.
+     */
+    public UserPrincipal get(String login) {
+        return cache.get(login, this::load);
+    }
+
+    private UserPrincipal load(String login) {
+        LOGGER.debug("get - Principal cache miss for login: {}", login);
+        return userRepository.findByLogin(login)
+                .map(UserPrincipal::of)
+                .orElseThrow(() -> new UserNotFoundException("User with login: " + login + " not found!"));
+    }
+}
@@ -6,12 +6,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO representing a manufacturer's details")
-public class ManufacturerDto {
+public class ManufacturerDto implements Serializable {
 
     @Schema(description = "Manufacturer id", example = "1")
     private Long id;
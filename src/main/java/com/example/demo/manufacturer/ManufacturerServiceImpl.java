@@ -4,12 +4,15 @@ import com.example.demo.exception.ManufacturerNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@CacheConfig(cacheNames = "manufacturers")
 public class ManufacturerServiceImpl implements ManufacturerService {
 
     private final ManufacturerRepository manufacturerRepository;
@@ -17,6 +20,7 @@ public class ManufacturerServiceImpl implements ManufacturerService {
     private final static Logger LOGGER = LoggerFactory.getLogger(ManufacturerServiceImpl.class);
 
     @Override
+    @Cacheable(key = "'all'", sync = true)
     public List<ManufacturerDto> findAll() {
         LOGGER.debug("findAll: Fetching manufacturers");
         List<Manufacturer> manufacturers = manufacturerRepository.findAll();
@@ -28,6 +32,7 @@ public class ManufacturerServiceImpl implements ManufacturerService {
     }
 
     @Override
+    @Cacheable(key = "#id", sync = true)
     public Manufacturer findById(Long id) {
         Manufacturer manufacturer = manufacturerRepository.findById(id)
                 .orElseThrow(() -> new ManufacturerNotFoundException("Manufacturer with id: " + id + " not found"));
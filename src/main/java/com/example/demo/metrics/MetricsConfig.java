@@ -0,0 +1,46 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final StatementCountInterceptor statementCountInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementCountInterceptor);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer rejectedTaskCounter(MeterRegistry meterRegistry) {
+        return executor -> {
+            Counter rejected = Counter.builder("executor.rejected")
+                    .description("Tasks rejected by the application task executor")
+                    .tag("name", "applicationTaskExecutor")
+                    .register(meterRegistry);
+            ThreadPoolExecutor.AbortPolicy abortPolicy = new ThreadPoolExecutor.AbortPolicy();
+            executor.setRejectedExecutionHandler((task, pool) -> {
+                rejected.increment();
+                abortPolicy.rejectedExecution(task, pool);
+            });
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "metrics.scrape")
+@Getter
+@Setter
+public class MetricsScrapeProperties {
+
+    private String username = "prometheus";
+
+    private String password;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    public int get() {
+        return count.get()[0];
+    }
+
+    public void clear() {
+        count.remove();
+    }
+}
@@ -4,6 +4,10 @@ import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @RequiredArgsConstructor
@@ -19,4 +23,18 @@ public class MinioConfig {
                 .build();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService minioExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("minio-io-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(minioProperties.getIoThreads(), threadFactory);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("image-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(minioProperties.getImageThreads(), threadFactory);
+    }
+
 }
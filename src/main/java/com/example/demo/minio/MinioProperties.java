@@ -18,4 +18,16 @@ public class MinioProperties {
     private String proxyUrl;
     private String user;
     private String password;
+    private int presignedUrlExpiry = 86400;
+    private long presignedUrlTimeBucket = 3600;
+    private String region = "us-east-1";
+    private long partSize = 10485760;
+    private int ioThreads = 16;
+    private int uploadConcurrency = 4;
+    private long orphanGracePeriod = 86400;
+    private int imageThreads = 2;
+    private int thumbnailSize = 320;
+    private int mediumSize = 1024;
+    private String variantFormat = "jpg";
+    private float variantQuality = 0.8f;
 }
@@ -1,11 +1,25 @@
 package com.example.demo.minio;
 
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface MinioService {
-    void uploadFile(String fileName, String bucketName, InputStream inputStream);
+    void uploadFile(String fileName, String bucketName, InputStream inputStream, long size);
+
+    boolean exists(String fileName, String bucketName);
+
+    InputStream getFile(String fileName, String bucketName);
 
     void removeFile(String fileName, String bucketName);
 
+    void removeFiles(Collection<String> fileNames, String bucketName);
+
+    Stream<String> listFiles(String bucketName, Instant modifiedBefore);
+
     String getPresignedUrl(String fileName, String bucketName);
+
+    Map<String, String> getPresignedUrls(Collection<String> fileNames, String bucketName);
 }
@@ -2,44 +2,99 @@ package com.example.demo.minio;
 
 import com.example.demo.exception.FileUploadException;
 import com.example.demo.exception.MinIoException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.minio.*;
-import io.minio.http.Method;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "minio")
 public class MinioServiceImpl implements MinioService {
 
     private final MinioClient minioClient;
     private final MinioProperties minioProperties;
+    private final PresignedUrlSigner presignedUrlSigner;
+    private final MeterRegistry meterRegistry;
     private static final Logger LOGGER = LoggerFactory.getLogger(MinioServiceImpl.class);
 
     @Override
-    public void uploadFile(String fileName, String bucketName, InputStream inputStream) {
+    public void uploadFile(String fileName, String bucketName, InputStream inputStream, long size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            LOGGER.debug("Uploading file: {} to bucket: {}", fileName, bucketName);
+            LOGGER.debug("Uploading file: {} of {} bytes to bucket: {}", fileName, size, bucketName);
             minioClient.putObject(PutObjectArgs.builder()
-                    .stream(inputStream, inputStream.available(), -1)
+                    .stream(inputStream, size, minioProperties.getPartSize())
                     .bucket(bucketName)
                     .object(fileName)
                     .build());
+            outcome = "success";
+            DistributionSummary.builder("minio.upload.bytes")
+                    .description("Size of files uploaded to MinIO")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(size);
             LOGGER.debug("File: {} uploaded successfully to bucket: {}", fileName, bucketName);
         } catch (Exception e) {
             throw new FileUploadException("File upload exception: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("minio.upload")
+                    .description("Latency of MinIO uploads")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean exists(String fileName, String bucketName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream getFile(String fileName, String bucketName) {
+        try {
+            LOGGER.debug("Downloading file: {} from bucket: {}", fileName, bucketName);
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .build());
+        } catch (Exception e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
         }
     }
 
     @Override
-    @CacheEvict(key = "'bucket_' + #bucketName + '_file' + #fileName")
     public void removeFile(String fileName, String bucketName) {
         try {
             LOGGER.debug("Deleting file: {} in bucket: {}", fileName, bucketName);
@@ -54,23 +109,60 @@ public class MinioServiceImpl implements MinioService {
     }
 
     @Override
-    @Cacheable(key = "'bucket_' + #bucketName + '_file' + #fileName")
-    public String getPresignedUrl(String fileName, String bucketName) {
+    public void removeFiles(Collection<String> fileNames, String bucketName) {
+        LOGGER.debug("Deleting {} files in bucket: {}", fileNames.size(), bucketName);
+        List<String> failed = new ArrayList<>();
         try {
-            LOGGER.debug("Generating presigned URL for file: {} in bucket: {}", fileName, bucketName);
-            String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+            Iterable<Result<DeleteError>> results = minioClient.removeObjects(RemoveObjectsArgs.builder()
                     .bucket(bucketName)
-                    .object(fileName)
-                    .method(Method.GET)
-                    .expiry(86400)
+                    .objects(fileNames.stream().map(DeleteObject::new).toList())
                     .build());
-            LOGGER.debug("Generated presigned URL for file: {} in bucket: {}", fileName, bucketName);
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                failed.add(error.objectName() + " (" + error.message() + ")");
+            }
+        } catch (Exception e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        }
+        if (!failed.isEmpty()) {
+            throw new MinIoException("MinIo exception: Failed to delete files: " + String.join(", ", failed));
+        }
+        LOGGER.debug("Files: {} deleted successfully in bucket: {}", fileNames, bucketName);
+    }
+
+    @Override
+    public Stream<String> listFiles(String bucketName, Instant modifiedBefore) {
+        LOGGER.debug("Listing files modified before: {} in bucket: {}", modifiedBefore, bucketName);
+        Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .recursive(true)
+                .build());
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(this::getItem)
+                .filter(el -> !el.isDir() && el.lastModified().toInstant().isBefore(modifiedBefore))
+                .map(Item::objectName);
+    }
 
-            url = url.replace(minioProperties.getEndpoint(), minioProperties.getProxyUrl());
-            return url;
+    @Override
+    public String getPresignedUrl(String fileName, String bucketName) {
+        return presignedUrlSigner.sign(bucketName, fileName);
+    }
+
+    @Override
+    public Map<String, String> getPresignedUrls(Collection<String> fileNames, String bucketName) {
+        LOGGER.debug("Generating presigned URLs for {} files in bucket: {}", fileNames.size(), bucketName);
+        Map<String, String> urls = new HashMap<>();
+        for (String fileName : fileNames) {
+            urls.computeIfAbsent(fileName, el -> presignedUrlSigner.sign(bucketName, el));
+        }
+        return urls;
+    }
+
+    private Item getItem(Result<Item> result) {
+        try {
+            return result.get();
         } catch (Exception e) {
             throw new MinIoException("MinIo exception: " + e.getMessage(), e);
         }
     }
 }
-
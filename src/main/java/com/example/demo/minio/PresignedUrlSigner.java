@@ -0,0 +1,165 @@
+package com.example.demo.minio;
+
+import com.example.demo.exception.MinIoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+@Component
+public class PresignedUrlSigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SERVICE = "s3";
+    private static final String TERMINATOR = "aws4_request";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter AMZ_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(PresignedUrlSigner::newSha256);
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(PresignedUrlSigner::newHmac);
+
+    private final MinioProperties minioProperties;
+    private final Counter signingKeyHits;
+    private final Counter signingKeyMisses;
+    private volatile SigningContext signingContext;
+
+    public PresignedUrlSigner(MinioProperties minioProperties, MeterRegistry meterRegistry) {
+        this.minioProperties = minioProperties;
+        this.signingKeyHits = signingKeyCounter(meterRegistry, "hit");
+        this.signingKeyMisses = signingKeyCounter(meterRegistry, "miss");
+    }
+
+    public String sign(String bucketName, String fileName) {
+        return sign(bucketName, fileName, Instant.now());
+    }
+
+    String sign(String bucketName, String fileName, Instant now) {
+        long timeBucket = minioProperties.getPresignedUrlTimeBucket();
+        Instant signedAt = Instant.ofEpochSecond(now.getEpochSecond() - Math.floorMod(now.getEpochSecond(), timeBucket));
+        SigningContext context = signingContext(DATE_FORMAT.format(signedAt));
+        String amzDate = AMZ_DATE_FORMAT.format(signedAt);
+
+        StringBuilder path = new StringBuilder(bucketName.length() + fileName.length() + 8).append('/');
+        appendEncoded(path, bucketName, false);
+        path.append('/');
+        appendEncoded(path, fileName, false);
+
+        StringBuilder query = new StringBuilder(256)
+                .append("X-Amz-Algorithm=").append(ALGORITHM)
+                .append("&X-Amz-Credential=").append(context.credential())
+                .append("&X-Amz-Date=").append(amzDate)
+                .append("&X-Amz-Expires=").append(minioProperties.getPresignedUrlExpiry())
+                .append("&X-Amz-SignedHeaders=host");
+
+        String canonicalRequest = "GET\n" + path + '\n' + query + "\nhost:" + context.host() + "\n\nhost\nUNSIGNED-PAYLOAD";
+        String stringToSign = ALGORITHM + '\n' + amzDate + '\n' + context.scope() + '\n'
+                + HEX.formatHex(sha256(canonicalRequest));
+        String signature = HEX.formatHex(hmac(context.key(), stringToSign));
+
+        return new StringBuilder(minioProperties.getProxyUrl().length() + path.length() + query.length() + 96)
+                .append(minioProperties.getProxyUrl())
+                .append(path)
+                .append('?')
+                .append(query)
+                .append("&X-Amz-Signature=")
+                .append(signature)
+                .toString();
+    }
+
+    private SigningContext signingContext(String date) {
+        SigningContext context = signingContext;
+        if (context != null && context.date().equals(date)) {
+            signingKeyHits.increment();
+            return context;
+        }
+        signingKeyMisses.increment();
+
+        String region = minioProperties.getRegion();
+        String scope = date + '/' + region + '/' + SERVICE + '/' + TERMINATOR;
+        byte[] key = hmac(("AWS4" + minioProperties.getPassword()).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, TERMINATOR);
+
+        StringBuilder credential = new StringBuilder();
+        appendEncoded(credential, minioProperties.getUser() + '/' + scope, true);
+
+        context = new SigningContext(date, scope, credential.toString(), host(minioProperties.getEndpoint()), key);
+        signingContext = context;
+        return context;
+    }
+
+    private static Counter signingKeyCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("minio.presign.signing.key")
+                .description("Presigned URL requests served with a cached or a newly derived signing key")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String host(String endpoint) {
+        URI uri = URI.create(endpoint);
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equalsIgnoreCase(uri.getScheme()) && port == 80)
+                || ("https".equalsIgnoreCase(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ':' + port;
+    }
+
+    private static void appendEncoded(StringBuilder builder, String value, boolean encodeSlash) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(HEX.toHexDigits(b).toUpperCase());
+            }
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = HMAC.get();
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        }
+    }
+
+    private static Mac newHmac() {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new MinIoException("MinIo exception: " + e.getMessage(), e);
+        }
+    }
+
+    private record SigningContext(String date, String scope, String credential, String host, byte[] key) {
+    }
+}
@@ -1,38 +1,149 @@
 package com.example.demo.openId;
 
 import com.example.demo.exception.OpenIdServiceException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
-import java.net.URL;
 import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Keeps Google's signing keys in memory as ready-made verifiers indexed by {@code kid}. The set is
+ * reloaded in the background shortly before the {@code Cache-Control: max-age} of the last response
+ * runs out, so a login only reads a map. A token signed with a key we don't know yet (Google rotated
+ * its keys early) reloads the set on the spot, at most once per {@code jwks-min-refetch-interval}.
+ */
 @Service
-@CacheConfig(cacheNames = "openid")
 public class GoogleIdTokenCacheService implements IdTokenCacheService {
 
-    private final String GOOGLE_CERTS_URL;
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final RestTemplate restTemplate;
+    private final OpenIdProperties openIdProperties;
+    private final MeterRegistry meterRegistry;
+    private volatile JwkVerifiers verifiers = new JwkVerifiers(Map.of(), 0);
+    private long lastFetchAt;
     private final static Logger LOGGER = LoggerFactory.getLogger(GoogleIdTokenCacheService.class);
 
-    public GoogleIdTokenCacheService(@Value("${openid.google.certs-url}") String GOOGLE_CERTS_URL) {
-        this.GOOGLE_CERTS_URL = GOOGLE_CERTS_URL;
+    public GoogleIdTokenCacheService(RestTemplate restTemplate, OpenIdProperties openIdProperties, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.openIdProperties = openIdProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public JWSVerifier getVerifier(String keyId) {
+        if (keyId == null) {
+            return null;
+        }
+        JWSVerifier verifier = verifiers.byKeyId().get(keyId);
+        if (verifier != null) {
+            return verifier;
+        }
+        LOGGER.debug("getVerifier - Unknown key id: {}", keyId);
+        JwkVerifiers current = refetch(keyId);
+        if (current.byKeyId().isEmpty()) {
+            throw new OpenIdServiceException("JWK set is empty or it failed to load");
+        }
+        return current.byKeyId().get(keyId);
+    }
+
+    @Scheduled(fixedDelayString = "${openid.google.jwks-refresh-check-interval:60000}")
+    public void refreshIfExpiring() {
+        if (System.currentTimeMillis() < verifiers.expiresAt() - openIdProperties.getJwksRefreshAhead().toMillis()) {
+            return;
+        }
+        try {
+            fetch("scheduled");
+        } catch (OpenIdServiceException e) {
+            LOGGER.warn("refreshIfExpiring - Keeping {} known keys, retrying on the next run: {}",
+                    verifiers.byKeyId().size(), e.getMessage());
+        }
     }
 
-    @Cacheable(key = "'jwkset'")
-    public JWKSet getJwkSet() {
-        LOGGER.debug("Attempting to load JWK set from Google endpoint: {}", GOOGLE_CERTS_URL);
+    private synchronized JwkVerifiers refetch(String keyId) {
+        JwkVerifiers current = verifiers;
+        if (current.byKeyId().containsKey(keyId)
+                || System.currentTimeMillis() - lastFetchAt < openIdProperties.getJwksMinRefetchInterval().toMillis()) {
+            return current;
+        }
         try {
-            JWKSet jwkSet = JWKSet.load(new URL(GOOGLE_CERTS_URL));
-            LOGGER.debug("Successfully loaded JWK set from Google endpoint");
-            return jwkSet;
-        } catch (IOException | ParseException e) {
+            return fetch("unknownKey");
+        } catch (OpenIdServiceException e) {
+            if (current.byKeyId().isEmpty()) {
+                throw e;
+            }
+            LOGGER.warn("refetch - Keeping {} known keys: {}", current.byKeyId().size(), e.getMessage());
+            return current;
+        }
+    }
+
+    private synchronized JwkVerifiers fetch(String trigger) {
+        LOGGER.debug("fetch - Loading JWK set from Google endpoint: {}", openIdProperties.getCertsUrl());
+        lastFetchAt = System.currentTimeMillis();
+        String outcome = "error";
+        try {
+            ResponseEntity<String> response = restTemplate.getForEntity(openIdProperties.getCertsUrl(), String.class);
+            if (response.getBody() == null) {
+                throw new OpenIdServiceException("Jwk set load exception: empty response");
+            }
+            JWKSet jwkSet = JWKSet.parse(response.getBody());
+            Duration maxAge = maxAge(response.getHeaders().getCacheControl());
+            verifiers = new JwkVerifiers(toVerifiers(jwkSet), lastFetchAt + maxAge.toMillis());
+            outcome = "success";
+            LOGGER.debug("fetch - Loaded {} keys, fresh for {}", verifiers.byKeyId().size(), maxAge);
+            return verifiers;
+        } catch (RestClientException | ParseException e) {
             throw new OpenIdServiceException("Jwk set load exception: " + e.getMessage(), e);
+        } finally {
+            Counter.builder("openid.jwks.fetch")
+                    .description("Loads of Google's JWK set")
+                    .tag("trigger", trigger)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment();
         }
     }
+
+    private Duration maxAge(String cacheControl) {
+        Matcher matcher = cacheControl == null ? null : MAX_AGE.matcher(cacheControl);
+        return matcher != null && matcher.find()
+                ? Duration.ofSeconds(Long.parseLong(matcher.group(1)))
+                : openIdProperties.getJwksDefaultMaxAge();
+    }
+
+    private static Map<String, JWSVerifier> toVerifiers(JWKSet jwkSet) {
+        Map<String, JWSVerifier> byKeyId = new HashMap<>();
+        for (JWK jwk : jwkSet.getKeys()) {
+            if (jwk.getKeyID() == null || !KeyType.RSA.equals(jwk.getKeyType())) {
+                continue;
+            }
+            try {
+                byKeyId.put(jwk.getKeyID(), new RSASSAVerifier(jwk.toRSAKey()));
+            } catch (JOSEException e) {
+                LOGGER.warn("toVerifiers - Skipping key: {}, {}", jwk.getKeyID(), e.getMessage());
+            }
+        }
+        return Map.copyOf(byKeyId);
+    }
+
+    private record JwkVerifiers(Map<String, JWSVerifier> byKeyId, long expiresAt) {
+    }
 }
@@ -1,11 +1,8 @@
 package com.example.demo.openId;
 
 import com.example.demo.exception.OpenIdValidationException;
-import com.example.demo.exception.OpenIdServiceException;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -34,23 +31,14 @@ public class GoogleIdTokenValidationService implements IdTokenValidationService
     @Override
     public void validateIdToken(SignedJWT signedJWT) {
         LOGGER.debug("Starting id token validation");
-        boolean isValid = false;
-        String keyID = signedJWT.getHeader().getKeyID();
-
-        JWKSet jwkSet = googleIdTokenCacheService.getJwkSet();
+        JWSVerifier verifier = googleIdTokenCacheService.getVerifier(signedJWT.getHeader().getKeyID());
 
-        if (jwkSet == null || jwkSet.getKeys().isEmpty()) {
-            throw new OpenIdServiceException("JWK set is empty or it failed to load");
-        }
-
-        for (JWK jwk : jwkSet.getKeys()) {
-            if (jwk.getKeyID().equals(keyID)) {
-                try {
-                    RSASSAVerifier rsassaVerifier = new RSASSAVerifier(jwk.toRSAKey());
-                    isValid = signedJWT.verify(rsassaVerifier);
-                } catch (JOSEException e) {
-                    throw new OpenIdValidationException("JWK validate exception: " + e.getMessage(), e);
-                }
+        boolean isValid = false;
+        if (verifier != null) {
+            try {
+                isValid = signedJWT.verify(verifier);
+            } catch (JOSEException e) {
+                throw new OpenIdValidationException("JWK validate exception: " + e.getMessage(), e);
             }
         }
 
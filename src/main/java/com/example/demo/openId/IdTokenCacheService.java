@@ -1,7 +1,7 @@
 package com.example.demo.openId;
 
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.JWSVerifier;
 
 public interface IdTokenCacheService {
-    JWKSet getJwkSet();
+    JWSVerifier getVerifier(String keyId);
 }
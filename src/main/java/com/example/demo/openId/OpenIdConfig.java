@@ -2,13 +2,17 @@ package com.example.demo.openId;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class OpenIdConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(OpenIdProperties openIdProperties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(openIdProperties.getConnectTimeout());
+        requestFactory.setReadTimeout(openIdProperties.getReadTimeout());
+        return new RestTemplate(requestFactory);
     }
 }
@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "openid.google")
 @Getter
@@ -16,5 +18,11 @@ public class OpenIdProperties {
     private String clientSecret;
     private String redirectUri;
     private String grantType;
+    private String certsUrl;
+    private Duration jwksDefaultMaxAge = Duration.ofHours(1);
+    private Duration jwksRefreshAhead = Duration.ofMinutes(5);
+    private Duration jwksMinRefetchInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(5);
 
 }
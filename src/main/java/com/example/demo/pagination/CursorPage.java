@@ -0,0 +1,29 @@
+package com.example.demo.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of results navigated by an opaque cursor")
+public class CursorPage<T> {
+
+    @Schema(description = "Page content")
+    private List<T> content;
+
+    @Schema(description = "Requested page size", example = "10")
+    private int size;
+
+    @Schema(description = "Cursor for the next page, null if this is the last page", example = "eyJwaXQiOiIuLi4ifQ")
+    private String nextCursor;
+
+    @Schema(description = "Whether there is a next page", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.pagination;
+
+import com.example.demo.exception.InvalidPaginationException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private LocalDateTime createdAt;
+    private Long id;
+
+    public String encode() {
+        String value = (createdAt != null ? createdAt.toString() : "") + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(',');
+            if (separator < 0) {
+                throw new InvalidPaginationException("Cursor is malformed");
+            }
+
+            String createdAt = value.substring(0, separator);
+            return KeysetCursor.builder()
+                    .createdAt(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt))
+                    .id(Long.valueOf(value.substring(separator + 1)))
+                    .build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPaginationException("Cursor is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    public static KeysetCursor decodeWithCreatedAt(String cursor) {
+        KeysetCursor keysetCursor = decode(cursor);
+        if (keysetCursor.getCreatedAt() == null) {
+            throw new InvalidPaginationException("Cursor is malformed");
+        }
+        return keysetCursor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.pagination;
+
+import com.example.demo.exception.InvalidPaginationException;
+
+public final class PageSize {
+
+    public static final int MAX = 100;
+
+    private PageSize() {
+    }
+
+    public static int check(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX) {
+            throw new InvalidPaginationException("Page size must be between 1 and " + MAX + ", was: " + pageSize);
+        }
+        return pageSize;
+    }
+}
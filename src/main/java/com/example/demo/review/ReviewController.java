@@ -2,6 +2,7 @@ package com.example.demo.review;
 
 import com.example.demo.deal.DealDto;
 import com.example.demo.exception.ResponseError;
+import com.example.demo.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -126,6 +127,50 @@ public class ReviewController {
     }
 
 
+    @Operation(
+            summary = "Find all reviews by user with cursor",
+            description = "Searches all reviews of the user from newest to oldest. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All reviews successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "404", description = "User not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/{id}/cursor")
+    public ResponseEntity<CursorPage<ReviewDto>> findByUserAfter(
+            @PathVariable("id") @Parameter(description = "User id", example = "1") Long id,
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for find all reviews by user with id: {} with cursor", id);
+        return ResponseEntity.ok(reviewService.findByUserAfter(id, cursor, pageSize));
+    }
+
+
     @Operation(
             summary = "Returns average rating",
             description = "Returns user average rating by id"
@@ -4,16 +4,28 @@ import com.example.demo.deal.Deal;
 import com.example.demo.user.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     boolean existsBySenderAndDeal(User sender, Deal deal);
 
     Page<Review> findByRecipient(Pageable pageable, User recipient);
 
+    @EntityGraph(attributePaths = {"sender", "recipient"})
+    @Query("SELECT r FROM Review r WHERE r.recipient = :recipient ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findFirstSliceByRecipient(@Param("recipient") User recipient, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "recipient"})
+    @Query("SELECT r FROM Review r WHERE r.recipient = :recipient AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ORDER BY r.createdAt DESC, r.id DESC")
+    Slice<Review> findSliceByRecipientAfter(@Param("recipient") User recipient, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.recipient.id = :recipientId")
     Double findAverageRatingByRecipient(@Param("recipientId") Long recipientId);
 }
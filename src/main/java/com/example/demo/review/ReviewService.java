@@ -1,5 +1,6 @@
 package com.example.demo.review;
 
+import com.example.demo.pagination.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -8,5 +9,7 @@ public interface ReviewService {
 
     Page<ReviewDto> findByUser(Long id, Pageable pageable);
 
+    CursorPage<ReviewDto> findByUserAfter(Long id, String cursor, int pageSize);
+
     Double getAverageRatingByUser(Long id);
 }
@@ -3,19 +3,26 @@ package com.example.demo.review;
 import com.example.demo.deal.Deal;
 import com.example.demo.deal.DealRepository;
 import com.example.demo.deal.Status;
+import com.example.demo.event.ReviewCreatedEvent;
 import com.example.demo.exception.DealNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
+import com.example.demo.pagination.PageSize;
 import com.example.demo.user.User;
 import com.example.demo.user.UserService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -25,11 +32,13 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserService userService;
     private final DealRepository dealRepository;
     private final ReviewRepository reviewRepository;
+    private final UserRatingStatsRepository userRatingStatsRepository;
     private final ReviewMapper reviewMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger LOGGER = LoggerFactory.getLogger(ReviewServiceImpl.class);
 
     @Override
-    @CacheEvict(key = "#result.recipient.id")
+    @Transactional
     public ReviewDto send(ReviewRequest reviewRequest) {
         LOGGER.debug("send - Creating a new review for deal with id: {}", reviewRequest.getDealId());
 
@@ -48,6 +57,10 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
 
         Review savedReview = reviewRepository.save(review);
+        userRatingStatsRepository.increment(recipient.getId(), savedReview.getRating());
+        eventPublisher.publishEvent(ReviewCreatedEvent.builder()
+                .recipientId(recipient.getId())
+                .build());
         LOGGER.debug("send - Successfully created a new review for deal with id: {}", reviewRequest.getDealId());
 
         return reviewMapper.toDto(savedReview);
@@ -64,6 +77,42 @@ public class ReviewServiceImpl implements ReviewService {
         return reviews.map(reviewMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ReviewDto> findByUserAfter(Long id, String cursor, int pageSize) {
+        LOGGER.debug("findByUserAfter - Fetching reviews by user with id: {} after cursor, pageSize: {}", id, pageSize);
+        User user = userService.findById(id);
+
+        Pageable pageable = PageRequest.ofSize(PageSize.check(pageSize));
+        Slice<Review> reviews;
+        if (cursor == null) {
+            reviews = reviewRepository.findFirstSliceByRecipient(user, pageable);
+        } else {
+            KeysetCursor keysetCursor = KeysetCursor.decodeWithCreatedAt(cursor);
+            reviews = reviewRepository.findSliceByRecipientAfter(user, keysetCursor.getCreatedAt(), keysetCursor.getId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (reviews.hasNext()) {
+            Review last = reviews.getContent().get(reviews.getContent().size() - 1);
+            nextCursor = KeysetCursor.builder()
+                    .createdAt(last.getCreatedAt())
+                    .id(last.getId())
+                    .build()
+                    .encode();
+        }
+
+        LOGGER.debug("findByUserAfter - Fetched {} reviews by user with id: {}", reviews.getContent().size(), id);
+        return CursorPage.<ReviewDto>builder()
+                .content(reviews.getContent().stream()
+                        .map(reviewMapper::toDto)
+                        .toList())
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(reviews.hasNext())
+                .build();
+    }
+
     private Deal getValidatedDeal(Long dealId, User currentUser) {
         Deal deal = dealRepository.findById(dealId)
                 .orElseThrow(() -> new DealNotFoundException("Deal with id: " + dealId + " not found"));
@@ -80,12 +129,15 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    @Cacheable(key = "#id")
+    @Cacheable(key = "#id", sync = true)
     public Double getAverageRatingByUser(Long id) {
         LOGGER.debug("getAverageRatingByUser - Fetching average rating by user with id: {}", id);
 
         User user = userService.findById(id);
-        Double rating = reviewRepository.findAverageRatingByRecipient(user.getId());
+        Double rating = userRatingStatsRepository.findById(user.getId())
+                .filter(stats -> stats.getReviewCount() > 0)
+                .map(stats -> stats.getRatingSum() / (double) stats.getReviewCount())
+                .orElse(null);
 
         LOGGER.debug("getAverageRatingByUser - Fetched average rating: {} by user with id: {}", rating, id);
         return rating;
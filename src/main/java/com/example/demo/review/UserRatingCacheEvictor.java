@@ -0,0 +1,27 @@
+package com.example.demo.review;
+
+import com.example.demo.event.ReviewCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts a user's cached average rating once the review that changed their stats has committed, so a
+ * concurrent read can't cache the stats from before the review.
+ */
+@Component
+@CacheConfig(cacheNames = "review")
+public class UserRatingCacheEvictor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserRatingCacheEvictor.class);
+
+    @CacheEvict(key = "#reviewCreatedEvent.recipientId")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleReviewCreated(ReviewCreatedEvent reviewCreatedEvent) {
+        LOGGER.debug("handleReviewCreated - Evicting average rating for user with id: {}", reviewCreatedEvent.getRecipientId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.review;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "user_rating_stats")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRatingStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+}
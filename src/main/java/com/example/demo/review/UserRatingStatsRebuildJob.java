@@ -0,0 +1,35 @@
+package com.example.demo.review;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@RequiredArgsConstructor
+public class UserRatingStatsRebuildJob {
+
+    private final UserRatingStatsRepository userRatingStatsRepository;
+    private final PlatformTransactionManager transactionManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserRatingStatsRebuildJob.class);
+
+    /**
+     * Runs the rebuild in its own transaction and clears the cached ratings after it commits.
+     */
+    @CacheEvict(cacheNames = "review", allEntries = true)
+    @Scheduled(cron = "${review.rating-stats-rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        LOGGER.debug("rebuild - Rebuilding user rating stats from reviews");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRatingStatsRepository.lock();
+            int updated = userRatingStatsRepository.rebuild();
+            int deleted = userRatingStatsRepository.deleteOrphans();
+            LOGGER.debug("rebuild - Rebuilt user rating stats, updated: {}, deleted: {}", updated, deleted);
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.review;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UserRatingStatsRepository extends JpaRepository<UserRatingStats, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_rating_stats (user_id, review_count, rating_sum) VALUES (:userId, 1, :rating)
+            ON CONFLICT (user_id) DO UPDATE SET review_count = user_rating_stats.review_count + 1,
+                                                rating_sum = user_rating_stats.rating_sum + EXCLUDED.rating_sum""", nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("rating") int rating);
+
+    @Modifying
+    @Query(value = "LOCK TABLE user_rating_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lock();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_rating_stats (user_id, review_count, rating_sum)
+            SELECT r.recipient_id, count(*), sum(r.rating) FROM reviews r GROUP BY r.recipient_id
+            ON CONFLICT (user_id) DO UPDATE SET review_count = EXCLUDED.review_count,
+                                                rating_sum = EXCLUDED.rating_sum
+            WHERE user_rating_stats.review_count <> EXCLUDED.review_count
+               OR user_rating_stats.rating_sum <> EXCLUDED.rating_sum""", nativeQuery = true)
+    int rebuild();
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM user_rating_stats s
+            WHERE NOT EXISTS (SELECT 1 FROM reviews r WHERE r.recipient_id = s.user_id)""", nativeQuery = true)
+    int deleteOrphans();
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -52,6 +53,7 @@ public class Tool {
     private String description;
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "photos_tools",
             joinColumns = @JoinColumn(name = "tool_id", nullable = false)
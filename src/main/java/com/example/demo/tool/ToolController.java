@@ -1,6 +1,7 @@
 package com.example.demo.tool;
 
 import com.example.demo.exception.ResponseError;
+import com.example.demo.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -100,6 +101,78 @@ public class ToolController {
         return ResponseEntity.ok(toolService.findMy(pageable));
     }
 
+    @Operation(
+            summary = "Find all tools with cursor",
+            description = "Searches all tools from newest to oldest. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All tools successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ToolDto>> findAllAfter(
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for find all tools with cursor - pageSize: {}", pageSize);
+        return ResponseEntity.ok(toolService.findAllAfter(cursor, pageSize));
+    }
+
+    @Operation(
+            summary = "Find all tools of the current user with cursor",
+            description = "Searches all tools of the current user from newest to oldest. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All tools successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/my/cursor")
+    public ResponseEntity<CursorPage<ToolDto>> findMyAfter(
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for find all tools of the current user with cursor - pageSize: {}", pageSize);
+        return ResponseEntity.ok(toolService.findMyAfter(cursor, pageSize));
+    }
+
     @Operation(
             summary = "Find tool by ID"
     )
@@ -170,6 +243,50 @@ public class ToolController {
 
     }
 
+    @Operation(
+            summary = "Search tools by criteria with cursor",
+            description = "Searches all tools by provided filters in relevance order. Suitable for deep pages: pass the returned cursor to get the next page"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "All tools successfully received"),
+                    @ApiResponse(responseCode = "400", description = "Cursor is malformed or page size is not between 1 and 100",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Authentication error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Authorization error",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResponseError.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<ToolDto>> searchAfter(
+            @RequestParam(value = "description", required = false) @Parameter(description = "Tool description", example = "Description") String description,
+            @RequestParam(value = "manufacturer", required = false) @Parameter(description = "Manufacturer id", example = "1") Long manufacturer,
+            @RequestParam(value = "category", required = false) @Parameter(description = "Category id", example = "1") Long category,
+            @RequestParam(value = "type", required = false) @Parameter(description = "Tool type", example = "EXCHANGE") String type,
+            @RequestParam(value = "condition", required = false) @Parameter(description = "Tool condition", example = "RENT") String condition,
+            @RequestParam(value = "gte", required = false) @Parameter(description = "Minimum price", example = "1000") BigDecimal gte,
+            @RequestParam(value = "lte", required = false) @Parameter(description = "Maximum price", example = "5000") BigDecimal lte,
+            @RequestParam(value = "cursor", required = false) @Parameter(description = "Cursor returned by the previous page") String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") @Parameter(description = "Page size", example = "10") int pageSize
+    ) {
+        LOGGER.info("[GET] Request for search tools with cursor and filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {}. pageSize: {}",
+                description, manufacturer, category, type, condition, gte, lte, pageSize);
+        return ResponseEntity.ok(toolService.searchAfter(description, manufacturer, category, type, condition, gte, lte, cursor, pageSize));
+    }
+
     @Operation(
             summary = "Creates a new tool",
             description = "Creates a new tool with the provided data and uploads the provided files"
@@ -0,0 +1,72 @@
+package com.example.demo.tool;
+
+import com.example.demo.event.PhotoVariantsReadyEvent;
+import com.example.demo.event.ToolDeletedEvent;
+import com.example.demo.event.ToolUpdatedEvent;
+import com.example.demo.exception.ToolNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Read-through cache of tool details keyed by id. Entries hold object names rather than presigned
+ * URLs, so they stay valid until the tool changes; they are evicted once an update or delete commits,
+ * and when the variants of one of their photos become ready.
+ * Loading is synchronized per key, so concurrent misses on the same tool run a single query.
+ */
+@Component
+@RequiredArgsConstructor
+@CacheConfig(cacheNames = "tools")
+public class ToolDetailsCache {
+
+    private final ToolRepository toolRepository;
+    private final ToolMapper toolMapper;
+    private final CacheManager cacheManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ToolDetailsCache.class);
+
+    @Cacheable(key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public ToolDto get(Long id) {
+        Tool tool = toolRepository.findById(id)
+                .orElseThrow(() -> new ToolNotFoundException("Tool with id: " + id + " not found"));
+        LOGGER.debug("get - Loaded tool details into cache for id: {}", id);
+        return toolMapper.toUnsignedDto(tool);
+    }
+
+    @CacheEvict(key = "#toolUpdatedEvent.updatedTool.id")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleToolUpdated(ToolUpdatedEvent toolUpdatedEvent) {
+        LOGGER.debug("handleToolUpdated - Evicting tool details for id: {}", toolUpdatedEvent.getUpdatedTool().getId());
+    }
+
+    @CacheEvict(key = "#toolDeletedEvent.toolId")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleToolDeleted(ToolDeletedEvent toolDeletedEvent) {
+        LOGGER.debug("handleToolDeleted - Evicting tool details for id: {}", toolDeletedEvent.getToolId());
+    }
+
+    @EventListener
+    public void handlePhotoVariantsReady(PhotoVariantsReadyEvent photoVariantsReadyEvent) {
+        List<Long> toolIds = toolRepository.findIdsByPhoto(photoVariantsReadyEvent.getFileName());
+        if (toolIds.isEmpty()) {
+            return;
+        }
+        Cache cache = cacheManager.getCache("tools");
+        if (cache != null) {
+            toolIds.forEach(cache::evict);
+        }
+        LOGGER.debug("handlePhotoVariantsReady - Evicting tool details for ids: {} showing photo: {}", toolIds, photoVariantsReadyEvent.getFileName());
+    }
+}
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "DTO representing a tool's details")
@@ -48,6 +48,12 @@ public class ToolDto {
     @Schema(description = "List of photo URLs", example = "[\"url1\", \"url2\"]")
     private List<String> photos;
 
+    @Schema(description = "Medium-sized photo URLs in the order of photos; the original photo's URL until the variant is generated", example = "[\"url1\", \"url2\"]")
+    private List<String> mediumPhotos;
+
+    @Schema(description = "Thumbnail URLs in the order of photos; the original photo's URL until the variant is generated", example = "[\"url1\", \"url2\"]")
+    private List<String> thumbnails;
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm")
     @Schema(description = "Tool creation date", example = "2023-01-01 12:00")
     private LocalDateTime createdAt;
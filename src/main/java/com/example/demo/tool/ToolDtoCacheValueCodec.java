@@ -0,0 +1,186 @@
+package com.example.demo.tool;
+
+import com.example.demo.cache.CacheValueCodec;
+import com.example.demo.category.CategoryDto;
+import com.example.demo.manufacturer.ManufacturerDto;
+import com.example.demo.user.UserDto;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes {@link ToolDto} field by field instead of through JDK serialization, which would repeat the
+ * class descriptors of the DTO and every nested type in each entry.
+ */
+@Component
+public class ToolDtoCacheValueCodec implements CacheValueCodec<ToolDto> {
+
+    @Override
+    public byte id() {
+        return 2;
+    }
+
+    @Override
+    public byte version() {
+        return 1;
+    }
+
+    @Override
+    public Class<ToolDto> type() {
+        return ToolDto.class;
+    }
+
+    @Override
+    public void encode(ToolDto tool, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        writeLong(out, tool.getId());
+        out.writeBoolean(tool.getOwner() != null);
+        if (tool.getOwner() != null) {
+            writeLong(out, tool.getOwner().getId());
+            writeString(out, tool.getOwner().getFirstname());
+            writeString(out, tool.getOwner().getLastname());
+        }
+        out.writeBoolean(tool.getManufacturer() != null);
+        if (tool.getManufacturer() != null) {
+            writeLong(out, tool.getManufacturer().getId());
+            writeString(out, tool.getManufacturer().getName());
+        }
+        out.writeBoolean(tool.getCategory() != null);
+        if (tool.getCategory() != null) {
+            writeLong(out, tool.getCategory().getId());
+            writeString(out, tool.getCategory().getName());
+        }
+        writeString(out, tool.getType() == null ? null : tool.getType().name());
+        writeString(out, tool.getCondition() == null ? null : tool.getCondition().name());
+        writeDecimal(out, tool.getPrice());
+        writeString(out, tool.getDescription());
+        writeStrings(out, tool.getPhotos());
+        writeStrings(out, tool.getMediumPhotos());
+        writeStrings(out, tool.getThumbnails());
+        writeDateTime(out, tool.getCreatedAt());
+        writeDateTime(out, tool.getUpdatedAt());
+        out.flush();
+    }
+
+    @Override
+    public ToolDto decode(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        ToolDto.ToolDtoBuilder tool = ToolDto.builder().id(readLong(in));
+        if (in.readBoolean()) {
+            tool.owner(UserDto.builder()
+                    .id(readLong(in))
+                    .firstname(readString(in))
+                    .lastname(readString(in))
+                    .build());
+        }
+        if (in.readBoolean()) {
+            tool.manufacturer(ManufacturerDto.builder()
+                    .id(readLong(in))
+                    .name(readString(in))
+                    .build());
+        }
+        if (in.readBoolean()) {
+            tool.category(CategoryDto.builder()
+                    .id(readLong(in))
+                    .name(readString(in))
+                    .build());
+        }
+        String type = readString(in);
+        String condition = readString(in);
+        return tool.type(type == null ? null : Type.valueOf(type))
+                .condition(condition == null ? null : Condition.valueOf(condition))
+                .price(readDecimal(in))
+                .description(readString(in))
+                .photos(readStrings(in))
+                .mediumPhotos(readStrings(in))
+                .thumbnails(readStrings(in))
+                .createdAt(readDateTime(in))
+                .updatedAt(readDateTime(in))
+                .build();
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            out.writeInt(value.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
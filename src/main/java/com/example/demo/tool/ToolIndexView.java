@@ -0,0 +1,23 @@
+package com.example.demo.tool;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface ToolIndexView {
+
+    Long getId();
+
+    Long getManufacturerId();
+
+    Long getCategoryId();
+
+    Type getToolType();
+
+    Condition getToolCondition();
+
+    BigDecimal getPrice();
+
+    String getDescription();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -2,6 +2,8 @@ package com.example.demo.tool;
 
 import com.example.demo.category.Category;
 import com.example.demo.category.CategoryMapper;
+import com.example.demo.image.ImageVariant;
+import com.example.demo.image.PhotoRepository;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.manufacturer.ManufacturerMapper;
 import com.example.demo.minio.MinioProperties;
@@ -13,6 +15,9 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
@@ -23,23 +28,83 @@ public class ToolMapper {
     private final CategoryMapper categoryMapper;
     private final MinioService minioService;
     private final MinioProperties minioProperties;
+    private final PhotoRepository photoRepository;
 
     public ToolDto toDto(Tool tool) {
-        return ToolDto.builder()
-                .id(tool.getId())
-                .owner(userMapper.toDto(tool.getOwner()))
-                .manufacturer(manufacturerMapper.toDto(tool.getManufacturer()))
-                .category(categoryMapper.toDto(tool.getCategory()))
-                .type(tool.getType())
-                .condition(tool.getCondition())
-                .price(tool.getPrice())
-                .description(tool.getDescription())
-                .photos(tool.getPhotos().stream()
-                        .map(el -> minioService.getPresignedUrl(el, minioProperties.getBucket()))
-                        .toList())
-                .createdAt(tool.getCreatedAt())
-                .updatedAt(tool.getUpdatedAt())
-                .build();
+        return toDtos(List.of(tool)).get(0);
+    }
+
+    public List<ToolDto> toDtos(List<Tool> tools) {
+        return withPhotoUrls(toUnsignedDtos(tools));
+    }
+
+    /**
+     * Maps the tool with object names in place of photo URLs. That form doesn't expire, so it is the
+     * one kept in the tool cache; {@link #withPhotoUrls(List)} signs it on the way out. A photo whose
+     * variants are not stored yet keeps its original's name in mediumPhotos and thumbnails, and the
+     * cached entry is evicted once they are.
+     */
+    public ToolDto toUnsignedDto(Tool tool) {
+        return toUnsignedDtos(List.of(tool)).get(0);
+    }
+
+    private List<ToolDto> toUnsignedDtos(List<Tool> tools) {
+        List<String> photos = tools.stream()
+                .flatMap(el -> el.getPhotos().stream())
+                .distinct()
+                .toList();
+        Set<String> withVariants = photos.isEmpty() ? Set.of() : photoRepository.findWithVariants(photos);
+
+        return tools.stream()
+                .map(el -> ToolDto.builder()
+                        .id(el.getId())
+                        .owner(userMapper.toDto(el.getOwner()))
+                        .manufacturer(manufacturerMapper.toDto(el.getManufacturer()))
+                        .category(categoryMapper.toDto(el.getCategory()))
+                        .type(el.getType())
+                        .condition(el.getCondition())
+                        .price(el.getPrice())
+                        .description(el.getDescription())
+                        .photos(List.copyOf(el.getPhotos()))
+                        .mediumPhotos(variantFileNames(el, ImageVariant.MEDIUM, withVariants))
+                        .thumbnails(variantFileNames(el, ImageVariant.THUMBNAIL, withVariants))
+                        .createdAt(el.getCreatedAt())
+                        .updatedAt(el.getUpdatedAt())
+                        .build())
+                .toList();
+    }
+
+    public ToolDto withPhotoUrls(ToolDto tool) {
+        return withPhotoUrls(List.of(tool)).get(0);
+    }
+
+    public List<ToolDto> withPhotoUrls(List<ToolDto> tools) {
+        List<String> fileNames = tools.stream()
+                .flatMap(el -> Stream.of(el.getPhotos(), el.getMediumPhotos(), el.getThumbnails()))
+                .flatMap(List::stream)
+                .distinct()
+                .toList();
+        Map<String, String> photoUrls = minioService.getPresignedUrls(fileNames, minioProperties.getBucket());
+
+        return tools.stream()
+                .map(el -> el.toBuilder()
+                        .photos(urls(el.getPhotos(), photoUrls))
+                        .mediumPhotos(urls(el.getMediumPhotos(), photoUrls))
+                        .thumbnails(urls(el.getThumbnails(), photoUrls))
+                        .build())
+                .toList();
+    }
+
+    private List<String> variantFileNames(Tool tool, ImageVariant variant, Set<String> withVariants) {
+        return tool.getPhotos().stream()
+                .map(el -> withVariants.contains(el) ? variant.fileName(el, minioProperties.getVariantFormat()) : el)
+                .toList();
+    }
+
+    private static List<String> urls(List<String> fileNames, Map<String, String> photoUrls) {
+        return fileNames.stream()
+                .map(photoUrls::get)
+                .toList();
     }
 
     public Tool toEntity(ToolCreateUpdateDto toolCreateUpdateDto, User user, Manufacturer manufacturer, Category category, List<String> fileNames, LocalDateTime now) {
@@ -1,23 +1,77 @@
 package com.example.demo.tool;
 
 import com.example.demo.user.User;
-import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ToolRepository extends JpaRepository<Tool, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    Page<Tool> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
     Page<Tool> findByOwner(Pageable pageable, User user);
 
-    Page<Tool> findAllByIdIn(Iterable<Long> ids, Pageable pageable);
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    List<Tool> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    @Query("SELECT t FROM Tool t ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Tool> findFirstSlice(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    @Query("SELECT t FROM Tool t WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Tool> findSliceAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    @Query("SELECT t FROM Tool t WHERE t.owner = :owner ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Tool> findFirstSliceByOwner(@Param("owner") User owner, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "manufacturer", "category"})
+    @Query("SELECT t FROM Tool t WHERE t.owner = :owner AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Tool> findSliceByOwnerAfter(@Param("owner") User owner, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 
     @Query("SELECT t FROM Tool t LEFT JOIN FETCH t.photos WHERE t.id = :id")
     Optional<Tool> findByIdWithPhotos(@Param("id") Long id);
 
+    @Query("SELECT DISTINCT p FROM Tool t JOIN t.photos p WHERE p IN :photos")
+    Set<String> findReferencedPhotos(@Param("photos") Collection<String> photos);
+
+    @Query("SELECT DISTINCT t.id FROM Tool t JOIN t.photos p WHERE p = :photo")
+    List<Long> findIdsByPhoto(@Param("photo") String photo);
+
+    @Query("SELECT MIN(t.id) FROM Tool t")
+    Long findMinId();
+
+    @Query("SELECT MAX(t.id) FROM Tool t")
+    Long findMaxId();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT t.id AS id, t.manufacturer.id AS manufacturerId, t.category.id AS categoryId, t.type AS toolType,
+                   t.condition AS toolCondition, t.price AS price, t.description AS description, t.updatedAt AS updatedAt
+            FROM Tool t WHERE t.id BETWEEN :fromId AND :toId ORDER BY t.id""")
+    Stream<ToolIndexView> streamIndexViewsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
 }
@@ -1,6 +1,6 @@
 package com.example.demo.tool;
 
-import jakarta.validation.Valid;
+import com.example.demo.pagination.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,11 +16,17 @@ public interface ToolService {
 
     Page<ToolDto> findMy(Pageable pageable);
 
+    CursorPage<ToolDto> findAllAfter(String cursor, int pageSize);
+
+    CursorPage<ToolDto> findMyAfter(String cursor, int pageSize);
+
     void delete(Long id);
 
     void update(Long id, ToolCreateUpdateDto toolCreateUpdateDto, List<MultipartFile> files, List<String> filesToDelete);
 
     Page<ToolDto> search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, Pageable pageable);
 
+    CursorPage<ToolDto> searchAfter(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, String cursor, int pageSize);
+
     ToolDto findById(Long id);
 }
@@ -3,14 +3,20 @@ package com.example.demo.tool;
 import com.example.demo.category.Category;
 import com.example.demo.category.CategoryService;
 import com.example.demo.elasticsearch.ElasticService;
+import com.example.demo.elasticsearch.ToolSearchHits;
 import com.example.demo.event.ToolCreatedEvent;
 import com.example.demo.event.ToolDeletedEvent;
+import com.example.demo.event.ToolPhotosAddedEvent;
+import com.example.demo.event.ToolPhotosRemovedEvent;
 import com.example.demo.event.ToolUpdatedEvent;
 import com.example.demo.exception.ToolNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
 import com.example.demo.image.ImageService;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.manufacturer.ManufacturerService;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
+import com.example.demo.pagination.PageSize;
 import com.example.demo.user.User;
 import com.example.demo.user.UserService;
 import lombok.RequiredArgsConstructor;
@@ -18,14 +24,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,53 +54,111 @@ public class ToolServiceImpl implements ToolService {
     private final ImageService imageService;
     private final ToolMapper toolMapper;
     private final ToolRepository toolRepository;
+    private final ToolDetailsCache toolDetailsCache;
     private final ApplicationEventPublisher eventPublisher;
     private final ElasticService elasticService;
+    private final PlatformTransactionManager transactionManager;
     private final Logger LOGGER = LoggerFactory.getLogger(ToolServiceImpl.class);
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ToolDto> findAll(Pageable pageable) {
         LOGGER.debug("findAll: Fetching tools - pageNumber: {}, pageSize: {}", pageable.getPageNumber(), pageable.getPageSize());
 
         Page<Tool> tools = toolRepository.findAll(pageable);
 
         LOGGER.debug("findAll: Fetched {} tools", tools.getContent().size());
-        return tools.map(toolMapper::toDto);
+        return new PageImpl<>(toolMapper.toDtos(tools.getContent()), pageable, tools.getTotalElements());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ToolDto> findMy(Pageable pageable) {
         LOGGER.debug("findMy: Fetching tools of the current user - pageNumber: {}, pageSize: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         Page<Tool> tools = toolRepository.findByOwner(pageable, currentUser);
 
-        LOGGER.debug("findMy: Fetched {} tools of the current user: {}", tools.getContent().size(), currentUser.getLogin());
-        return tools.map(toolMapper::toDto);
+        LOGGER.debug("findMy: Fetched {} tools of the current user with id: {}", tools.getContent().size(), currentUser.getId());
+        return new PageImpl<>(toolMapper.toDtos(tools.getContent()), pageable, tools.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ToolDto> findAllAfter(String cursor, int pageSize) {
+        LOGGER.debug("findAllAfter: Fetching tools after cursor - pageSize: {}", pageSize);
+
+        Pageable pageable = PageRequest.ofSize(PageSize.check(pageSize));
+        Slice<Tool> tools;
+        if (cursor == null) {
+            tools = toolRepository.findFirstSlice(pageable);
+        } else {
+            KeysetCursor keysetCursor = KeysetCursor.decodeWithCreatedAt(cursor);
+            tools = toolRepository.findSliceAfter(keysetCursor.getCreatedAt(), keysetCursor.getId(), pageable);
+        }
+
+        LOGGER.debug("findAllAfter: Fetched {} tools", tools.getContent().size());
+        return toCursorPage(tools, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ToolDto> findMyAfter(String cursor, int pageSize) {
+        LOGGER.debug("findMyAfter: Fetching tools of the current user after cursor - pageSize: {}", pageSize);
+
+        User currentUser = userService.getCurrentUserReference();
+        Pageable pageable = PageRequest.ofSize(PageSize.check(pageSize));
+        Slice<Tool> tools;
+        if (cursor == null) {
+            tools = toolRepository.findFirstSliceByOwner(currentUser, pageable);
+        } else {
+            KeysetCursor keysetCursor = KeysetCursor.decodeWithCreatedAt(cursor);
+            tools = toolRepository.findSliceByOwnerAfter(currentUser, keysetCursor.getCreatedAt(), keysetCursor.getId(), pageable);
+        }
+
+        LOGGER.debug("findMyAfter: Fetched {} tools of the current user with id: {}", tools.getContent().size(), currentUser.getId());
+        return toCursorPage(tools, pageSize);
     }
 
     @Override
     public ToolDto findById(Long id) {
-        Tool tool = toolRepository.findById(id)
-                .orElseThrow(() -> new ToolNotFoundException("Tool with id: " + id + " not found"));
+        ToolDto tool = toolDetailsCache.get(id);
         LOGGER.debug("findById: Fetched tool by ID: {}", id);
-        return toolMapper.toDto(tool);
+        return toolMapper.withPhotoUrls(tool);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ToolDto> search(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, Pageable pageable) {
         LOGGER.debug("search: Fetching tools with filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {}. pageNumber: {}, pageSize: {}",
                 description, manufacturer, category, type, condition, gte, lte, pageable.getPageNumber(), pageable.getPageSize());
 
-        List<Long> toolsIds = elasticService.search(description, manufacturer, category, type, condition, gte, lte);
-        Page<Tool> tools = toolRepository.findAllByIdIn(toolsIds, pageable);
+        ToolSearchHits searchHits = elasticService.search(description, manufacturer, category, type, condition, gte, lte, pageable);
+        List<ToolDto> tools = findAllInOrder(searchHits.getIds());
 
-        LOGGER.debug("search: Fetched: {} tools with filters", tools.getContent().size());
-        return tools.map(toolMapper::toDto);
+        LOGGER.debug("search: Fetched: {} tools with filters", tools.size());
+        return new PageImpl<>(tools, pageable, searchHits.getTotal());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ToolDto> searchAfter(String description, Long manufacturer, Long category, String type, String condition, BigDecimal gte, BigDecimal lte, String cursor, int pageSize) {
+        LOGGER.debug("searchAfter: Fetching tools with filters - description: {}, manufacturer: {}, category: {}, type: {}, condition: {}, price range: {} - {}. pageSize: {}",
+                description, manufacturer, category, type, condition, gte, lte, pageSize);
+
+        ToolSearchHits searchHits = elasticService.searchAfter(description, manufacturer, category, type, condition, gte, lte, cursor, PageSize.check(pageSize));
+        List<ToolDto> tools = findAllInOrder(searchHits.getIds());
+
+        LOGGER.debug("searchAfter: Fetched: {} tools with filters", tools.size());
+        return CursorPage.<ToolDto>builder()
+                .content(tools)
+                .size(pageSize)
+                .nextCursor(searchHits.getNextCursor())
+                .hasNext(searchHits.getNextCursor() != null)
+                .build();
     }
 
     @Override
-    @Transactional
     public ToolDto create(ToolCreateUpdateDto toolCreateUpdateDto, List<MultipartFile> files) {
         LOGGER.debug("create: Creating a new tool with data: {}", toolCreateUpdateDto);
 
@@ -92,13 +167,17 @@ public class ToolServiceImpl implements ToolService {
         Category category = categoryService.findById(toolCreateUpdateDto.getCategoryId());
         List<String> fileNames = imageService.processFiles(files);
 
-        Tool tool = toolMapper.toEntity(toolCreateUpdateDto, owner, manufacturer, category, fileNames, LocalDateTime.now());
-        Tool savedTool = toolRepository.save(tool);
-        LOGGER.debug("create: Successfully created tool with id: {}", savedTool.getId());
+        Tool savedTool = inTransaction(fileNames, () -> {
+            Tool tool = toolMapper.toEntity(toolCreateUpdateDto, owner, manufacturer, category, fileNames, LocalDateTime.now());
+            Tool saved = toolRepository.save(tool);
 
-        eventPublisher.publishEvent(ToolCreatedEvent.builder()
-                .createdTool(savedTool)
-                .build());
+            eventPublisher.publishEvent(ToolCreatedEvent.builder()
+                    .createdTool(saved)
+                    .build());
+            publishPhotosAdded(fileNames);
+            return saved;
+        });
+        LOGGER.debug("create: Successfully created tool with id: {}", savedTool.getId());
         return toolMapper.toDto(savedTool);
     }
 
@@ -107,49 +186,122 @@ public class ToolServiceImpl implements ToolService {
     public void delete(Long id) {
         LOGGER.debug("delete: Deleting tool with id: {}", id);
 
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         Tool tool = toolRepository.findById(id)
                 .orElseThrow(() -> new ToolNotFoundException("Tool with id: " + id + " not found"));
         checkUserRights(tool, currentUser);
 
-        imageService.deleteFiles(tool.getPhotos());
+        List<String> photos = List.copyOf(tool.getPhotos());
         toolRepository.delete(tool);
 
         LOGGER.debug("delete: Successfully deleted tool with id: {}", id);
         eventPublisher.publishEvent(ToolDeletedEvent.builder()
                 .toolId(id)
                 .build());
+        publishPhotosRemoved(photos);
     }
 
     @Override
-    @Transactional
     public void update(Long id, ToolCreateUpdateDto toolCreateUpdateDto, List<MultipartFile> files, List<String> filesToDelete) {
         LOGGER.debug("update: Updating tool with id: {}", id);
         Tool existingTool = toolRepository.findById(id)
                 .orElseThrow(() -> new ToolNotFoundException("Tool with id: " + id + " not found"));
 
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         Manufacturer manufacturer = manufacturerService.findById(toolCreateUpdateDto.getManufacturerId());
         Category category = categoryService.findById(toolCreateUpdateDto.getCategoryId());
         checkUserRights(existingTool, currentUser);
 
-        imageService.deleteFiles(filesToDelete);
-        List<String> fileNames = removeDeletedFiles(existingTool.getPhotos(), filesToDelete);
-        LOGGER.debug("update: Remove deleted files: {}", fileNames);
+        List<String> uploadedFiles = imageService.processFiles(files);
+
+        inTransaction(uploadedFiles, () -> {
+            Tool currentTool = toolRepository.findByIdWithPhotos(id)
+                    .orElseThrow(() -> new ToolNotFoundException("Tool with id: " + id + " not found"));
+            // Identical uploads share one name and hold a reference each, so every copy of a deleted name is dropped
+            Map<Boolean, List<String>> photos = currentTool.getPhotos().stream()
+                    .collect(Collectors.partitioningBy(filesToDelete::contains));
+            List<String> deletedFiles = photos.get(true);
+            List<String> fileNames = new ArrayList<>(photos.get(false));
+            LOGGER.debug("update: Remove deleted files: {}", deletedFiles);
+            fileNames.addAll(uploadedFiles);
+
+            Tool tool = toolMapper.toEntity(toolCreateUpdateDto, existingTool.getOwner(), manufacturer, category, fileNames, LocalDateTime.now());
+            tool.setId(currentTool.getId());
+            tool.setCreatedAt(currentTool.getCreatedAt());
+            Tool savedTool = toolRepository.save(tool);
+
+            eventPublisher.publishEvent(ToolUpdatedEvent.builder()
+                    .updatedTool(savedTool)
+                    .build());
+            publishPhotosAdded(uploadedFiles);
+            publishPhotosRemoved(deletedFiles);
+            return savedTool;
+        });
 
-        fileNames.addAll(imageService.processFiles(files));
+        LOGGER.info("update: Successfully updated tool with id: {}", id);
+    }
 
-        Tool tool = toolMapper.toEntity(toolCreateUpdateDto, currentUser, manufacturer, category, fileNames, LocalDateTime.now());
-        tool.setId(existingTool.getId());
-        tool.setCreatedAt(existingTool.getCreatedAt());
-        Tool savedTool = toolRepository.save(tool);
+    private <T> T inTransaction(List<String> uploadedFiles, Supplier<T> action) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> action.get());
+        } catch (RuntimeException e) {
+            LOGGER.debug("Transaction failed, removing uploaded files: {}", uploadedFiles);
+            try {
+                imageService.deleteFiles(uploadedFiles);
+            } catch (RuntimeException cleanupException) {
+                e.addSuppressed(cleanupException);
+            }
+            throw e;
+        }
+    }
 
-        LOGGER.info("update: Successfully updated tool with id: {}", id);
+    private void publishPhotosAdded(List<String> fileNames) {
+        if (!fileNames.isEmpty()) {
+            eventPublisher.publishEvent(ToolPhotosAddedEvent.builder()
+                    .fileNames(fileNames)
+                    .build());
+        }
+    }
 
-        eventPublisher.publishEvent(ToolUpdatedEvent.builder()
-                .updatedTool(savedTool)
-                .build());
+    private void publishPhotosRemoved(List<String> fileNames) {
+        if (!fileNames.isEmpty()) {
+            eventPublisher.publishEvent(ToolPhotosRemovedEvent.builder()
+                    .fileNames(fileNames)
+                    .build());
+        }
+    }
 
+    private CursorPage<ToolDto> toCursorPage(Slice<Tool> tools, int pageSize) {
+        String nextCursor = null;
+        if (tools.hasNext()) {
+            Tool last = tools.getContent().get(tools.getContent().size() - 1);
+            nextCursor = KeysetCursor.builder()
+                    .createdAt(last.getCreatedAt())
+                    .id(last.getId())
+                    .build()
+                    .encode();
+        }
+
+        return CursorPage.<ToolDto>builder()
+                .content(toolMapper.toDtos(tools.getContent()))
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(tools.hasNext())
+                .build();
+    }
+
+    private List<ToolDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Tool> toolsById = toolRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Tool::getId, Function.identity()));
+
+        return toolMapper.toDtos(ids.stream()
+                .map(toolsById::get)
+                .filter(Objects::nonNull)
+                .toList());
     }
 
     private void checkUserRights(Tool tool, User user) {
@@ -158,9 +310,4 @@ public class ToolServiceImpl implements ToolService {
         }
     }
 
-    private List<String> removeDeletedFiles(List<String> files, List<String> deletedFiles) {
-        deletedFiles.forEach(el -> files.remove(el));
-        return files;
-    }
-
 }
@@ -0,0 +1,42 @@
+package com.example.demo.user;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of an authenticated user, shared between request threads through the principal cache.
+ * Services that write load the managed {@link User} by id instead of using this snapshot.
+ */
+@Value
+public class UserPrincipal implements UserDetails {
+
+    Long id;
+
+    String login;
+
+    Role role;
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getLogin(), user.getRole());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return login;
+    }
+}
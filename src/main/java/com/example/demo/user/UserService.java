@@ -4,6 +4,8 @@ public interface UserService {
 
     User getCurrentUser();
 
+    User getCurrentUserReference();
+
     User findById(Long id);
 
 }
@@ -16,23 +16,50 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final static Logger LOGGER = LoggerFactory.getLogger(UserServiceImpl.class);
 
+    /**
+     * Loads the current user as an entity managed by the caller's transaction, for services that write it.
+     */
     @Override
     public User getCurrentUser() {
+        Authentication authentication = getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            LOGGER.debug("Fetched current user with id: {}", principal.getId());
+            return findById(principal.getId());
+        }
+        return findByLogin(authentication.getName());
+    }
+
+    /**
+     * Returns a lazy reference to the current user without querying {@code users}, for use as a query parameter.
+     */
+    @Override
+    public User getCurrentUserReference() {
+        Authentication authentication = getAuthentication();
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            LOGGER.debug("Fetched current user reference with id: {} from security context", principal.getId());
+            return userRepository.getReferenceById(principal.getId());
+        }
+        return findByLogin(authentication.getName());
+    }
+
+    @Override
+    public User findById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User with id: " + id + " not found"));
+    }
+
+    private Authentication getAuthentication() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new AuthenticationException("Current user is not authenticated");
         }
+        return authentication;
+    }
 
-        String login = authentication.getName();
+    private User findByLogin(String login) {
         User user = userRepository.findByLogin(login)
                 .orElseThrow(() -> new UserNotFoundException("User with this login: " + login + " not found"));
         LOGGER.debug("Fetched current user with login: {}", login);
         return user;
     }
-
-    @Override
-    public User findById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User with id: " + id + " not found"));
-    }
 }
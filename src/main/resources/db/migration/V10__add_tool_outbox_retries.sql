@@ -0,0 +1,15 @@
+-- Delivery attempts of an outbox event, claimed_until doubles as the earliest time of the next attempt
+ALTER TABLE tool_outbox
+    ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Events Elasticsearch rejected or that ran out of retries, kept for inspection and manual replay
+CREATE TABLE IF NOT EXISTS tool_outbox_dead_letter
+(
+    id         BIGINT PRIMARY KEY,
+    tool_id    BIGINT       NOT NULL,
+    operation  VARCHAR(255) NOT NULL CHECK (operation IN ('INDEX', 'DELETE')),
+    created_at TIMESTAMP(6) NOT NULL,
+    attempts   INTEGER      NOT NULL,
+    reason     TEXT         NOT NULL,
+    failed_at  TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,65 @@
+CREATE TABLE IF NOT EXISTS users
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname VARCHAR(100) NOT NULL,
+    lastname  VARCHAR(100),
+    login     VARCHAR(100) NOT NULL UNIQUE,
+    password  VARCHAR(100),
+    role      VARCHAR(255) NOT NULL CHECK (role IN ('ROLE_USER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS categories
+(
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS manufacturers
+(
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS tools
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_id        BIGINT         NOT NULL REFERENCES users (id),
+    manufacturer_id BIGINT         NOT NULL REFERENCES manufacturers (id),
+    category_id     BIGINT         NOT NULL REFERENCES categories (id),
+    type            VARCHAR(255)   NOT NULL CHECK (type IN ('RENT', 'SALE')),
+    condition       VARCHAR(255)   NOT NULL CHECK (condition IN ('NEW', 'USED')),
+    price           NUMERIC(10, 2) NOT NULL,
+    description     VARCHAR(1000)  NOT NULL,
+    created_at      TIMESTAMP(6)   NOT NULL,
+    updated_at      TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS photos_tools
+(
+    tool_id BIGINT       NOT NULL REFERENCES tools (id),
+    photo   VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS deals
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_id     BIGINT         NOT NULL REFERENCES users (id),
+    requester_id BIGINT         NOT NULL REFERENCES users (id),
+    tool_id      BIGINT         NOT NULL REFERENCES tools (id),
+    price        NUMERIC(10, 2) NOT NULL,
+    message      VARCHAR(255),
+    status       VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED')),
+    start_date   TIMESTAMP(6),
+    end_date     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS reviews
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sender_id    BIGINT       NOT NULL REFERENCES users (id),
+    recipient_id BIGINT       NOT NULL REFERENCES users (id),
+    deal_id      BIGINT       NOT NULL REFERENCES deals (id),
+    rating       INTEGER      NOT NULL,
+    message      VARCHAR(255) NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL
+);
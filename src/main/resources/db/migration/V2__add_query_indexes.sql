@@ -0,0 +1,20 @@
+-- ToolRepository.findAll cursor: ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_tools_created_at_id ON tools (created_at DESC, id DESC);
+
+-- ToolRepository.findByOwner and its cursor variant
+CREATE INDEX IF NOT EXISTS idx_tools_owner_created_at_id ON tools (owner_id, created_at DESC, id DESC);
+
+-- Tool.photos batch load: WHERE tool_id IN (...)
+CREATE INDEX IF NOT EXISTS idx_photos_tools_tool_id ON photos_tools (tool_id) INCLUDE (photo);
+
+-- DealRepository.findByOwner and its cursor variant
+CREATE INDEX IF NOT EXISTS idx_deals_owner_id ON deals (owner_id, id DESC);
+
+-- DealRepository.findByOwnerAndStatus and its cursor variant
+CREATE INDEX IF NOT EXISTS idx_deals_owner_status_id ON deals (owner_id, status, id DESC);
+
+-- ReviewRepository.findByRecipient, its cursor variant and findAverageRatingByRecipient (index-only)
+CREATE INDEX IF NOT EXISTS idx_reviews_recipient_created_at_id ON reviews (recipient_id, created_at DESC, id DESC) INCLUDE (rating);
+
+-- ReviewRepository.existsBySenderAndDeal
+CREATE INDEX IF NOT EXISTS idx_reviews_sender_deal ON reviews (sender_id, deal_id);
@@ -0,0 +1,14 @@
+-- Per-user rating aggregate kept up to date by ReviewServiceImpl.send, read by getAverageRatingByUser
+CREATE TABLE IF NOT EXISTS user_rating_stats
+(
+    user_id      BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum   BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO user_rating_stats (user_id, review_count, rating_sum)
+SELECT recipient_id, count(*), sum(rating)
+FROM reviews
+GROUP BY recipient_id
+ON CONFLICT (user_id) DO UPDATE SET review_count = EXCLUDED.review_count,
+                                    rating_sum   = EXCLUDED.rating_sum;
@@ -0,0 +1,8 @@
+-- Tool changes written in the same transaction as the tools row, drained to Elasticsearch by ToolOutboxRelay
+CREATE TABLE IF NOT EXISTS tool_outbox
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tool_id    BIGINT       NOT NULL,
+    operation  VARCHAR(255) NOT NULL CHECK (operation IN ('INDEX', 'DELETE')),
+    created_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,2 @@
+-- ToolRepository.findReferencedPhotos (orphan photo cleanup)
+CREATE INDEX IF NOT EXISTS idx_photos_tools_photo ON photos_tools (photo);
@@ -0,0 +1,12 @@
+-- Reference counts of content-addressed photos; a row exists while its MinIO object is in use
+CREATE TABLE IF NOT EXISTS photos
+(
+    name      VARCHAR(255) PRIMARY KEY,
+    ref_count INTEGER      NOT NULL
+);
+
+INSERT INTO photos (name, ref_count)
+SELECT photo, COUNT(*)
+FROM photos_tools
+GROUP BY photo
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Lease taken by ToolOutboxRelay while a batch is being sent, so no row lock is held across the _bulk calls
+ALTER TABLE tool_outbox
+    ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP(6);
@@ -0,0 +1,6 @@
+-- Whether the medium and thumbnail variants of a photo are stored; photos served from the original until READY
+ALTER TABLE photos
+    ADD COLUMN IF NOT EXISTS variant_status VARCHAR(16) NOT NULL DEFAULT 'PENDING'
+        CHECK (variant_status IN ('PENDING', 'READY', 'UNSUPPORTED'));
+
+CREATE INDEX IF NOT EXISTS idx_photos_variant_pending ON photos (name) WHERE variant_status = 'PENDING';
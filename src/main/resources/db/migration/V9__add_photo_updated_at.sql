@@ -0,0 +1,3 @@
+-- Last acquire or release of a photo; OrphanPhotoCleanupJob reconciles ref_count only once a row has been idle for the grace period
+ALTER TABLE photos
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL DEFAULT now();
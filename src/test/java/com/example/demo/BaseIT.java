@@ -1,7 +1,10 @@
 package com.example.demo;
 
 import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -41,6 +44,9 @@ public class BaseIT {
             .withExposedPorts(6379, 8001)
             .withEnv("REDIS_PASSWORD", "test_password");
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @DynamicPropertySource
     private static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
@@ -65,5 +71,10 @@ public class BaseIT {
         registry.add("spring.data.redis.username", () -> "default");
     }
 
+    @BeforeEach
+    public void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
 }
 
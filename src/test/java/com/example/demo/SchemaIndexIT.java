@@ -0,0 +1,113 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SchemaIndexIT extends BaseIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+
+    @BeforeAll
+    public void seed() {
+        jdbcTemplate.execute("INSERT INTO categories (name) VALUES ('Explain category')");
+        jdbcTemplate.execute("INSERT INTO manufacturers (name) VALUES ('Explain manufacturer')");
+        jdbcTemplate.execute("""
+                INSERT INTO users (firstname, login, role)
+                SELECT 'User', 'explain' || g || '@gmail.com', 'ROLE_USER' FROM generate_series(1, 1000) g""");
+        jdbcTemplate.execute("""
+                INSERT INTO tools (owner_id, manufacturer_id, category_id, type, condition, price, description, created_at, updated_at)
+                SELECT u.min_id + g % 1000, m.id, c.id, 'RENT', 'NEW', 10, 'Tool ' || g, now() - g * interval '1 minute', now()
+                FROM generate_series(1, 20000) g,
+                     (SELECT min(id) AS min_id FROM users WHERE login LIKE 'explain%') u,
+                     (SELECT id FROM manufacturers WHERE name = 'Explain manufacturer') m,
+                     (SELECT id FROM categories WHERE name = 'Explain category') c""");
+        jdbcTemplate.execute("INSERT INTO photos_tools (tool_id, photo) SELECT id, 'photo' || id || '.jpg' FROM tools");
+        jdbcTemplate.execute("""
+                INSERT INTO deals (owner_id, requester_id, tool_id, price, status)
+                SELECT t.owner_id, u.min_id + (t.id * 7) % 1000, t.id, 10, (ARRAY ['PENDING', 'APPROVED', 'REJECTED'])[1 + t.id % 3]
+                FROM tools t, (SELECT min(id) AS min_id FROM users WHERE login LIKE 'explain%') u""");
+        jdbcTemplate.execute("""
+                INSERT INTO reviews (sender_id, recipient_id, deal_id, rating, message, created_at)
+                SELECT d.requester_id, d.owner_id, d.id, 1 + d.id % 5, 'Message', now() - d.id * interval '1 minute' FROM deals d""");
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        ownerId = jdbcTemplate.queryForObject("SELECT min(id) + 500 FROM users WHERE login LIKE 'explain%'", Long.class);
+    }
+
+    @AfterAll
+    public void clean() {
+        jdbcTemplate.execute("DELETE FROM reviews");
+        jdbcTemplate.execute("DELETE FROM deals");
+        jdbcTemplate.execute("DELETE FROM photos_tools");
+        jdbcTemplate.execute("DELETE FROM tools");
+        jdbcTemplate.execute("DELETE FROM users WHERE login LIKE 'explain%'");
+        jdbcTemplate.execute("DELETE FROM manufacturers WHERE name = 'Explain manufacturer'");
+        jdbcTemplate.execute("DELETE FROM categories WHERE name = 'Explain category'");
+    }
+
+    @Test
+    public void toolsFindByOwner_useIndex() {
+        assertUsesIndex("SELECT * FROM tools WHERE owner_id = " + ownerId + " OFFSET 0 LIMIT 10");
+        assertUsesIndex("SELECT count(*) FROM tools WHERE owner_id = " + ownerId);
+    }
+
+    @Test
+    public void toolsCursor_useIndex() {
+        assertUsesIndex("SELECT * FROM tools ORDER BY created_at DESC, id DESC LIMIT 11");
+        assertUsesIndex("SELECT * FROM tools WHERE owner_id = " + ownerId
+                + " AND (created_at < now() OR (created_at = now() AND id < 100)) ORDER BY created_at DESC, id DESC LIMIT 11");
+    }
+
+    @Test
+    public void photosBatchLoad_useIndex() {
+        assertUsesIndex("SELECT tool_id, photo FROM photos_tools WHERE tool_id IN (1, 2, 3, 4, 5, 6, 7, 8, 9, 10)");
+    }
+
+    @Test
+    public void photosReferenced_useIndex() {
+        assertUsesIndex("SELECT DISTINCT photo FROM photos_tools WHERE photo IN ('photo1.jpg', 'photo2.jpg', 'orphan.jpg')");
+    }
+
+    @Test
+    public void dealsFindByOwner_useIndex() {
+        assertUsesIndex("SELECT * FROM deals WHERE owner_id = " + ownerId + " OFFSET 0 LIMIT 10");
+    }
+
+    @Test
+    public void dealsFindByOwnerAndStatus_useIndex() {
+        assertUsesIndex("SELECT * FROM deals WHERE owner_id = " + ownerId + " AND status = 'PENDING' OFFSET 0 LIMIT 10");
+        assertUsesIndex("SELECT * FROM deals WHERE owner_id = " + ownerId + " AND status = 'PENDING' AND id < 10000 ORDER BY id DESC LIMIT 11");
+    }
+
+    @Test
+    public void reviewsFindByRecipient_useIndex() {
+        assertUsesIndex("SELECT * FROM reviews WHERE recipient_id = " + ownerId + " ORDER BY created_at DESC OFFSET 0 LIMIT 10");
+    }
+
+    @Test
+    public void reviewsAverageRating_useIndex() {
+        assertUsesIndex("SELECT avg(rating) FROM reviews WHERE recipient_id = " + ownerId);
+    }
+
+    @Test
+    public void reviewsExistsBySenderAndDeal_useIndex() {
+        assertUsesIndex("SELECT 1 FROM reviews WHERE sender_id = " + ownerId + " AND deal_id = 42 LIMIT 1");
+    }
+
+    private void assertUsesIndex(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+        assertFalse(plan.contains("Seq Scan"), "Sequential scan in plan:\n" + plan);
+        assertTrue(plan.contains("idx_"), "No index scan in plan:\n" + plan);
+    }
+}
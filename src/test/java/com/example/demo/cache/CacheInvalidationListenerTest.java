@@ -0,0 +1,68 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TwoLevelCache cache;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    public void setup() {
+        listener = new CacheInvalidationListener(cacheManager, "node-1");
+    }
+
+    @Test
+    public void onMessage_fromOtherNode_evictLocalKey() {
+        when(cacheManager.getCache("categories")).thenReturn(cache);
+
+        listener.onMessage(message("node-2:categories:1"), null);
+
+        verify(cache).evictLocal("1");
+    }
+
+    @Test
+    public void onMessage_keyWithSeparator_evictWholeKey() {
+        when(cacheManager.getCache("openid")).thenReturn(cache);
+
+        listener.onMessage(message("node-2:openid:a:b"), null);
+
+        verify(cache).evictLocal("a:b");
+    }
+
+    @Test
+    public void onMessage_withoutKey_evictAllLocal() {
+        when(cacheManager.getCache("categories")).thenReturn(cache);
+
+        listener.onMessage(message("node-2:categories"), null);
+
+        verify(cache).evictLocal(null);
+    }
+
+    @Test
+    public void onMessage_fromSameNode_ignore() {
+        listener.onMessage(message("node-1:categories:1"), null);
+
+        verifyNoInteractions(cacheManager, cache);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
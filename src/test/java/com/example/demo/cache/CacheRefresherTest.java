@@ -0,0 +1,188 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheRefresherTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private CacheRefreshProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        properties = new CacheRefreshProperties();
+        properties.setLockTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    public void shouldRefresh_staleValue_alwaysTrue() {
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        assertTrue(refresher.shouldRefresh(new StampedValue("value", 1_000, 0), 1_000));
+        assertTrue(refresher.shouldRefresh(new StampedValue("value", 1_000, 500), 2_000));
+    }
+
+    @Test
+    public void shouldRefresh_farFromExpiry_false() {
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(refresher.shouldRefresh(new StampedValue("value", 1_000_000, 1), 0));
+        }
+    }
+
+    @Test
+    public void shouldRefresh_slowLoadNearExpiry_sometimesTrue() {
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        int refreshes = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (refresher.shouldRefresh(new StampedValue("value", 1_000, 1_000), 0)) {
+                refreshes++;
+            }
+        }
+
+        // P(-ln(1 - u) >= 1) = 1/e
+        assertTrue(refreshes > 250 && refreshes < 500, "Refreshes: " + refreshes);
+    }
+
+    @Test
+    public void refreshAsync_inFlight_runOnce() {
+        List<Runnable> queued = new ArrayList<>();
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any());
+        CacheRefresher refresher = refresher(executor);
+        AtomicInteger refreshes = new AtomicInteger();
+
+        refresher.refreshAsync("review", 1L, "early", refreshes::incrementAndGet);
+        refresher.refreshAsync("review", 1L, "early", refreshes::incrementAndGet);
+        queued.forEach(Runnable::run);
+        refresher.refreshAsync("review", 1L, "stale", refreshes::incrementAndGet);
+        queued.get(queued.size() - 1).run();
+
+        assertEquals(2, queued.size());
+        assertEquals(2, refreshes.get());
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("trigger", "early").tag("outcome", "success").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("trigger", "stale").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    public void refreshAsync_refreshFails_countErrorAndAllowRetry() {
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        AtomicInteger refreshes = new AtomicInteger();
+
+        refresher.refreshAsync("review", 1L, "stale", () -> {
+            throw new IllegalStateException("boom");
+        });
+        refresher.refreshAsync("review", 1L, "stale", refreshes::incrementAndGet);
+
+        assertEquals(1, refreshes.get());
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("outcome", "error").counter().count());
+    }
+
+    @Test
+    public void refreshAsync_lockedByOtherNode_skip() {
+        properties.setDistributedLock(true);
+        when(valueOperations.setIfAbsent(eq("lock:review::1"), anyString(), eq(Duration.ofMillis(200)))).thenReturn(false);
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        AtomicInteger refreshes = new AtomicInteger();
+
+        refresher.refreshAsync("review", 1L, "early", refreshes::incrementAndGet);
+
+        assertEquals(0, refreshes.get());
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("outcome", "locked").counter().count());
+        verify(redisTemplate, never()).execute(any(), anyList(), any());
+    }
+
+    @Test
+    public void refreshAsync_lockAcquired_refreshAndUnlock() {
+        properties.setDistributedLock(true);
+        when(valueOperations.setIfAbsent(eq("lock:review::1"), anyString(), eq(Duration.ofMillis(200)))).thenReturn(true);
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        AtomicInteger refreshes = new AtomicInteger();
+
+        refresher.refreshAsync("review", 1L, "early", refreshes::incrementAndGet);
+
+        assertEquals(1, refreshes.get());
+        verify(redisTemplate).execute(any(), eq(List.of("lock:review::1")), anyString());
+    }
+
+    @Test
+    public void load_lockDisabled_callLoaderWithoutRedis() throws Exception {
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        assertEquals("value", refresher.load("review", 1L, () -> null, () -> "value"));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void load_lockedByOtherNode_waitForStoredValue() throws Exception {
+        properties.setDistributedLock(true);
+        when(valueOperations.setIfAbsent(eq("lock:review::1"), anyString(), any(Duration.class))).thenReturn(false);
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+        Callable<Object> loader = mock(Callable.class);
+        AtomicInteger lookups = new AtomicInteger();
+
+        Object value = refresher.load("review", 1L, () -> lookups.incrementAndGet() < 2 ? null : new SimpleValueWrapper("stored"), loader);
+
+        assertEquals("stored", value);
+        verify(loader, never()).call();
+    }
+
+    @Test
+    public void load_lockWaitTimesOut_loadItself() throws Exception {
+        properties.setDistributedLock(true);
+        when(valueOperations.setIfAbsent(eq("lock:review::1"), anyString(), any(Duration.class))).thenReturn(false);
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        assertEquals("value", refresher.load("review", 1L, () -> null, () -> "value"));
+    }
+
+    @Test
+    public void load_redisDown_loadWithoutLock() throws Exception {
+        properties.setDistributedLock(true);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenThrow(new IllegalStateException("down"));
+        CacheRefresher refresher = refresher(new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        assertEquals("value", refresher.load("review", 1L, () -> null, () -> "value"));
+        verify(redisTemplate, never()).execute(any(), anyList(), any());
+    }
+
+    private CacheRefresher refresher(ExecutorService executor) {
+        return new CacheRefresher(properties, executor, redisTemplate, meterRegistry);
+    }
+}
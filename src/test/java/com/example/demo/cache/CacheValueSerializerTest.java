@@ -0,0 +1,147 @@
+package com.example.demo.cache;
+
+import com.example.demo.category.CategoryDto;
+import com.example.demo.tool.ToolDto;
+import com.example.demo.tool.ToolDtoCacheValueCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueSerializerTest {
+
+    private final CacheValueSerializer serializer = new CacheValueSerializer(List.of(
+            new DoubleCacheValueCodec(),
+            new ToolDtoCacheValueCodec(),
+            new JdkCacheValueCodec(getClass().getClassLoader())), 1024);
+
+    @Test
+    public void serialize_pickCodecByType() {
+        byte[] rating = serializer.serialize(4.5);
+        byte[] tool = serializer.serialize(ToolDto.builder().id(1L).description("Drill").build());
+        byte[] categories = serializer.serialize(List.of(CategoryDto.builder().id(1L).name("Drill").build()));
+
+        assertEquals(1, rating[1]);
+        assertEquals(12, rating.length);
+        assertEquals(2, tool[1]);
+        assertEquals(JdkCacheValueCodec.ID, categories[1]);
+        assertEquals(4.5, serializer.deserialize(rating));
+        assertEquals("Drill", ((ToolDto) serializer.deserialize(tool)).getDescription());
+        assertEquals(List.of(CategoryDto.builder().id(1L).name("Drill").build()), serializer.deserialize(categories));
+    }
+
+    @Test
+    public void serialize_belowThreshold_writeUncompressed() {
+        byte[] bytes = serializer.serialize("a".repeat(100));
+
+        assertEquals(0, bytes[3]);
+        assertEquals("a".repeat(100), serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void serialize_aboveThreshold_writeCompressed() {
+        String value = "a".repeat(10_000);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals(CacheValueSerializer.COMPRESSED, bytes[3]);
+        assertTrue(bytes.length < 1024, "Compressed size: " + bytes.length);
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void serialize_thresholdDisabled_neverCompress() {
+        CacheValueSerializer uncompressed = new CacheValueSerializer(List.of(new JdkCacheValueCodec(getClass().getClassLoader())), 0);
+
+        byte[] bytes = uncompressed.serialize("a".repeat(10_000));
+
+        assertEquals(0, bytes[3]);
+    }
+
+    @Test
+    public void serialize_stampedValue_keepStampAndPickCodecByValue() {
+        String value = "a".repeat(10_000);
+
+        byte[] bytes = serializer.serialize(new StampedValue(value, 1_700_000_000_000L, 250));
+
+        assertEquals(JdkCacheValueCodec.ID, bytes[1]);
+        assertEquals(CacheValueSerializer.STAMPED | CacheValueSerializer.COMPRESSED, bytes[3]);
+        assertEquals(new StampedValue(value, 1_700_000_000_000L, 250), serializer.deserialize(bytes));
+        assertEquals(new StampedValue(4.5, 1L, 0), serializer.deserialize(serializer.serialize(new StampedValue(4.5, 1L, 0))));
+    }
+
+    @Test
+    public void serialize_noCodec_throwException() {
+        CacheValueSerializer doublesOnly = new CacheValueSerializer(List.of(new DoubleCacheValueCodec()), 1024);
+
+        assertThrows(SerializationException.class, () -> doublesOnly.serialize("value"));
+    }
+
+    @Test
+    public void deserialize_plainJdkSerialization_returnNull() {
+        assertNull(serializer.deserialize(new JdkSerializationRedisSerializer().serialize(4.5)));
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    @Test
+    public void deserialize_otherCodecVersion_returnNull() {
+        byte[] bytes = serializer.serialize(4.5);
+        bytes[2]++;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void deserialize_unknownCodec_returnNull() {
+        byte[] bytes = serializer.serialize(4.5);
+        bytes[1] = 42;
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    public void deserialize_truncated_throwException() {
+        byte[] bytes = serializer.serialize(4.5);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(Arrays.copyOf(bytes, 6)));
+    }
+
+    @Test
+    public void create_duplicateCodecId_throwException() {
+        CacheValueCodec<String> clash = new CacheValueCodec<>() {
+            @Override
+            public byte id() {
+                return 1;
+            }
+
+            @Override
+            public byte version() {
+                return 1;
+            }
+
+            @Override
+            public Class<String> type() {
+                return String.class;
+            }
+
+            @Override
+            public void encode(String value, OutputStream out) {
+            }
+
+            @Override
+            public String decode(InputStream in) throws IOException {
+                return null;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> new CacheValueSerializer(List.of(new DoubleCacheValueCodec(), clash), 1024));
+    }
+}
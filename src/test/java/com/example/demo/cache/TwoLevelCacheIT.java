@@ -0,0 +1,78 @@
+package com.example.demo.cache;
+
+import com.example.demo.BaseIT;
+import com.example.demo.category.Category;
+import com.example.demo.category.CategoryRepository;
+import com.example.demo.category.CategoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
+
+class TwoLevelCacheIT extends BaseIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedisCacheManager redisCacheManager;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private LocalCacheProperties localCacheProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    public void findAll_serveRepeatedCallsFromLocalLayer() {
+        categoryRepository.save(Category.builder().name("Hammer").build());
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("categories");
+        assertNotNull(cache);
+
+        assertEquals(1, categoryService.findAll().size());
+        categoryRepository.save(Category.builder().name("Drill").build());
+        assertEquals(1, categoryService.findAll().size());
+
+        assertEquals(1, cache.getLocalCache().stats().hitCount());
+        assertNotNull(redisCacheManager.getCache("categories").get("all"));
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "categories").tag("cache.manager", "twoLevel").meter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "categories").tag("cache.manager", "redis").meter());
+    }
+
+    @Test
+    public void evictFromOtherNode_dropLocalEntryOnly() {
+        Cache cache = cacheManager.getCache("categories");
+        assertNotNull(cache);
+        cache.put(1L, "Hammer");
+        TwoLevelCache twoLevelCache = (TwoLevelCache) cache;
+
+        stringRedisTemplate.convertAndSend(localCacheProperties.getInvalidationChannel(), "other-node:categories:1");
+
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> twoLevelCache.getLocalCache().getIfPresent("1") == null);
+        assertEquals("Hammer", cache.get(1L).get());
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private Cache remote;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        CacheRefresher refresher = new CacheRefresher(new CacheRefreshProperties(), new ExecutorServiceAdapter(new SyncTaskExecutor()),
+                null, meterRegistry);
+        cache = new TwoLevelCache("categories", Caffeine.newBuilder().executor(Runnable::run).maximumSize(100).recordStats().build(),
+                remote, invalidationPublisher, refresher, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void get_localMiss_readRemoteOnceAndKeepLocally() {
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("Hammer"));
+
+        assertEquals("Hammer", cache.get(1L).get());
+        assertEquals("Hammer", cache.get(1L).get());
+
+        verify(remote, times(1)).get(1L);
+        assertEquals(1, cache.getLocalCache().stats().hitCount());
+        assertEquals(1, cache.getLocalCache().stats().missCount());
+    }
+
+    @Test
+    public void get_remoteMiss_returnNull() {
+        when(remote.get(1L)).thenReturn(null);
+
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+    }
+
+    @Test
+    public void get_withType_wrongType_throwException() {
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper("Hammer"));
+
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, Integer.class));
+    }
+
+    @Test
+    public void get_staleStampedValue_treatAsMiss() {
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper(new StampedValue("Hammer", System.currentTimeMillis() - 1, 0)));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void get_freshStampedValue_unwrap() {
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper(new StampedValue("Hammer", System.currentTimeMillis() + 60_000, 0)));
+
+        assertEquals("Hammer", cache.get(1L).get());
+    }
+
+    @Test
+    public void get_withLoader_remoteMiss_loadOnceAndStoreStamped() throws Exception {
+        Callable<String> loader = countingLoader("Hammer");
+        when(remote.get(1L)).thenReturn(null);
+
+        assertEquals("Hammer", cache.get(1L, loader));
+        assertEquals("Hammer", cache.get(1L, loader));
+
+        verify(loader, times(1)).call();
+        ArgumentCaptor<Object> stored = ArgumentCaptor.forClass(Object.class);
+        verify(remote).put(eq(1L), stored.capture());
+        StampedValue stamped = assertInstanceOf(StampedValue.class, stored.getValue());
+        assertEquals("Hammer", stamped.value());
+        assertTrue(stamped.freshUntil() > System.currentTimeMillis() + Duration.ofMinutes(9).toMillis());
+    }
+
+    @Test
+    public void get_withLoader_freshRemoteValue_skipLoader() throws Exception {
+        Callable<String> loader = countingLoader("Drill");
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper(new StampedValue("Hammer", System.currentTimeMillis() + 60_000, 0)));
+
+        assertEquals("Hammer", cache.get(1L, loader));
+
+        verify(loader, never()).call();
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    public void get_withLoader_staleRemoteValue_serveStaleAndRefresh() throws Exception {
+        List<Runnable> refreshes = new ArrayList<>();
+        CacheRefresher refresher = new CacheRefresher(new CacheRefreshProperties(), new ExecutorServiceAdapter(refreshes::add),
+                null, meterRegistry);
+        cache = new TwoLevelCache("categories", Caffeine.newBuilder().executor(Runnable::run).maximumSize(100).recordStats().build(),
+                remote, invalidationPublisher, refresher, Duration.ofMinutes(10));
+        Callable<String> loader = countingLoader("Drill");
+        when(remote.get(1L)).thenReturn(new SimpleValueWrapper(new StampedValue("Hammer", System.currentTimeMillis() - 1, 0)));
+
+        assertEquals("Hammer", cache.get(1L, loader));
+        refreshes.forEach(Runnable::run);
+
+        verify(loader, times(1)).call();
+        verify(remote).put(eq(1L), any(StampedValue.class));
+        assertEquals("Drill", cache.getLocalCache().getIfPresent("1").get());
+        verify(invalidationPublisher).publish("categories", "1");
+        assertEquals(1.0, meterRegistry.get("cache.refresh").tag("trigger", "stale").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void get_withLoader_loaderFails_throwValueRetrievalException() throws Exception {
+        Callable<String> loader = mock(Callable.class);
+        when(loader.call()).thenThrow(new IllegalStateException("boom"));
+        when(remote.get(1L)).thenReturn(null);
+
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(1L, loader));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertNull(cache.getLocalCache().getIfPresent("1"));
+    }
+
+    @Test
+    public void put_writeBothLevelsAndPublishKey() {
+        cache.put(1L, "Hammer");
+
+        verify(remote).put(eq(1L), argThat(value -> value instanceof StampedValue stamped && "Hammer".equals(stamped.value())));
+        assertEquals("Hammer", cache.get(1L).get());
+        verify(remote, never()).get(1L);
+        verify(invalidationPublisher).publish("categories", "1");
+    }
+
+    @Test
+    public void evict_evictBothLevelsAndPublishKey() {
+        cache.put(1L, "Hammer");
+
+        cache.evict(1L);
+
+        verify(remote).evict(1L);
+        assertNull(cache.getLocalCache().getIfPresent("1"));
+        verify(invalidationPublisher, times(2)).publish("categories", "1");
+    }
+
+    @Test
+    public void clear_clearBothLevelsAndPublishCache() {
+        cache.put(1L, "Hammer");
+
+        cache.clear();
+
+        verify(remote).clear();
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+        verify(invalidationPublisher).publish("categories", null);
+    }
+
+    @Test
+    public void evictLocal_keepRemoteUntouched() {
+        cache.put(1L, "Hammer");
+        cache.put(2L, "Drill");
+
+        cache.evictLocal("1");
+        assertNull(cache.getLocalCache().getIfPresent("1"));
+        assertNotNull(cache.getLocalCache().getIfPresent("2"));
+
+        cache.evictLocal(null);
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+        verify(remote, never()).evict(any());
+        verify(remote, never()).clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Callable<String> countingLoader(String value) throws Exception {
+        Callable<String> loader = mock(Callable.class);
+        lenient().when(loader.call()).thenReturn(value);
+        return loader;
+    }
+}
@@ -15,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,4 +66,27 @@ class DealMapperTest {
         assertNotNull(result.getEndDate());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void toDtos_mapsToolsInOneBatch() {
+        Tool firstTool = Tool.builder().id(1L).build();
+        Tool secondTool = Tool.builder().id(2L).build();
+        Deal firstDeal = Deal.builder().id(1L).tool(firstTool).status(Status.PENDING).build();
+        Deal secondDeal = Deal.builder().id(2L).tool(secondTool).status(Status.APPROVED).build();
+
+        when(toolMapper.toDtos(List.of(firstTool, secondTool))).thenReturn(List.of(
+                ToolDto.builder().id(1L).build(),
+                ToolDto.builder().id(2L).build()
+        ));
+
+        List<DealDto> result = dealMapper.toDtos(List.of(firstDeal, secondDeal));
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(1L, result.get(0).getTool().getId());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals(2L, result.get(1).getTool().getId());
+
+        verify(toolMapper, never()).toDto(any(Tool.class));
+    }
+
+}
@@ -3,6 +3,8 @@ package com.example.demo.deal;
 import com.example.demo.exception.DealNotFoundException;
 import com.example.demo.exception.ToolNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.tool.Tool;
 import com.example.demo.tool.ToolDto;
 import com.example.demo.tool.ToolRepository;
@@ -23,6 +25,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -210,10 +213,9 @@ class DealServiceImplTest {
 
     @Test
     public void findRequestSentToMe_returnTwoDealRequests() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findByOwner(owner, mockPageable)).thenReturn(mockPage);
-        when(dealMapper.toDto(firstDeal)).thenReturn(firstDealDto);
-        when(dealMapper.toDto(secondDeal)).thenReturn(secondDealDto);
+        when(dealMapper.toDtos(List.of(firstDeal, secondDeal))).thenReturn(List.of(firstDealDto, secondDealDto));
 
         Page<DealDto> result = rentalService.findRequestsSentToMe(mockPageable);
 
@@ -222,18 +224,44 @@ class DealServiceImplTest {
         assertEquals(firstDealDto, result.getContent().get(0));
         assertEquals(secondDealDto, result.getContent().get(1));
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
         verify(dealRepository, times(1)).findByOwner(owner, mockPageable);
-        verify(dealMapper, times(1)).toDto(firstDeal);
-        verify(dealMapper, times(1)).toDto(secondDeal);
+        verify(dealMapper, times(1)).toDtos(List.of(firstDeal, secondDeal));
+    }
+
+    @Test
+    public void findRequestsSentToMeAfter_withoutCursor_returnFirstSliceAndNextCursor() {
+        when(userService.getCurrentUserReference()).thenReturn(owner);
+        when(dealRepository.findFirstSliceByOwner(owner, PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstDeal, secondDeal), PageRequest.ofSize(2), true));
+        when(dealMapper.toDtos(List.of(firstDeal, secondDeal))).thenReturn(List.of(firstDealDto, secondDealDto));
+
+        CursorPage<DealDto> result = rentalService.findRequestsSentToMeAfter(null, 2);
+
+        assertEquals(List.of(firstDealDto, secondDealDto), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(secondDeal.getId(), KeysetCursor.decode(result.getNextCursor()).getId());
+        verify(dealRepository, never()).findByOwner(any(), any());
+    }
+
+    @Test
+    public void findRequestsSentToMeByStatusAfter_withCursor_seekAfterCursor() {
+        String cursor = KeysetCursor.builder().id(5L).build().encode();
+        when(userService.getCurrentUserReference()).thenReturn(owner);
+        when(dealRepository.findSliceByOwnerAndStatusAfter(owner, Status.PENDING, 5L, PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstDeal), PageRequest.ofSize(2), false));
+        when(dealMapper.toDtos(List.of(firstDeal))).thenReturn(List.of(firstDealDto));
+
+        CursorPage<DealDto> result = rentalService.findRequestsSentToMeByStatusAfter(Status.PENDING, cursor, 2);
+
+        assertEquals(List.of(firstDealDto), result.getContent());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     public void findRequestSentToMeByStatus_returnTwoDealRequests() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findByOwnerAndStatus(owner, Status.PENDING, mockPageable)).thenReturn(mockPage);
-        when(dealMapper.toDto(firstDeal)).thenReturn(firstDealDto);
-        when(dealMapper.toDto(secondDeal)).thenReturn(secondDealDto);
+        when(dealMapper.toDtos(List.of(firstDeal, secondDeal))).thenReturn(List.of(firstDealDto, secondDealDto));
 
         Page<DealDto> result = rentalService.findRequestsSentToMeByStatus(Status.PENDING, mockPageable);
 
@@ -242,35 +270,36 @@ class DealServiceImplTest {
         assertEquals(firstDealDto, result.getContent().get(0));
         assertEquals(secondDealDto, result.getContent().get(1));
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
         verify(dealRepository, times(1)).findByOwnerAndStatus(owner, Status.PENDING, mockPageable);
-        verify(dealMapper, times(1)).toDto(firstDeal);
-        verify(dealMapper, times(1)).toDto(secondDeal);
+        verify(dealMapper, times(1)).toDtos(List.of(firstDeal, secondDeal));
     }
 
     @Test
     public void confirm_successfullyConfirmDealRequest() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.of(firstDeal));
 
         rentalService.confirm(1L);
 
         assertEquals(Status.APPROVED, firstDeal.getStatus());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, times(1)).save(firstDeal);
     }
 
     @Test
     public void confirm_dealNotFound_throwExc() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.empty());
 
         DealNotFoundException dealNotFoundException = assertThrows(DealNotFoundException.class, () -> rentalService.confirm(1L));
         assertEquals("Deal with id: 1 not found", dealNotFoundException.getMessage());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, never()).save(any(Deal.class));
     }
@@ -278,41 +307,44 @@ class DealServiceImplTest {
     @Test
     public void confirm_userDoesNotHaveRights_throwExc() {
         User owner = User.builder().id(3L).build();
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.of(firstDeal));
 
         UserDontHavePermissionException userDontHavePermissionException = assertThrows(UserDontHavePermissionException.class, () -> rentalService.confirm(1L));
         assertEquals("User with id: %d cannot modify deal with id: %d".formatted(owner.getId(), firstDeal.getId()),
                 userDontHavePermissionException.getMessage());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, never()).save(any(Deal.class));
     }
 
     @Test
     public void cancel_successfullyCancelDealRequest() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.of(firstDeal));
 
         rentalService.cancel(1L);
 
         assertEquals(Status.REJECTED, firstDeal.getStatus());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, times(1)).save(firstDeal);
     }
 
     @Test
     public void cancel_dealNotFound_throwExc() {
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.empty());
 
         DealNotFoundException dealNotFoundException = assertThrows(DealNotFoundException.class, () -> rentalService.cancel(1L));
         assertEquals("Deal with id: 1 not found", dealNotFoundException.getMessage());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, never()).save(any(Deal.class));
     }
@@ -320,14 +352,15 @@ class DealServiceImplTest {
     @Test
     public void cancel_userDoesNotHaveRights_throwExc() {
         User owner = User.builder().id(3L).build();
-        when(userService.getCurrentUser()).thenReturn(owner);
+        when(userService.getCurrentUserReference()).thenReturn(owner);
         when(dealRepository.findById(1L)).thenReturn(Optional.of(firstDeal));
 
         UserDontHavePermissionException userDontHavePermissionException = assertThrows(UserDontHavePermissionException.class, () -> rentalService.cancel(1L));
         assertEquals("User with id: %d cannot modify deal with id: %d".formatted(owner.getId(), firstDeal.getId()),
                 userDontHavePermissionException.getMessage());
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(dealRepository, times(1)).findById(1L);
         verify(dealRepository, never()).save(any(Deal.class));
     }
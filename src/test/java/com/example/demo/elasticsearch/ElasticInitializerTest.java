@@ -46,7 +46,9 @@ class ElasticInitializerTest {
         verify(elasticsearchIndicesClient, times(1)).create(argumentCaptor.capture());
 
         CreateIndexRequest createIndexRequest = argumentCaptor.getValue();
-        assertEquals("toolsindex", createIndexRequest.index());
+        assertTrue(createIndexRequest.index().matches("toolsindex_\\d{17}"));
+        assertTrue(createIndexRequest.aliases().containsKey("toolsindex"));
+        assertNotNull(createIndexRequest.mappings());
     }
 
     @Test
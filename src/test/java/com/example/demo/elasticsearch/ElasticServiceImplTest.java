@@ -1,15 +1,30 @@
 package com.example.demo.elasticsearch;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.VersionType;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeRequest;
 import co.elastic.clients.elasticsearch.core.DeleteRequest;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
 import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.exception.InvalidPaginationException;
 import com.example.demo.tool.Tool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,11 +34,15 @@ import static org.mockito.Mockito.*;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +55,12 @@ class ElasticServiceImplTest {
     @Mock
     private ElasticsearchClient elasticsearchClient;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ElasticServiceImpl elasticService;
 
@@ -67,6 +92,7 @@ class ElasticServiceImplTest {
         assertEquals("toolsindex", indexRequest.index());
         assertEquals("1", indexRequest.id());
         assertEquals(toolDocument, indexRequest.document());
+        assertEquals(1, meterRegistry.get("elasticsearch.requests").tags("operation", "index", "outcome", "success").timer().count());
     }
 
     @Test
@@ -76,6 +102,7 @@ class ElasticServiceImplTest {
 
         ElasticsearchException elasticsearchException = assertThrows(ElasticsearchException.class, () -> elasticService.save(toolDocument));
         assertEquals("Elastic search exception: IO Exception", elasticsearchException.getMessage());
+        assertEquals(1, meterRegistry.get("elasticsearch.requests").tags("operation", "index", "outcome", "error").timer().count());
     }
 
     @Test
@@ -89,13 +116,16 @@ class ElasticServiceImplTest {
                 .hits(hits)
                 .build());
         when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
 
-        List<Long> result = elasticService.search("description", 1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"));
+        List<Long> result = elasticService.search("description", 1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"), PageRequest.of(0, 10)).getIds();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(1L, result.get(0));
         assertEquals(2L, result.get(1));
+        assertEquals(1, meterRegistry.get("elasticsearch.requests").tags("operation", "search", "outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("elasticsearch.search.hits").tag("pagination", "offset").summary().totalAmount());
 
         verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), eq(Void.class));
     }
@@ -110,8 +140,9 @@ class ElasticServiceImplTest {
                 .hits(hits)
                 .build());
         when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
 
-        elasticService.search("description", 1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"));
+        elasticService.search("description", 1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"), PageRequest.of(0, 10));
 
         verify(elasticsearchClient, times(1)).search(searchRequestArgumentCaptor.capture(), eq(Void.class));
 
@@ -152,8 +183,9 @@ class ElasticServiceImplTest {
                 .hits(hits)
                 .build());
         when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
 
-        elasticService.search(null,1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"));
+        elasticService.search(null,1L, 1L, "EXCHANGE", "RENT", new BigDecimal("1000"), new BigDecimal("3000"), PageRequest.of(0, 10));
 
         verify(elasticsearchClient, times(1)).search(searchRequestArgumentCaptor.capture(), eq(Void.class));
 
@@ -172,11 +204,113 @@ class ElasticServiceImplTest {
     public void search_ifFailed_throwExc() throws IOException {
         when(elasticsearchClient.search(any(SearchRequest.class), eq(Void.class))).thenThrow(new IOException("IO Exception"));
         when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
 
-        ElasticsearchException elasticsearchException = assertThrows(ElasticsearchException.class, () -> elasticService.search("description", 1L, 1L, "EXCHANGE", "NEW", new BigDecimal("1000"), new BigDecimal("3000")));
+        ElasticsearchException elasticsearchException = assertThrows(ElasticsearchException.class, () -> elasticService.search("description", 1L, 1L, "EXCHANGE", "NEW", new BigDecimal("1000"), new BigDecimal("3000"), PageRequest.of(0, 10)));
         assertEquals("Elastic search exception: IO Exception", elasticsearchException.getMessage());
     }
 
+    @Test
+    public void search_passPaginationToRequest() throws IOException {
+        ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        SearchResponse<Void> searchResponse = mock(SearchResponse.class);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Void.class))).thenReturn(searchResponse);
+        when(searchResponse.hits()).thenReturn(new HitsMetadata.Builder<Void>()
+                .hits(List.of())
+                .total(t -> t.value(25).relation(TotalHitsRelation.Eq))
+                .build());
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
+
+        ToolSearchHits result = elasticService.search(null, null, null, null, null, null, null, PageRequest.of(2, 10));
+
+        verify(elasticsearchClient, times(1)).search(searchRequestArgumentCaptor.capture(), eq(Void.class));
+        SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
+        assertEquals(20, searchRequest.from());
+        assertEquals(10, searchRequest.size());
+        assertEquals(25L, result.getTotal());
+    }
+
+    @Test
+    public void search_pageBeyondResultWindow_throwExc() {
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getMaxResultWindow()).thenReturn(10000);
+
+        InvalidPaginationException invalidPaginationException = assertThrows(InvalidPaginationException.class, () -> elasticService.search(null, null, null, null, null, null, null, PageRequest.of(1000, 10)));
+        assertEquals("Page is too deep for offset pagination, max result window is: 10000. Use cursor search instead", invalidPaginationException.getMessage());
+
+        verifyNoInteractions(elasticsearchClient);
+    }
+
+    @Test
+    public void searchAfter_firstPage_opensPitAndReturnsCursor() throws IOException {
+        ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        OpenPointInTimeResponse openPointInTimeResponse = mock(OpenPointInTimeResponse.class);
+        SearchResponse<Void> searchResponse = mock(SearchResponse.class);
+        Hit<Void> hit1 = new Hit.Builder<Void>().id("1").index("toolsindex").sort(FieldValue.of(2.5), FieldValue.of(10L)).build();
+        Hit<Void> hit2 = new Hit.Builder<Void>().id("2").index("toolsindex").sort(FieldValue.of(1.5), FieldValue.of(11L)).build();
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getPitKeepAlive()).thenReturn("1m");
+        when(openPointInTimeResponse.id()).thenReturn("pit-id");
+        when(elasticsearchClient.openPointInTime(any(OpenPointInTimeRequest.class))).thenReturn(openPointInTimeResponse);
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Void.class))).thenReturn(searchResponse);
+        when(searchResponse.pitId()).thenReturn("pit-id-2");
+        when(searchResponse.hits()).thenReturn(new HitsMetadata.Builder<Void>()
+                .hits(List.of(hit1, hit2))
+                .build());
+
+        ToolSearchHits result = elasticService.searchAfter(null, null, null, null, null, null, null, null, 2);
+
+        verify(elasticsearchClient, times(1)).search(searchRequestArgumentCaptor.capture(), eq(Void.class));
+        SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
+        assertEquals("pit-id", searchRequest.pit().id());
+        assertTrue(searchRequest.searchAfter().isEmpty());
+        assertEquals(List.of(1L, 2L), result.getIds());
+
+        SearchCursor searchCursor = objectMapper.readValue(Base64.getUrlDecoder().decode(result.getNextCursor()), SearchCursor.class);
+        assertEquals("pit-id-2", searchCursor.getPitId());
+        assertEquals(1.5, ((Number) searchCursor.getSort().get(0)).doubleValue());
+        assertEquals(11L, ((Number) searchCursor.getSort().get(1)).longValue());
+    }
+
+    @Test
+    public void searchAfter_lastPage_closesPitAndReturnsNoCursor() throws IOException {
+        ArgumentCaptor<SearchRequest> searchRequestArgumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        SearchResponse<Void> searchResponse = mock(SearchResponse.class);
+        Hit<Void> hit = new Hit.Builder<Void>().id("3").index("toolsindex").sort(FieldValue.of(1.0), FieldValue.of(12L)).build();
+        String cursor = Base64.getUrlEncoder().encodeToString(objectMapper.writeValueAsBytes(SearchCursor.builder()
+                .pitId("pit-id")
+                .sort(List.of(1.5, 11L))
+                .build()));
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticProperties.getPitKeepAlive()).thenReturn("1m");
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Void.class))).thenReturn(searchResponse);
+        when(searchResponse.pitId()).thenReturn("pit-id");
+        when(searchResponse.hits()).thenReturn(new HitsMetadata.Builder<Void>()
+                .hits(List.of(hit))
+                .build());
+
+        ToolSearchHits result = elasticService.searchAfter(null, null, null, null, null, null, null, cursor, 2);
+
+        verify(elasticsearchClient, never()).openPointInTime(any(OpenPointInTimeRequest.class));
+        verify(elasticsearchClient, times(1)).search(searchRequestArgumentCaptor.capture(), eq(Void.class));
+        verify(elasticsearchClient, times(1)).closePointInTime(any(ClosePointInTimeRequest.class));
+        SearchRequest searchRequest = searchRequestArgumentCaptor.getValue();
+        assertEquals(1.5, searchRequest.searchAfter().get(0).doubleValue());
+        assertEquals(11L, searchRequest.searchAfter().get(1).longValue());
+        assertEquals(List.of(3L), result.getIds());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void searchAfter_malformedCursor_throwExc() {
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+
+        assertThrows(InvalidPaginationException.class, () -> elasticService.searchAfter(null, null, null, null, null, null, null, "not-a-cursor", 2));
+
+        verifyNoInteractions(elasticsearchClient);
+    }
+
     @Test
     public void delete_deletesDocument() throws IOException {
         ArgumentCaptor<DeleteRequest> argumentCaptor = ArgumentCaptor.forClass(DeleteRequest.class);
@@ -200,4 +334,123 @@ class ElasticServiceImplTest {
         assertEquals("Elastic search exception: IO Exception", elasticsearchException.getMessage());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void bulk_sendsIndexAndDeleteOperations() throws IOException {
+        ArgumentCaptor<BulkRequest> argumentCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b
+                .errors(false)
+                .took(1)
+                .items(List.of())));
+
+        ToolBulkResult result = elasticService.bulk(List.of(
+                ToolIndexOperation.builder().toolId(1L).document(toolDocument).build(),
+                ToolIndexOperation.builder().toolId(2L).build()));
+
+        assertTrue(result.getRetryable().isEmpty());
+        assertTrue(result.getRejected().isEmpty());
+        verify(elasticsearchClient, times(1)).bulk(argumentCaptor.capture());
+
+        BulkRequest bulkRequest = argumentCaptor.getValue();
+        assertEquals("toolsindex", bulkRequest.index());
+        assertEquals(2, bulkRequest.operations().size());
+        assertTrue(bulkRequest.operations().get(0).isIndex());
+        assertEquals("1", bulkRequest.operations().get(0).index().id());
+        assertEquals(toolDocument, bulkRequest.operations().get(0).index().document());
+        assertTrue(bulkRequest.operations().get(1).isDelete());
+        assertEquals("2", bulkRequest.operations().get(1).delete().id());
+    }
+
+    @Test
+    public void bulkIntoAlias_requireAlias() throws IOException {
+        ArgumentCaptor<BulkRequest> argumentCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b
+                .errors(false)
+                .took(1)
+                .items(List.of())));
+
+        elasticService.bulkIntoAlias("toolsindex_reindex", List.of(ToolIndexOperation.builder().toolId(1L).document(toolDocument).build()));
+
+        verify(elasticsearchClient, times(1)).bulk(argumentCaptor.capture());
+        assertEquals("toolsindex_reindex", argumentCaptor.getValue().index());
+        assertTrue(argumentCaptor.getValue().requireAlias());
+    }
+
+    @Test
+    public void bulk_splitRetryableAndRejectedFailures() throws IOException {
+        ToolIndexOperation indexed = ToolIndexOperation.builder().toolId(1L).document(toolDocument).build();
+        ToolIndexOperation rejected = ToolIndexOperation.builder().toolId(2L).document(toolDocument).build();
+        ToolIndexOperation invalid = ToolIndexOperation.builder().toolId(3L).document(toolDocument).build();
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b
+                .errors(true)
+                .took(1)
+                .items(List.of(
+                        BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("toolsindex").id("1").status(201)),
+                        BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("toolsindex").id("2").status(429)
+                                .error(ErrorCause.of(e -> e.type("es_rejected_execution_exception").reason("Queue is full")))),
+                        BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("toolsindex").id("3").status(400)
+                                .error(ErrorCause.of(e -> e.type("mapper_parsing_exception").reason("Failed to parse"))))))));
+
+        ToolBulkResult result = elasticService.bulk(List.of(indexed, rejected, invalid));
+
+        assertEquals(List.of(rejected), result.getRetryable());
+        assertEquals(Map.of(3L, "400: Failed to parse"), result.getRejected());
+    }
+
+    @Test
+    public void bulk_versionedOperations_useExternalVersionAndSkipConflicts() throws IOException {
+        ArgumentCaptor<BulkRequest> argumentCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b
+                .errors(true)
+                .took(1)
+                .items(List.of(
+                        BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("toolsindex").id("1").status(409)
+                                .error(ErrorCause.of(e -> e.type("version_conflict_engine_exception").reason("Current version is higher")))),
+                        BulkResponseItem.of(i -> i.operationType(OperationType.Delete).index("toolsindex").id("2").status(200))))));
+
+        ToolBulkResult result = elasticService.bulk(List.of(
+                ToolIndexOperation.builder().toolId(1L).document(toolDocument).version(100L).build(),
+                ToolIndexOperation.builder().toolId(2L).version(200L).build()));
+
+        assertTrue(result.getRetryable().isEmpty());
+        assertTrue(result.getRejected().isEmpty());
+        verify(elasticsearchClient, times(1)).bulk(argumentCaptor.capture());
+
+        BulkRequest bulkRequest = argumentCaptor.getValue();
+        assertEquals(100L, bulkRequest.operations().get(0).index().version());
+        assertEquals(VersionType.External, bulkRequest.operations().get(0).index().versionType());
+        assertEquals(200L, bulkRequest.operations().get(1).delete().version());
+        assertEquals(VersionType.External, bulkRequest.operations().get(1).delete().versionType());
+    }
+
+    @Test
+    public void bulk_intoConcreteIndex_sendToThatIndex() throws IOException {
+        ArgumentCaptor<BulkRequest> argumentCaptor = ArgumentCaptor.forClass(BulkRequest.class);
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(b -> b
+                .errors(false)
+                .took(1)
+                .items(List.of())));
+
+        ToolBulkResult result = elasticService.bulk("toolsindex_20250101120000000", List.of(
+                ToolIndexOperation.builder().toolId(1L).document(toolDocument).version(100L).build()));
+
+        assertTrue(result.getRetryable().isEmpty());
+        assertTrue(result.getRejected().isEmpty());
+        verify(elasticsearchClient, times(1)).bulk(argumentCaptor.capture());
+        assertEquals("toolsindex_20250101120000000", argumentCaptor.getValue().index());
+        verify(elasticProperties, never()).getIndex();
+    }
+
+    @Test
+    public void bulk_ifFailed_throwExc() throws IOException {
+        when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenThrow(new IOException("IO Exception"));
+
+        List<ToolIndexOperation> operations = List.of(ToolIndexOperation.builder().toolId(1L).build());
+        ElasticsearchException elasticsearchException = assertThrows(ElasticsearchException.class, () -> elasticService.bulk(operations));
+        assertEquals("Elastic search exception: IO Exception", elasticsearchException.getMessage());
+    }
+
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.testcontainers.shaded.org.awaitility.Awaitility;
 
 import java.io.IOException;
@@ -76,7 +77,7 @@ public class ElasticsearchIT extends BaseIT {
         Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
                 elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 1);
 
-        List<Long> result = elasticService.search("High drill", 100L, 200L, "EXCHANGE", "NEW", BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+        List<Long> result = elasticService.search("High drill", 100L, 200L, "EXCHANGE", "NEW", BigDecimal.valueOf(100), BigDecimal.valueOf(200), PageRequest.of(0, 10)).getIds();
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(toolDocument.getId(), result.get(0));
@@ -98,7 +99,7 @@ public class ElasticsearchIT extends BaseIT {
         Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
                 elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 2);
 
-        List<Long> result = elasticService.search(null, null, null, null, null, null, null);
+        List<Long> result = elasticService.search(null, null, null, null, null, null, null, PageRequest.of(0, 10)).getIds();
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(toolDocument.getId(), result.get(0));
@@ -121,12 +122,59 @@ public class ElasticsearchIT extends BaseIT {
         Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
                 elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 2);
 
-        List<Long> result = elasticService.search(null, null, null, null, null, BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+        List<Long> result = elasticService.search(null, null, null, null, null, BigDecimal.valueOf(100), BigDecimal.valueOf(200), PageRequest.of(0, 10)).getIds();
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(toolDocument.getId(), result.get(0));
     }
 
+    @Test
+    public void search_secondPage_returnTotalAndPageContent() {
+        for (long i = 1; i <= 3; i++) {
+            elasticService.save(ToolDocument.builder()
+                    .id(i)
+                    .description("Drill " + i)
+                    .manufacturer(100L)
+                    .category(200L)
+                    .type("RENT")
+                    .condition("NEW")
+                    .price(BigDecimal.valueOf(100))
+                    .build());
+        }
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 3);
+
+        ToolSearchHits result = elasticService.search(null, null, null, null, null, null, null, PageRequest.of(1, 2));
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getIds().size());
+    }
+
+    @Test
+    public void searchAfter_walksAllPagesWithCursor() {
+        for (long i = 1; i <= 3; i++) {
+            elasticService.save(ToolDocument.builder()
+                    .id(i)
+                    .description("Drill " + i)
+                    .manufacturer(100L)
+                    .category(200L)
+                    .type("RENT")
+                    .condition("NEW")
+                    .price(BigDecimal.valueOf(100))
+                    .build());
+        }
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 3);
+
+        ToolSearchHits firstPage = elasticService.searchAfter(null, null, null, null, null, null, null, null, 2);
+        assertEquals(2, firstPage.getIds().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        ToolSearchHits secondPage = elasticService.searchAfter(null, null, null, null, null, null, null, firstPage.getNextCursor(), 2);
+        assertEquals(1, secondPage.getIds().size());
+        assertNull(secondPage.getNextCursor());
+        assertTrue(secondPage.getIds().stream().noneMatch(firstPage.getIds()::contains));
+    }
+
     private boolean isDocumentExistsInElastic(Long toolID) {
         GetResponse<ToolDocument> getResponse = null;
         try {
@@ -145,7 +193,13 @@ public class ElasticsearchIT extends BaseIT {
         String index = elasticProperties.getIndex();
 
         try {
-            elasticsearchClient.indices().delete(d -> d.index(index));
+            List<String> indices = List.copyOf(elasticsearchClient.indices().get(g -> g
+                    .index(index)
+                    .ignoreUnavailable(true)
+                    .allowNoIndices(true)).result().keySet());
+            if (!indices.isEmpty()) {
+                elasticsearchClient.indices().delete(d -> d.index(indices));
+            }
         } catch (IOException e) {
             throw new ElasticsearchException("Delete index failed:" + e.getMessage(), e);
         }
@@ -0,0 +1,72 @@
+package com.example.demo.elasticsearch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ReindexControllerTest {
+
+    @Mock
+    private ToolReindexer toolReindexer;
+
+    @InjectMocks
+    private ReindexController reindexController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders.standaloneSetup(reindexController).build();
+    }
+
+    @Test
+    public void start_returnAcceptedWithStatus() throws Exception {
+        when(toolReindexer.start()).thenReturn(ReindexStatus.builder()
+                .running(true)
+                .index("toolsindex_20250101120000000")
+                .total(100)
+                .build());
+
+        mockMvc.perform(post("/api/v1/admin/reindex")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(true))
+                .andExpect(jsonPath("$.index").value("toolsindex_20250101120000000"))
+                .andExpect(jsonPath("$.total").value(100));
+
+        verify(toolReindexer, times(1)).start();
+    }
+
+    @Test
+    public void getStatus_returnProgress() throws Exception {
+        when(toolReindexer.getStatus()).thenReturn(ReindexStatus.builder()
+                .running(false)
+                .index("toolsindex_20250101120000000")
+                .total(100)
+                .indexed(100)
+                .docsPerSecond(2500)
+                .build());
+
+        mockMvc.perform(get("/api/v1/admin/reindex")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(false))
+                .andExpect(jsonPath("$.indexed").value(100))
+                .andExpect(jsonPath("$.docsPerSecond").value(2500));
+
+        verify(toolReindexer, times(1)).getStatus();
+    }
+}
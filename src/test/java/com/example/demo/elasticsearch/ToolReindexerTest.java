@@ -0,0 +1,239 @@
+package com.example.demo.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetIndexRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndexResponse;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.exception.ReindexInProgressException;
+import com.example.demo.tool.Condition;
+import com.example.demo.tool.ToolIndexView;
+import com.example.demo.tool.ToolRepository;
+import com.example.demo.tool.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ToolReindexerTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient elasticsearchIndicesClient;
+
+    @Mock
+    private ElasticProperties elasticProperties;
+
+    @Mock
+    private ElasticInitializer elasticInitializer;
+
+    @Mock
+    private ElasticService elasticService;
+
+    @Mock
+    private ToolRepository toolRepository;
+
+    @Mock
+    private ToolDocumentMapper toolDocumentMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ExecutorService reindexExecutor = Executors.newFixedThreadPool(3);
+
+    @InjectMocks
+    private ToolReindexer toolReindexer;
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(elasticsearchClient.indices()).thenReturn(elasticsearchIndicesClient);
+        lenient().when(elasticProperties.getIndex()).thenReturn("toolsindex");
+        lenient().when(elasticProperties.getBulkSize()).thenReturn(500);
+        lenient().when(elasticProperties.getReindexSlices()).thenReturn(2);
+    }
+
+    @Test
+    public void reindex_loadAllSlicesAndSwapAlias() throws IOException {
+        ToolIndexView first = view(1L);
+        ToolIndexView second = view(10L);
+        when(toolRepository.count()).thenReturn(2L);
+        when(toolRepository.findMinId()).thenReturn(1L);
+        when(toolRepository.findMaxId()).thenReturn(10L);
+        when(toolRepository.streamIndexViewsBetween(1L, 5L)).thenReturn(Stream.of(first));
+        when(toolRepository.streamIndexViewsBetween(6L, 10L)).thenReturn(Stream.of(second));
+        when(toolDocumentMapper.toDocument(any(ToolIndexView.class))).thenReturn(ToolDocument.builder().build());
+        when(elasticService.bulk(anyString(), anyList())).thenReturn(ToolBulkResult.empty());
+        stubSettings();
+        when(elasticsearchIndicesClient.get(anyFunction()))
+                .thenReturn(GetIndexResponse.of(r -> r.result(Map.of())))
+                .thenReturn(GetIndexResponse.of(r -> r.result(Map.of("toolsindex_old", IndexState.of(s -> s)))));
+
+        ReindexStatus status = toolReindexer.reindex();
+
+        assertFalse(status.isRunning());
+        assertEquals(2, status.getTotal());
+        assertEquals(2, status.getIndexed());
+        assertTrue(status.getIndex().startsWith("toolsindex_"));
+
+        verify(elasticInitializer, times(1)).createIndex(status.getIndex(), null);
+        verify(elasticService, times(2)).bulk(eq(status.getIndex()), anyList());
+        verify(elasticsearchIndicesClient, times(2)).putSettings(anyFunction());
+        verify(elasticsearchIndicesClient, times(1)).refresh(anyFunction());
+
+        ArgumentCaptor<Function<UpdateAliasesRequest.Builder, ObjectBuilder<UpdateAliasesRequest>>> argumentCaptor = ArgumentCaptor.forClass(Function.class);
+        verify(elasticsearchIndicesClient, times(2)).updateAliases(argumentCaptor.capture());
+        List<Action> shadowActions = argumentCaptor.getAllValues().get(0).apply(new UpdateAliasesRequest.Builder()).build().actions();
+        assertEquals(1, shadowActions.size());
+        assertEquals(status.getIndex(), shadowActions.get(0).add().index());
+        assertEquals("toolsindex_reindex", shadowActions.get(0).add().alias());
+        assertTrue(shadowActions.get(0).add().isWriteIndex());
+
+        List<Action> actions = argumentCaptor.getAllValues().get(1).apply(new UpdateAliasesRequest.Builder()).build().actions();
+        assertEquals(3, actions.size());
+        assertEquals("toolsindex_old", actions.get(0).removeIndex().index());
+        assertEquals(status.getIndex(), actions.get(1).add().index());
+        assertEquals("toolsindex", actions.get(1).add().alias());
+        assertEquals(status.getIndex(), actions.get(2).remove().index());
+        assertEquals("toolsindex_reindex", actions.get(2).remove().alias());
+    }
+
+    @Test
+    public void reindex_bulkFailed_deleteNewIndexAndKeepAlias() throws IOException {
+        when(toolRepository.count()).thenReturn(1L);
+        when(toolRepository.findMinId()).thenReturn(1L);
+        when(toolRepository.findMaxId()).thenReturn(1L);
+        when(toolRepository.streamIndexViewsBetween(1L, 1L)).thenReturn(Stream.of(view(1L)));
+        when(toolDocumentMapper.toDocument(any(ToolIndexView.class))).thenReturn(ToolDocument.builder().build());
+        when(elasticService.bulk(anyString(), anyList())).thenThrow(new ElasticsearchException("Elastic search exception: IO Exception"));
+        stubSettings();
+        when(elasticsearchIndicesClient.get(anyFunction()))
+                .thenReturn(GetIndexResponse.of(r -> r.result(Map.of("toolsindex_stale", IndexState.of(s -> s)))));
+
+        ElasticsearchException elasticsearchException = assertThrows(ElasticsearchException.class, () -> toolReindexer.reindex());
+        assertEquals("Elastic search exception: IO Exception", elasticsearchException.getMessage());
+
+        verify(elasticsearchIndicesClient, times(1)).delete(anyFunction());
+        ArgumentCaptor<Function<UpdateAliasesRequest.Builder, ObjectBuilder<UpdateAliasesRequest>>> argumentCaptor = ArgumentCaptor.forClass(Function.class);
+        verify(elasticsearchIndicesClient, times(1)).updateAliases(argumentCaptor.capture());
+        List<Action> actions = argumentCaptor.getValue().apply(new UpdateAliasesRequest.Builder()).build().actions();
+        assertEquals(2, actions.size());
+        assertEquals("toolsindex_stale", actions.get(0).remove().index());
+        assertEquals("toolsindex_reindex", actions.get(1).add().alias());
+        assertFalse(toolReindexer.getStatus().isRunning());
+    }
+
+    @Test
+    public void getShadowIndex_readAliasFromElasticsearch() throws IOException {
+        when(elasticsearchIndicesClient.existsAlias(anyFunction()))
+                .thenReturn(new BooleanResponse(true))
+                .thenReturn(new BooleanResponse(false));
+
+        assertEquals("toolsindex_reindex", toolReindexer.getShadowIndex());
+        assertNull(toolReindexer.getShadowIndex());
+    }
+
+    @Test
+    public void start_whileRunning_throwConflict() throws IOException {
+        CountDownLatch latch = new CountDownLatch(1);
+        when(toolRepository.count()).thenAnswer(invocation -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+
+        ReindexStatus status = toolReindexer.start();
+        assertTrue(status.isRunning());
+
+        assertThrows(ReindexInProgressException.class, () -> toolReindexer.start());
+        assertThrows(ReindexInProgressException.class, () -> toolReindexer.reindex());
+
+        latch.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !toolReindexer.getStatus().isRunning());
+    }
+
+    private void stubSettings() throws IOException {
+        when(elasticsearchIndicesClient.getSettings(anyFunction()))
+                .thenAnswer(invocation -> {
+                    Function<GetIndicesSettingsRequest.Builder, ObjectBuilder<GetIndicesSettingsRequest>> function = invocation.getArgument(0);
+                    String index = function.apply(new GetIndicesSettingsRequest.Builder()).build().index().get(0);
+                    return GetIndicesSettingsResponse.of(r -> r.result(Map.of(index, IndexState.of(s -> s
+                            .settings(IndexSettings.of(i -> i.index(IndexSettings.of(n -> n.numberOfReplicas("1")))))))));
+                });
+    }
+
+    private ToolIndexView view(Long id) {
+        return new ToolIndexView() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getManufacturerId() {
+                return 1L;
+            }
+
+            public Long getCategoryId() {
+                return 1L;
+            }
+
+            public Type getToolType() {
+                return Type.RENT;
+            }
+
+            public Condition getToolCondition() {
+                return Condition.NEW;
+            }
+
+            public BigDecimal getPrice() {
+                return new BigDecimal("3000");
+            }
+
+            public String getDescription() {
+                return "Some description";
+            }
+
+            public LocalDateTime getUpdatedAt() {
+                return LocalDateTime.of(2025, 1, 1, 12, 0);
+            }
+        };
+    }
+
+    private static <B, R> Function<B, ObjectBuilder<R>> anyFunction() {
+        return any();
+    }
+}
@@ -1,9 +1,6 @@
 package com.example.demo.event;
 
 import com.example.demo.category.Category;
-import com.example.demo.elasticsearch.ElasticService;
-import com.example.demo.elasticsearch.ToolDocument;
-import com.example.demo.elasticsearch.ToolDocumentMapper;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.tool.Condition;
 import com.example.demo.tool.Tool;
@@ -11,6 +8,7 @@ import com.example.demo.tool.Type;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
@@ -26,18 +24,13 @@ import static org.junit.jupiter.api.Assertions.*;
 class ToolListenerEventTest {
 
     @Mock
-    private ElasticService elasticService;
-
-    @Mock
-    private ToolDocumentMapper toolDocumentMapper;
+    private ToolOutboxRepository toolOutboxRepository;
 
     @InjectMocks
     private ToolListenerEvent toolListenerEvent;
 
     private Tool tool;
 
-    private ToolDocument toolDocument;
-
     @BeforeEach
     public void setup() {
         tool = Tool.builder()
@@ -49,49 +42,45 @@ class ToolListenerEventTest {
                 .price(new BigDecimal("3000"))
                 .description("Some description")
                 .build();
-        toolDocument = ToolDocument.builder()
-                .id(1L)
-                .manufacturer(1L)
-                .category(1L)
-                .type(Type.RENT.name())
-                .condition(Condition.NEW.name())
-                .price(new BigDecimal("3000"))
-                .description("Some description")
-                .build();
     }
 
     @Test
     public void handleToolCreated_handlesToolCreated() {
-        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        ArgumentCaptor<ToolOutbox> argumentCaptor = ArgumentCaptor.forClass(ToolOutbox.class);
 
         toolListenerEvent.handleToolCreated(ToolCreatedEvent.builder()
                 .createdTool(tool)
                 .build());
 
-        verify(toolDocumentMapper, times(1)).toDocument(tool);
-        verify(elasticService, times(1)).save(toolDocument);
+        verify(toolOutboxRepository, times(1)).save(argumentCaptor.capture());
+        assertEquals(1L, argumentCaptor.getValue().getToolId());
+        assertEquals(OutboxOperation.INDEX, argumentCaptor.getValue().getOperation());
     }
 
     @Test
     public void handleToolUpdated_handlesToolUpdated() {
-        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        ArgumentCaptor<ToolOutbox> argumentCaptor = ArgumentCaptor.forClass(ToolOutbox.class);
 
         toolListenerEvent.handleToolUpdated(ToolUpdatedEvent.builder()
                 .updatedTool(tool)
                 .build());
 
-        verify(toolDocumentMapper, times(1)).toDocument(tool);
-        verify(elasticService, times(1)).save(toolDocument);
+        verify(toolOutboxRepository, times(1)).save(argumentCaptor.capture());
+        assertEquals(1L, argumentCaptor.getValue().getToolId());
+        assertEquals(OutboxOperation.INDEX, argumentCaptor.getValue().getOperation());
     }
 
     @Test
     public void handleToolDeleted_handlesToolDeleted() {
+        ArgumentCaptor<ToolOutbox> argumentCaptor = ArgumentCaptor.forClass(ToolOutbox.class);
 
         toolListenerEvent.handleToolDeleted(ToolDeletedEvent.builder()
                 .toolId(1L)
                 .build());
 
-        verify(elasticService, times(1)).delete(1L);
+        verify(toolOutboxRepository, times(1)).save(argumentCaptor.capture());
+        assertEquals(1L, argumentCaptor.getValue().getToolId());
+        assertEquals(OutboxOperation.DELETE, argumentCaptor.getValue().getOperation());
     }
 
-}
\ No newline at end of file
+}
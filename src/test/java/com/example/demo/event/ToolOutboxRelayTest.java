@@ -0,0 +1,226 @@
+package com.example.demo.event;
+
+import com.example.demo.elasticsearch.ElasticProperties;
+import com.example.demo.elasticsearch.ElasticService;
+import com.example.demo.elasticsearch.ToolBulkResult;
+import com.example.demo.elasticsearch.ToolDocument;
+import com.example.demo.elasticsearch.ToolDocumentMapper;
+import com.example.demo.elasticsearch.ToolIndexOperation;
+import com.example.demo.elasticsearch.ToolReindexer;
+import com.example.demo.exception.ElasticsearchException;
+import com.example.demo.tool.Tool;
+import com.example.demo.tool.ToolRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ToolOutboxRelayTest {
+
+    @Mock
+    private ToolOutboxRepository toolOutboxRepository;
+
+    @Mock
+    private ToolRepository toolRepository;
+
+    @Mock
+    private ToolDocumentMapper toolDocumentMapper;
+
+    @Mock
+    private ElasticService elasticService;
+
+    @Mock
+    private ElasticProperties elasticProperties;
+
+    @Mock
+    private ToolReindexer toolReindexer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ToolOutboxRelay toolOutboxRelay;
+
+    private Tool tool;
+
+    private ToolDocument toolDocument;
+
+    private List<ToolOutbox> events;
+
+    @BeforeEach
+    public void setup() {
+        toolOutboxRelay.registerMetrics();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        tool = Tool.builder()
+                .id(1L)
+                .updatedAt(LocalDateTime.of(1970, 1, 1, 0, 0, 1, 500_000))
+                .build();
+        toolDocument = ToolDocument.builder().id(1L).build();
+        events = List.of(
+                ToolOutbox.builder().id(10L).toolId(1L).operation(OutboxOperation.INDEX).createdAt(createdAt).build(),
+                ToolOutbox.builder().id(11L).toolId(1L).operation(OutboxOperation.INDEX).createdAt(createdAt).build(),
+                ToolOutbox.builder().id(12L).toolId(2L).operation(OutboxOperation.DELETE).createdAt(LocalDateTime.of(1970, 1, 1, 0, 0, 2)).build(),
+                ToolOutbox.builder().id(13L).toolId(3L).operation(OutboxOperation.INDEX).createdAt(createdAt).build());
+    }
+
+    @Test
+    public void relay_emptyOutbox_doNothing() {
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(List.of());
+
+        toolOutboxRelay.relay();
+
+        verifyNoInteractions(elasticService, toolRepository);
+        verify(toolOutboxRepository, never()).claim(anyList(), any());
+        verify(toolOutboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    public void relay_sendLatestChangePerToolWithVersion() {
+        ArgumentCaptor<List<ToolIndexOperation>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(events);
+        when(toolRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(elasticService.bulk(anyList())).thenReturn(ToolBulkResult.empty());
+
+        toolOutboxRelay.relay();
+
+        verify(elasticService, times(1)).bulk(argumentCaptor.capture());
+        List<ToolIndexOperation> operations = argumentCaptor.getValue();
+        assertEquals(2, operations.size());
+        assertEquals(1L, operations.get(0).getToolId());
+        assertEquals(toolDocument, operations.get(0).getDocument());
+        assertEquals(1_000_500L, operations.get(0).getVersion());
+        assertEquals(2L, operations.get(1).getToolId());
+        assertTrue(operations.get(1).isDelete());
+        assertEquals(2_000_000L, operations.get(1).getVersion());
+
+        verify(toolOutboxRepository, times(1)).claim(eq(List.of(10L, 11L, 12L, 13L)), any(LocalDateTime.class));
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(10L, 11L, 12L, 13L));
+        verify(toolOutboxRepository, never()).release(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(4, meterRegistry.timer("elasticsearch.outbox.lag").count());
+    }
+
+    @Test
+    public void relay_keepEventsOfRetryableFailures() {
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(events);
+        when(toolRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(elasticProperties.getBulkMaxRetries()).thenReturn(10);
+        when(elasticProperties.getBulkInitialBackoff()).thenReturn(200L);
+        when(elasticProperties.getBulkMaxBackoff()).thenReturn(300_000L);
+        when(elasticService.bulk(anyList())).thenReturn(ToolBulkResult.builder()
+                .retryable(List.of(ToolIndexOperation.builder().toolId(1L).document(toolDocument).build()))
+                .build());
+        when(toolOutboxRepository.count()).thenReturn(2L);
+
+        toolOutboxRelay.relay();
+
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(12L, 13L));
+        verify(toolOutboxRepository, times(1)).retryLater(eq(List.of(10L, 11L)), any(LocalDateTime.class), eq(200L), eq(300_000L));
+        verify(toolOutboxRepository, never()).release(anyList());
+        verify(toolOutboxRepository, never()).copyToDeadLetter(anyList(), anyString(), any());
+        assertEquals(2.0, meterRegistry.get("elasticsearch.outbox.size").gauge().value());
+    }
+
+    @Test
+    public void relay_retriesExhausted_moveToDeadLetter() {
+        List<ToolOutbox> retriedEvents = List.of(
+                ToolOutbox.builder().id(10L).toolId(1L).operation(OutboxOperation.INDEX).createdAt(LocalDateTime.of(2025, 1, 1, 12, 0)).attempts(10).build());
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(elasticProperties.getBulkMaxRetries()).thenReturn(10);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(retriedEvents);
+        when(toolRepository.findAllByIdIn(Set.of(1L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(elasticService.bulk(anyList())).thenReturn(ToolBulkResult.builder()
+                .retryable(List.of(ToolIndexOperation.builder().toolId(1L).document(toolDocument).build()))
+                .build());
+
+        toolOutboxRelay.relay();
+
+        verify(toolOutboxRepository, times(1)).copyToDeadLetter(eq(List.of(10L)), eq("Retryable failure after 10 retries"), any(LocalDateTime.class));
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(10L));
+        verify(toolOutboxRepository, never()).retryLater(anyList(), any(), anyLong(), anyLong());
+        assertEquals(1.0, meterRegistry.counter("elasticsearch.outbox.dead.letters").count());
+    }
+
+    @Test
+    public void relay_rejectedOperation_moveToDeadLetterInsteadOfDeleting() {
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(events);
+        when(toolRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(elasticService.bulk(anyList())).thenReturn(ToolBulkResult.builder()
+                .rejected(Map.of(1L, "400: Failed to parse"))
+                .build());
+
+        toolOutboxRelay.relay();
+
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(12L, 13L));
+        verify(toolOutboxRepository, times(1)).copyToDeadLetter(eq(List.of(10L, 11L)), eq("400: Failed to parse"), any(LocalDateTime.class));
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(10L, 11L));
+        assertEquals(2.0, meterRegistry.counter("elasticsearch.outbox.dead.letters").count());
+    }
+
+    @Test
+    public void relay_duringReindex_writeAlsoIntoShadowIndex() {
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(events);
+        when(toolRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(toolReindexer.getShadowIndex()).thenReturn("toolsindex_reindex");
+        when(elasticService.bulk(anyList())).thenReturn(ToolBulkResult.empty());
+        when(elasticProperties.getBulkMaxRetries()).thenReturn(10);
+        when(elasticService.bulkIntoAlias(eq("toolsindex_reindex"), anyList())).thenReturn(ToolBulkResult.builder()
+                .retryable(List.of(ToolIndexOperation.builder().toolId(1L).document(toolDocument).build()))
+                .build());
+
+        toolOutboxRelay.relay();
+
+        verify(elasticService, times(1)).bulk(anyList());
+        verify(elasticService, times(1)).bulkIntoAlias(eq("toolsindex_reindex"), anyList());
+        verify(toolOutboxRepository, times(1)).deleteAllByIdInBatch(List.of(12L, 13L));
+    }
+
+    @Test
+    public void relay_bulkFailed_keepOutboxAndPause() {
+        when(elasticProperties.getBulkSize()).thenReturn(500);
+        when(elasticProperties.getBulkInitialBackoff()).thenReturn(60_000L);
+        when(elasticProperties.getBulkMaxBackoff()).thenReturn(300_000L);
+        when(toolOutboxRepository.lockBatch(eq(500), any(LocalDateTime.class))).thenReturn(events);
+        when(toolRepository.findAllByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(tool));
+        when(toolDocumentMapper.toDocument(tool)).thenReturn(toolDocument);
+        when(elasticService.bulk(anyList())).thenThrow(new ElasticsearchException("Elastic search exception: IO Exception", null));
+
+        toolOutboxRelay.relay();
+        toolOutboxRelay.relay();
+
+        verify(elasticService, times(1)).bulk(anyList());
+        verify(toolOutboxRepository, times(1)).lockBatch(anyInt(), any());
+        verify(toolOutboxRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(toolOutboxRepository, times(1)).release(List.of(10L, 11L, 12L, 13L));
+        assertEquals(1.0, meterRegistry.counter("elasticsearch.outbox.failed").count());
+    }
+}
@@ -2,22 +2,36 @@ package com.example.demo.image;
 
 import com.example.demo.exception.FileUploadException;
 import com.example.demo.exception.FileValidationException;
+import com.example.demo.exception.MinIoException;
 import com.example.demo.minio.MinioProperties;
 import com.example.demo.minio.MinioService;
 import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,6 +48,15 @@ class ImageServiceImplTest {
     @Mock
     private MinioProperties minioProperties;
 
+    @Mock
+    private PhotoRepository photoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ExecutorService minioExecutor = Executors.newFixedThreadPool(4);
+
     @InjectMocks
     @Spy
     private ImageServiceImpl imageService;
@@ -48,21 +71,52 @@ class ImageServiceImplTest {
         secondFile = mock(MultipartFile.class);
     }
 
+    @AfterEach
+    public void shutdown() {
+        minioExecutor.shutdownNow();
+    }
+
     @Test
-    public void uploadAndGetFileName_uploadAndReturnFileName() throws IOException {
-        InputStream inputStream = new ByteArrayInputStream("dummy data".getBytes());
-        when(firstFile.getOriginalFilename()).thenReturn("test-file.jpg");
+    public void uploadAndGetFileName_uploadUnderContentHash() {
+        MultipartFile file = new MockMultipartFile("files", "test-file.JPG", "image/jpeg", "dummy data".getBytes());
+        String fileName = sha256("dummy data") + ".jpg";
         when(minioProperties.getBucket()).thenReturn("test-bucket");
-        doNothing().when(minioService).uploadFile(any(String.class), eq("test-bucket"), eq(inputStream));
-        when(firstFile.getInputStream()).thenReturn(inputStream);
+        when(minioService.exists(fileName, "test-bucket")).thenReturn(false);
 
-        String result = imageService.uploadAndGetFileName(firstFile);
+        String result = imageService.uploadAndGetFileName(file);
 
-        assertNotNull(result);
-        assertTrue(result.endsWith(".jpg"));
+        assertEquals(fileName, result);
+        verify(photoRepository, times(1)).acquire(fileName);
+        verify(minioService, times(1)).uploadFile(eq(fileName), eq("test-bucket"), any(InputStream.class), eq(10L));
+    }
+
+    @Test
+    public void uploadAndGetFileName_alreadyStored_skipUpload() {
+        MultipartFile file = new MockMultipartFile("files", "test-file.jpg", "image/jpeg", "dummy data".getBytes());
+        String fileName = sha256("dummy data") + ".jpg";
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.exists(fileName, "test-bucket")).thenReturn(true);
+
+        String result = imageService.uploadAndGetFileName(file);
+
+        assertEquals(fileName, result);
+        verify(photoRepository, times(1)).acquire(fileName);
+        verify(minioService, never()).uploadFile(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void uploadAndGetFileName_uploadFailed_releaseReferenceAndThrowExc() {
+        MultipartFile file = new MockMultipartFile("files", "test-file.jpg", "image/jpeg", "dummy data".getBytes());
+        String fileName = sha256("dummy data") + ".jpg";
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.exists(fileName, "test-bucket")).thenReturn(false);
+        doThrow(new FileUploadException("File upload exception: Upload failed", null)).when(minioService).uploadFile(eq(fileName), eq("test-bucket"), any(InputStream.class), eq(10L));
 
-        verify(minioService, times(1)).uploadFile(any(String.class), eq("test-bucket"), eq(inputStream));
-        verify(firstFile, times(1)).getInputStream();
+        FileUploadException fileUploadException = assertThrows(FileUploadException.class, () -> imageService.uploadAndGetFileName(file));
+        assertEquals("File upload exception: Upload failed", fileUploadException.getMessage());
+
+        verify(imageService, times(1)).deleteFiles(List.of(fileName));
+        verify(photoRepository, times(1)).release(fileName, 1L);
     }
 
     @Test
@@ -73,7 +127,8 @@ class ImageServiceImplTest {
         FileUploadException fileUploadException = assertThrows(FileUploadException.class, () -> imageService.uploadAndGetFileName(firstFile));
         assertEquals("File upload exception: Stream error", fileUploadException.getMessage());
 
-        verify(minioService, never()).uploadFile(any(), any(), any());
+        verifyNoInteractions(photoRepository);
+        verify(minioService, never()).uploadFile(any(), any(), any(), anyLong());
     }
 
     @Test
@@ -95,19 +150,21 @@ class ImageServiceImplTest {
     }
 
     @Test
-    public void generateFileName_returnFileNameWithExtension() {
-        String result = imageService.generateFileName("test-file.jpg");
-
-        assertNotNull(result);
-        assertTrue(result.endsWith(".jpg"));
+    public void generateFileName_sameContent_returnSameFileName() {
+        String first = imageService.generateFileName(new MockMultipartFile("files", "drill.jpg", "image/jpeg", "same photo".getBytes()));
+        String second = imageService.generateFileName(new MockMultipartFile("files", "another-drill.jpg", "image/jpeg", "same photo".getBytes()));
+        String third = imageService.generateFileName(new MockMultipartFile("files", "drill.jpg", "image/jpeg", "other photo".getBytes()));
+
+        assertEquals(sha256("same photo") + ".jpg", first);
+        assertEquals(first, second);
+        assertNotEquals(first, third);
     }
 
     @Test
     public void generateFileName_returnFileNameWithoutExtension() {
-        String result = imageService.generateFileName("test-file");
+        String result = imageService.generateFileName(new MockMultipartFile("files", "test-file", "image/jpeg", "dummy data".getBytes()));
 
-        assertNotNull(result);
-        assertTrue(result.endsWith(".unknown"));
+        assertEquals(sha256("dummy data") + ".unknown", result);
     }
 
     @Test
@@ -128,6 +185,60 @@ class ImageServiceImplTest {
         verify(imageService, times(1)).uploadAndGetFileName(secondFile);
     }
 
+    @Test
+    public void processFiles_uploadFilesConcurrently() {
+        MultipartFile thirdFile = mock(MultipartFile.class);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(minioProperties.getUploadConcurrency()).thenReturn(3);
+        when(firstFile.isEmpty()).thenReturn(false);
+        when(secondFile.isEmpty()).thenReturn(false);
+        when(thirdFile.isEmpty()).thenReturn(false);
+        doAnswer(invocation -> {
+            allStarted.countDown();
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS), "Uploads did not run concurrently");
+            return invocation.getArgument(0) == firstFile ? "file1.jpg" : invocation.getArgument(0) == secondFile ? "file2.jpg" : "file3.jpg";
+        }).when(imageService).uploadAndGetFileName(any(MultipartFile.class));
+
+        List<String> result = imageService.processFiles(List.of(firstFile, secondFile, thirdFile));
+
+        assertEquals(List.of("file1.jpg", "file2.jpg", "file3.jpg"), result);
+    }
+
+    @Test
+    public void processFiles_capConcurrencyPerRequest() {
+        MultipartFile thirdFile = mock(MultipartFile.class);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(minioProperties.getUploadConcurrency()).thenReturn(2);
+        when(firstFile.isEmpty()).thenReturn(false);
+        when(secondFile.isEmpty()).thenReturn(false);
+        when(thirdFile.isEmpty()).thenReturn(false);
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return "file.jpg";
+        }).when(imageService).uploadAndGetFileName(any(MultipartFile.class));
+
+        List<String> result = imageService.processFiles(List.of(firstFile, secondFile, thirdFile));
+
+        assertEquals(3, result.size());
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void processFiles_oneUploadFailed_removeUploadedFilesAndThrowExc() {
+        when(firstFile.isEmpty()).thenReturn(false);
+        when(secondFile.isEmpty()).thenReturn(false);
+        doReturn("file1.jpg").when(imageService).uploadAndGetFileName(firstFile);
+        doThrow(new FileUploadException("File upload exception: Upload failed", null)).when(imageService).uploadAndGetFileName(secondFile);
+
+        FileUploadException fileUploadException = assertThrows(FileUploadException.class, () -> imageService.processFiles(List.of(firstFile, secondFile)));
+        assertEquals("File upload exception: Upload failed", fileUploadException.getMessage());
+
+        verify(imageService, times(1)).deleteFiles(List.of("file1.jpg"));
+    }
+
     @Test
     public void processFiles_filesIsEmpty_returnEmptyList() {
         when(firstFile.isEmpty()).thenReturn(true);
@@ -139,22 +250,94 @@ class ImageServiceImplTest {
     }
 
     @Test
-    public void deleteFiles_deleteFiles() {
+    public void deleteFiles_releaseReferences_removeUnreferencedWithVariantsUnderRowLock() {
         when(minioProperties.getBucket()).thenReturn("test-bucket");
-        doNothing().when(minioService).removeFile("file1.jpg", "test-bucket");
-        doNothing().when(minioService).removeFile("file2.jpg", "test-bucket");
+        when(minioProperties.getVariantFormat()).thenReturn("webp");
+        when(photoRepository.findUnreferenced(Set.of("file1.jpg", "file2.jpg"))).thenReturn(List.of("file2.jpg"));
+        when(photoRepository.lockRemovable(List.of("file2.jpg"))).thenReturn(List.of("file2.jpg"));
+
+        imageService.deleteFiles(List.of("file1.jpg", "file2.jpg", "file1.jpg"));
+
+        InOrder inOrder = inOrder(photoRepository, transactionManager, minioService);
+        inOrder.verify(photoRepository).release("file1.jpg", 2L);
+        inOrder.verify(photoRepository).release("file2.jpg", 1L);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(photoRepository).lockRemovable(List.of("file2.jpg"));
+        inOrder.verify(minioService).removeFiles(List.of("file2.jpg", "medium/file2.jpg.webp", "thumb/file2.jpg.webp"), "test-bucket");
+        inOrder.verify(photoRepository).deleteAllByIdInBatch(List.of("file2.jpg"));
+        inOrder.verify(transactionManager).commit(any());
+        verify(minioService, never()).removeFile(any(), any());
+    }
 
-        imageService.deleteFiles(List.of("file1.jpg", "file2.jpg"));
+    @Test
+    public void deleteFiles_acquiredAgainAfterRelease_keepFile() {
+        MultipartFile file = new MockMultipartFile("files", "test-file.jpg", "image/jpeg", "dummy data".getBytes());
+        String fileName = sha256("dummy data") + ".jpg";
+        Set<String> referenced = new HashSet<>();
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.exists(fileName, "test-bucket")).thenReturn(true);
+        doAnswer(invocation -> referenced.add(invocation.getArgument(0))).when(photoRepository).acquire(fileName);
+        // Another request uploads the same content between the release commit and the removal
+        when(photoRepository.findUnreferenced(Set.of(fileName))).thenAnswer(invocation -> {
+            imageService.uploadAndGetFileName(file);
+            return List.of(fileName);
+        });
+        when(photoRepository.lockRemovable(List.of(fileName))).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .filter(el -> !referenced.contains(el))
+                .toList());
+
+        imageService.deleteFiles(List.of(fileName));
+
+        verify(minioService, never()).removeFiles(any(), any());
+        verify(photoRepository, never()).deleteAllByIdInBatch(any());
+    }
 
-        verify(minioProperties, times(2)).getBucket();
-        verify(minioService, times(1)).removeFile("file1.jpg", "test-bucket");
-        verify(minioService, times(1)).removeFile("file2.jpg", "test-bucket");
+    @Test
+    public void deleteFiles_stillReferenced_keepFiles() {
+        when(photoRepository.findUnreferenced(Set.of("file1.jpg"))).thenReturn(List.of());
+
+        imageService.deleteFiles(List.of("file1.jpg"));
+
+        verify(photoRepository, times(1)).release("file1.jpg", 1L);
+        verify(photoRepository, never()).lockRemovable(any());
+        verify(minioService, never()).removeFiles(any(), any());
+        verify(photoRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    public void deleteFiles_removeFailed_keepRowsAndThrowExc() {
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        when(photoRepository.findUnreferenced(Set.of("file1.jpg"))).thenReturn(List.of("file1.jpg"));
+        when(photoRepository.lockRemovable(List.of("file1.jpg"))).thenReturn(List.of("file1.jpg"));
+        doThrow(new MinIoException("MinIo exception: Connection refused")).when(minioService).removeFiles(any(), eq("test-bucket"));
+
+        MinIoException minIoException = assertThrows(MinIoException.class, () -> imageService.deleteFiles(List.of("file1.jpg")));
+        assertEquals("MinIo exception: Connection refused", minIoException.getMessage());
+
+        verify(photoRepository, never()).deleteAllByIdInBatch(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    public void deleteFiles_ifEmpty_doNothing() {
+        imageService.deleteFiles(List.of());
+
+        verifyNoInteractions(minioProperties, minioService, photoRepository);
     }
 
     @Test
     public void deleteFiles_ifNull_doNothing() {
         imageService.deleteFiles(null);
 
-        verifyNoInteractions(minioProperties, minioService);
+        verifyNoInteractions(minioProperties, minioService, photoRepository);
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package com.example.demo.image;
+
+import com.example.demo.event.PhotoVariantsReadyEvent;
+import com.example.demo.exception.MinIoException;
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantGeneratorTest {
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private MinioProperties minioProperties;
+
+    @Mock
+    private PhotoRepository photoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ImageVariantGenerator imageVariantGenerator;
+
+    private final Map<String, byte[]> uploads = new HashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(minioProperties.getBucket()).thenReturn("test-bucket");
+        lenient().when(minioProperties.getThumbnailSize()).thenReturn(320);
+        lenient().when(minioProperties.getMediumSize()).thenReturn(1024);
+        lenient().when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        lenient().when(minioProperties.getVariantQuality()).thenReturn(0.8f);
+        lenient().doAnswer(invocation -> {
+            byte[] bytes = invocation.<InputStream>getArgument(2).readAllBytes();
+            assertEquals(bytes.length, invocation.<Long>getArgument(3));
+            uploads.put(invocation.getArgument(0), bytes);
+            return null;
+        }).when(minioService).uploadFile(anyString(), eq("test-bucket"), any(InputStream.class), anyLong());
+    }
+
+    @Test
+    public void generate_uploadResizedVariants() throws IOException {
+        when(minioService.getFile("photo.png", "test-bucket")).thenReturn(new ByteArrayInputStream(image(4000, 2000, "png")));
+
+        imageVariantGenerator.generate("photo.png");
+
+        assertEquals(2, uploads.size());
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(uploads.get("medium/photo.png.jpg")));
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(uploads.get("thumb/photo.png.jpg")));
+        assertEquals(1024, medium.getWidth());
+        assertEquals(512, medium.getHeight());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(160, thumbnail.getHeight());
+        assertEquals(1, meterRegistry.get("image.variants").tag("outcome", "success").timer().count());
+        verify(photoRepository, times(1)).updateVariantStatus("photo.png", VariantStatus.READY);
+        verify(eventPublisher, times(1)).publishEvent(new PhotoVariantsReadyEvent("photo.png"));
+    }
+
+    @Test
+    public void generate_smallImage_doNotUpscale() throws IOException {
+        when(minioService.getFile("photo.jpg", "test-bucket")).thenReturn(new ByteArrayInputStream(image(200, 300, "jpg")));
+
+        imageVariantGenerator.generate("photo.jpg");
+
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(uploads.get("medium/photo.jpg.jpg")));
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(uploads.get("thumb/photo.jpg.jpg")));
+        assertEquals(200, medium.getWidth());
+        assertEquals(300, medium.getHeight());
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(300, thumbnail.getHeight());
+    }
+
+    @Test
+    public void generate_variantsAlreadyStored_skipDownload() {
+        when(minioService.exists("thumb/photo.jpg.jpg", "test-bucket")).thenReturn(true);
+
+        imageVariantGenerator.generate("photo.jpg");
+
+        verify(minioService, never()).getFile(anyString(), anyString());
+        verify(minioService, never()).uploadFile(anyString(), anyString(), any(InputStream.class), anyLong());
+        assertEquals(1, meterRegistry.get("image.variants").tag("outcome", "exists").timer().count());
+        verify(photoRepository, times(1)).updateVariantStatus("photo.jpg", VariantStatus.READY);
+        verify(eventPublisher, times(1)).publishEvent(new PhotoVariantsReadyEvent("photo.jpg"));
+    }
+
+    @Test
+    public void generate_unsupportedFormat_skipVariants() {
+        when(minioService.getFile("document.pdf", "test-bucket")).thenReturn(new ByteArrayInputStream("%PDF-1.7".getBytes()));
+
+        imageVariantGenerator.generate("document.pdf");
+
+        verify(minioService, never()).uploadFile(anyString(), anyString(), any(InputStream.class), anyLong());
+        assertEquals(1, meterRegistry.get("image.variants").tag("outcome", "unsupported").timer().count());
+        verify(photoRepository, times(1)).updateVariantStatus("document.pdf", VariantStatus.UNSUPPORTED);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void generate_ifDownloadFailed_throwExc() {
+        when(minioService.getFile("photo.jpg", "test-bucket")).thenThrow(new MinIoException("MinIo exception: Connection refused"));
+
+        MinIoException minIoException = assertThrows(MinIoException.class, () -> imageVariantGenerator.generate("photo.jpg"));
+        assertEquals("MinIo exception: Connection refused", minIoException.getMessage());
+        assertEquals(1, meterRegistry.get("image.variants").tag("outcome", "error").timer().count());
+        verifyNoInteractions(photoRepository);
+    }
+
+    @Test
+    public void checkVariantFormat_noWriter_throwExc() {
+        when(minioProperties.getVariantFormat()).thenReturn("heic");
+
+        IllegalStateException illegalStateException = assertThrows(IllegalStateException.class, () -> imageVariantGenerator.checkVariantFormat());
+        assertEquals("No image writer available for variant format: heic", illegalStateException.getMessage());
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, outputStream);
+        return outputStream.toByteArray();
+    }
+}
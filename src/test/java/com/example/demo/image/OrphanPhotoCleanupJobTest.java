@@ -0,0 +1,150 @@
+package com.example.demo.image;
+
+import com.example.demo.minio.MinioProperties;
+import com.example.demo.minio.MinioService;
+import com.example.demo.tool.ToolRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanPhotoCleanupJobTest {
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private MinioProperties minioProperties;
+
+    @Mock
+    private ToolRepository toolRepository;
+
+    @Mock
+    private PhotoRepository photoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrphanPhotoCleanupJob orphanPhotoCleanupJob;
+
+    @Test
+    public void cleanup_removeUnreferencedFilesOlderThanGracePeriod() {
+        ArgumentCaptor<Instant> argumentCaptor = ArgumentCaptor.forClass(Instant.class);
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioProperties.getOrphanGracePeriod()).thenReturn(86400L);
+        when(minioService.listFiles(eq("test-bucket"), argumentCaptor.capture())).thenReturn(Stream.of("file1.jpg", "file2.jpg", "file3.jpg", "file4.jpg"));
+        when(photoRepository.findStored(List.of("file1.jpg", "file2.jpg", "file3.jpg", "file4.jpg"))).thenReturn(Set.of("file2.jpg"));
+        when(toolRepository.findReferencedPhotos(List.of("file1.jpg", "file2.jpg", "file3.jpg", "file4.jpg"))).thenReturn(Set.of("file2.jpg", "file4.jpg"));
+        when(photoRepository.lockIdle(List.of("file2.jpg"), 86400L)).thenReturn(List.of("file2.jpg"));
+        when(photoRepository.findUnreferenced(List.of("file2.jpg"))).thenReturn(List.of());
+        when(photoRepository.lockUnreferenced(anyString())).thenReturn(1);
+
+        orphanPhotoCleanupJob.cleanup();
+
+        verify(photoRepository, times(1)).reconcile(List.of("file2.jpg"));
+        verify(photoRepository, times(1)).lockUnreferenced("file1.jpg");
+        verify(photoRepository, times(1)).lockUnreferenced("file3.jpg");
+        verify(minioService, times(1)).removeFiles(List.of("file1.jpg", "file3.jpg"), "test-bucket");
+        verify(photoRepository, times(1)).deleteAllByIdInBatch(Set.of("file1.jpg", "file3.jpg"));
+        Duration gracePeriod = Duration.between(argumentCaptor.getValue(), Instant.now());
+        assertTrue(gracePeriod.compareTo(Duration.ofHours(24)) >= 0 && gracePeriod.compareTo(Duration.ofHours(25)) < 0);
+    }
+
+    @Test
+    public void cleanup_overCountedRowWithoutReference_removeFileWhileRowLocked() {
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioProperties.getOrphanGracePeriod()).thenReturn(86400L);
+        when(minioService.listFiles(eq("test-bucket"), any(Instant.class))).thenReturn(Stream.of("file1.jpg", "file2.jpg", "file3.jpg"));
+        when(photoRepository.findStored(anyList())).thenReturn(Set.of("file1.jpg", "file2.jpg", "file3.jpg"));
+        when(toolRepository.findReferencedPhotos(anyList())).thenReturn(Set.of("file2.jpg"));
+        when(photoRepository.lockIdle(List.of("file1.jpg", "file2.jpg", "file3.jpg"), 86400L)).thenReturn(List.of("file1.jpg", "file2.jpg"));
+        when(photoRepository.reconcile(List.of("file1.jpg", "file2.jpg"))).thenReturn(2);
+        when(photoRepository.findUnreferenced(List.of("file1.jpg", "file2.jpg"))).thenReturn(List.of("file1.jpg"));
+
+        orphanPhotoCleanupJob.cleanup();
+
+        InOrder inOrder = inOrder(photoRepository, minioService, transactionManager);
+        inOrder.verify(photoRepository).lockIdle(anyList(), anyLong());
+        inOrder.verify(minioService).removeFiles(List.of("file1.jpg"), "test-bucket");
+        inOrder.verify(photoRepository).deleteAllByIdInBatch(Set.of("file1.jpg"));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void cleanup_rowsBusyOrRecentlyUsed_keepFiles() {
+        when(minioService.listFiles(any(), any(Instant.class))).thenReturn(Stream.of("file1.jpg", "file2.jpg"));
+        when(photoRepository.findStored(anyList())).thenReturn(Set.of("file1.jpg", "file2.jpg"));
+        when(toolRepository.findReferencedPhotos(anyList())).thenReturn(Set.of());
+        when(photoRepository.lockIdle(anyList(), anyLong())).thenReturn(List.of());
+
+        orphanPhotoCleanupJob.cleanup();
+
+        verify(photoRepository, never()).reconcile(any());
+        verify(photoRepository, never()).deleteAllByIdInBatch(any());
+        verify(minioService, never()).removeFiles(any(), any());
+    }
+
+    @Test
+    public void cleanup_storedConcurrently_keepFile() {
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.listFiles(eq("test-bucket"), any(Instant.class))).thenReturn(Stream.of("file1.jpg", "file2.jpg"));
+        when(photoRepository.findStored(anyList())).thenReturn(Set.of());
+        when(toolRepository.findReferencedPhotos(anyList())).thenReturn(Set.of());
+        when(photoRepository.lockUnreferenced("file1.jpg")).thenReturn(0);
+        when(photoRepository.lockUnreferenced("file2.jpg")).thenReturn(1);
+
+        orphanPhotoCleanupJob.cleanup();
+
+        verify(minioService, times(1)).removeFiles(List.of("file2.jpg"), "test-bucket");
+        verify(photoRepository, times(1)).deleteAllByIdInBatch(Set.of("file2.jpg"));
+    }
+
+    @Test
+    public void cleanup_checkVariantsAgainstOriginal() {
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.listFiles(eq("test-bucket"), any(Instant.class))).thenReturn(Stream.of(
+                "file1.jpg", "medium/file1.jpg.jpg", "thumb/file1.jpg.jpg", "medium/file2.png.jpg", "thumb/file2.png.jpg"));
+        when(photoRepository.findStored(List.of("file1.jpg", "file2.png"))).thenReturn(Set.of("file1.jpg"));
+        when(toolRepository.findReferencedPhotos(List.of("file1.jpg", "file2.png"))).thenReturn(Set.of("file1.jpg"));
+        when(photoRepository.lockIdle(eq(List.of("file1.jpg")), anyLong())).thenReturn(List.of("file1.jpg"));
+        when(photoRepository.lockUnreferenced("file2.png")).thenReturn(1);
+
+        orphanPhotoCleanupJob.cleanup();
+
+        verify(minioService, times(1)).removeFiles(List.of("medium/file2.png.jpg", "thumb/file2.png.jpg"), "test-bucket");
+    }
+
+    @Test
+    public void cleanup_checkReferencesInBatches() {
+        List<String> fileNames = IntStream.range(0, 2500).mapToObj(i -> "file" + i + ".jpg").toList();
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.listFiles(eq("test-bucket"), any(Instant.class))).thenReturn(fileNames.stream());
+        when(photoRepository.findStored(anyList())).thenAnswer(invocation -> Set.copyOf(invocation.<List<String>>getArgument(0)));
+        when(toolRepository.findReferencedPhotos(anyList())).thenReturn(Set.of());
+
+        orphanPhotoCleanupJob.cleanup();
+
+        verify(photoRepository, times(1)).findStored(fileNames.subList(0, 1000));
+        verify(photoRepository, times(1)).findStored(fileNames.subList(1000, 2000));
+        verify(photoRepository, times(1)).findStored(fileNames.subList(2000, 2500));
+        verify(photoRepository, times(3)).lockIdle(anyList(), anyLong());
+        verify(photoRepository, never()).lockUnreferenced(anyString());
+        verify(minioService, never()).removeFiles(any(), any());
+    }
+}
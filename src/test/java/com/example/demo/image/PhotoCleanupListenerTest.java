@@ -0,0 +1,57 @@
+package com.example.demo.image;
+
+import com.example.demo.event.ToolPhotosRemovedEvent;
+import com.example.demo.exception.MinIoException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoCleanupListenerTest {
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private ExecutorService minioExecutor;
+
+    @InjectMocks
+    private PhotoCleanupListener photoCleanupListener;
+
+    @Test
+    public void handlePhotosRemoved_deleteFilesOnExecutor() {
+        ArgumentCaptor<Runnable> argumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        photoCleanupListener.handlePhotosRemoved(ToolPhotosRemovedEvent.builder()
+                .fileNames(List.of("file1.jpg", "file2.jpg"))
+                .build());
+
+        verify(minioExecutor, times(1)).execute(argumentCaptor.capture());
+        verifyNoInteractions(imageService);
+
+        argumentCaptor.getValue().run();
+        verify(imageService, times(1)).deleteFiles(List.of("file1.jpg", "file2.jpg"));
+    }
+
+    @Test
+    public void handlePhotosRemoved_deleteFailed_leaveFilesForCleanup() {
+        ArgumentCaptor<Runnable> argumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+        doThrow(new MinIoException("MinIo exception: Connection refused")).when(imageService).deleteFiles(List.of("file1.jpg"));
+
+        photoCleanupListener.handlePhotosRemoved(ToolPhotosRemovedEvent.builder()
+                .fileNames(List.of("file1.jpg"))
+                .build());
+
+        verify(minioExecutor, times(1)).execute(argumentCaptor.capture());
+        assertDoesNotThrow(() -> argumentCaptor.getValue().run());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.image;
+
+import com.example.demo.BaseIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoRepositoryIT extends BaseIT {
+
+    private static final String PHOTO = "photo.jpg";
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup() {
+        photoRepository.deleteAll();
+        photoRepository.save(Photo.builder().name(PHOTO).refCount(0).build());
+    }
+
+    @Test
+    public void acquire_duringRemoval_waitAndStartNewRow() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch removed = new CountDownLatch(1);
+        CompletableFuture<List<String>> removal = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            List<String> removable = photoRepository.lockRemovable(List.of(PHOTO));
+            locked.countDown();
+            try {
+                assertTrue(removed.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            photoRepository.deleteAllByIdInBatch(removable);
+            return removable;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> acquire = CompletableFuture.runAsync(() -> photoRepository.acquire(PHOTO));
+        Thread.sleep(500);
+        assertFalse(acquire.isDone()); // Waits for the row lock held during the MinIO call
+        removed.countDown();
+
+        assertEquals(List.of(PHOTO), removal.get(10, TimeUnit.SECONDS));
+        acquire.get(10, TimeUnit.SECONDS);
+        assertEquals(1, photoRepository.findById(PHOTO).get().getRefCount());
+    }
+
+    @Test
+    public void lockRemovable_acquiredAfterRelease_skipName() {
+        photoRepository.acquire(PHOTO);
+
+        List<String> removable = new TransactionTemplate(transactionManager).execute(status -> photoRepository.lockRemovable(List.of(PHOTO)));
+
+        assertEquals(List.of(), removable);
+        assertEquals(1, photoRepository.findById(PHOTO).get().getRefCount());
+    }
+}
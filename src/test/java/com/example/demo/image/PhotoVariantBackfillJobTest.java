@@ -0,0 +1,78 @@
+package com.example.demo.image;
+
+import com.example.demo.exception.MinIoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoVariantBackfillJobTest {
+
+    @Mock
+    private PhotoRepository photoRepository;
+
+    @Mock
+    private ImageVariantGenerator imageVariantGenerator;
+
+    private ExecutorService imageExecutor;
+    private PhotoVariantBackfillJob photoVariantBackfillJob;
+
+    @BeforeEach
+    public void setup() {
+        imageExecutor = Executors.newSingleThreadExecutor();
+        photoVariantBackfillJob = new PhotoVariantBackfillJob(photoRepository, imageVariantGenerator, imageExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        imageExecutor.shutdownNow();
+    }
+
+    @Test
+    public void backfill_noPendingPhotos_doNothing() {
+        when(photoRepository.findPendingVariantsAfter("", PageRequest.ofSize(100))).thenReturn(List.of());
+
+        photoVariantBackfillJob.backfill();
+
+        verifyNoInteractions(imageVariantGenerator);
+    }
+
+    @Test
+    public void backfill_fullBatch_continueAfterLastName() {
+        List<String> firstBatch = IntStream.range(0, 100)
+                .mapToObj(el -> String.format("photo%03d.jpg", el))
+                .toList();
+        when(photoRepository.findPendingVariantsAfter("", PageRequest.ofSize(100))).thenReturn(firstBatch);
+        when(photoRepository.findPendingVariantsAfter("photo099.jpg", PageRequest.ofSize(100))).thenReturn(List.of("photo100.jpg"));
+
+        photoVariantBackfillJob.backfill();
+
+        verify(imageVariantGenerator, times(101)).generate(anyString());
+        verify(imageVariantGenerator, times(1)).generate("photo100.jpg");
+        verify(photoRepository, times(2)).findPendingVariantsAfter(anyString(), any());
+    }
+
+    @Test
+    public void backfill_generationFails_continueWithOthers() {
+        when(photoRepository.findPendingVariantsAfter("", PageRequest.ofSize(100))).thenReturn(List.of("photo1.jpg", "photo2.jpg"));
+        doThrow(new MinIoException("MinIo exception: Connection refused")).when(imageVariantGenerator).generate("photo1.jpg");
+
+        photoVariantBackfillJob.backfill();
+
+        verify(imageVariantGenerator, times(1)).generate("photo2.jpg");
+        verify(photoRepository, times(1)).findPendingVariantsAfter(anyString(), any());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.image;
+
+import com.example.demo.event.ToolPhotosAddedEvent;
+import com.example.demo.exception.FileUploadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoVariantListenerTest {
+
+    @Mock
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Mock
+    private ExecutorService imageExecutor;
+
+    @InjectMocks
+    private PhotoVariantListener photoVariantListener;
+
+    @Test
+    public void handlePhotosAdded_generateEachFileOnExecutor() {
+        ArgumentCaptor<Runnable> argumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        photoVariantListener.handlePhotosAdded(ToolPhotosAddedEvent.builder()
+                .fileNames(List.of("file1.jpg", "file2.jpg"))
+                .build());
+
+        verify(imageExecutor, times(2)).execute(argumentCaptor.capture());
+        verifyNoInteractions(imageVariantGenerator);
+
+        argumentCaptor.getAllValues().forEach(Runnable::run);
+        verify(imageVariantGenerator, times(1)).generate("file1.jpg");
+        verify(imageVariantGenerator, times(1)).generate("file2.jpg");
+    }
+
+    @Test
+    public void handlePhotosAdded_generateFailed_doNotThrow() {
+        ArgumentCaptor<Runnable> argumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+        doThrow(new FileUploadException("Image processing exception: Unsupported Image Type", null)).when(imageVariantGenerator).generate("file1.jpg");
+
+        photoVariantListener.handlePhotosAdded(ToolPhotosAddedEvent.builder()
+                .fileNames(List.of("file1.jpg"))
+                .build());
+
+        verify(imageExecutor, times(1)).execute(argumentCaptor.capture());
+        assertDoesNotThrow(() -> argumentCaptor.getValue().run());
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.demo.jwt;
 
+import com.example.demo.exception.UserNotFoundException;
 import com.example.demo.user.Role;
 import com.example.demo.user.User;
+import com.example.demo.user.UserPrincipal;
+import com.example.demo.user.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,17 +14,17 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,14 +44,17 @@ class JwtAuthenticationFilterTest {
     private JwtService jwtService;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
 
-    @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    private Claims claims;
+
     @BeforeEach
     public void setUp() {
         SecurityContextHolder.clearContext();
+        claims = new DefaultClaims(Map.of(Claims.SUBJECT, "IvanIvanov@gmail.com"));
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, new PrincipalCache(userRepository, 100, Duration.ofMinutes(5)));
     }
 
     @Test
@@ -58,7 +66,7 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verifyNoInteractions(jwtService, userDetailsService);
+        verifyNoInteractions(jwtService, userRepository);
     }
 
     @Test
@@ -70,7 +78,7 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verifyNoInteractions(jwtService, userDetailsService);
+        verifyNoInteractions(jwtService, userRepository);
     }
 
     @Test
@@ -78,15 +86,15 @@ class JwtAuthenticationFilterTest {
         String token = "my.jwt.token";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractLogin(token)).thenReturn(null);
+        when(jwtService.extractClaims(token)).thenReturn(new DefaultClaims(Map.of()));
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtService, times(1)).extractLogin(token);
-        verifyNoInteractions(userDetailsService);
+        verify(jwtService, times(1)).extractClaims(token);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -97,7 +105,7 @@ class JwtAuthenticationFilterTest {
         String token = "my.jwt.token";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractLogin(token)).thenReturn("IvanIvanov@gmail.com");
+        when(jwtService.extractClaims(token)).thenReturn(claims);
         when(securityContext.getAuthentication()).thenReturn(authentication);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -105,13 +113,13 @@ class JwtAuthenticationFilterTest {
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtService, times(1)).extractLogin(token);
-        verifyNoInteractions(userDetailsService);
+        verify(jwtService, times(1)).extractClaims(token);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     public void doFilterInternal_notValidToken_skipFilter() throws ServletException, IOException {
-        UserDetails user = User.builder()
+        User user = User.builder()
                 .id(1L)
                 .firstname("Ivan")
                 .lastname("Ivanov")
@@ -122,23 +130,23 @@ class JwtAuthenticationFilterTest {
         String token = "my.jwt.token";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractLogin(token)).thenReturn("IvanIvanov@gmail.com");
-        when(userDetailsService.loadUserByUsername("IvanIvanov@gmail.com")).thenReturn(user);
-        when(jwtService.isValid(user, token)).thenReturn(false);
+        when(jwtService.extractClaims(token)).thenReturn(claims);
+        when(userRepository.findByLogin("IvanIvanov@gmail.com")).thenReturn(Optional.of(user));
+        when(jwtService.isValid(UserPrincipal.of(user), claims)).thenReturn(false);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtService, times(1)).extractLogin(token);
-        verify(jwtService, times(1)).isValid(user, token);
-        verify(userDetailsService, times(1)).loadUserByUsername("IvanIvanov@gmail.com");
+        verify(jwtService, times(1)).extractClaims(token);
+        verify(jwtService, times(1)).isValid(UserPrincipal.of(user), claims);
+        verify(userRepository, times(1)).findByLogin("IvanIvanov@gmail.com");
     }
 
     @Test
     public void doFilterInternal_validToken_setAuthentication() throws ServletException, IOException {
-        UserDetails user = User.builder()
+        User user = User.builder()
                 .id(1L)
                 .firstname("Ivan")
                 .lastname("Ivanov")
@@ -149,9 +157,9 @@ class JwtAuthenticationFilterTest {
         String token = "my.jwt.token";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractLogin(token)).thenReturn("IvanIvanov@gmail.com");
-        when(userDetailsService.loadUserByUsername("IvanIvanov@gmail.com")).thenReturn(user);
-        when(jwtService.isValid(user, token)).thenReturn(true);
+        when(jwtService.extractClaims(token)).thenReturn(claims);
+        when(userRepository.findByLogin("IvanIvanov@gmail.com")).thenReturn(Optional.of(user));
+        when(jwtService.isValid(UserPrincipal.of(user), claims)).thenReturn(true);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
@@ -159,8 +167,47 @@ class JwtAuthenticationFilterTest {
         assertEquals(SecurityContextHolder.getContext().getAuthentication().getName(), user.getUsername());
         verify(filterChain, times(1)).doFilter(request, response);
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtService, times(1)).extractLogin(token);
-        verify(jwtService, times(1)).isValid(user, token);
-        verify(userDetailsService, times(1)).loadUserByUsername("IvanIvanov@gmail.com");
+        verify(jwtService, times(1)).extractClaims(token);
+        verify(jwtService, times(1)).isValid(UserPrincipal.of(user), claims);
+        verify(userRepository, times(1)).findByLogin("IvanIvanov@gmail.com");
+    }
+
+    @Test
+    public void doFilterInternal_cachedPrincipal_skipUserQuery() throws ServletException, IOException {
+        User user = User.builder()
+                .id(1L)
+                .login("IvanIvanov@gmail.com")
+                .role(Role.ROLE_USER)
+                .build();
+        String token = "my.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractClaims(token)).thenReturn(claims);
+        when(userRepository.findByLogin("IvanIvanov@gmail.com")).thenReturn(Optional.of(user));
+        when(jwtService.isValid(UserPrincipal.of(user), claims)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        assertEquals(UserPrincipal.of(user), SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userRepository, times(1)).findByLogin("IvanIvanov@gmail.com");
+        verify(jwtService, times(2)).extractClaims(token);
+    }
+
+    @Test
+    public void doFilterInternal_userNotFound_throwExcAndCacheNothing() {
+        String token = "my.jwt.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractClaims(token)).thenReturn(claims);
+        when(userRepository.findByLogin("IvanIvanov@gmail.com")).thenReturn(Optional.empty());
+
+        UserNotFoundException userNotFoundException = assertThrows(UserNotFoundException.class,
+                () -> jwtAuthenticationFilter.doFilterInternal(request, response, filterChain));
+        assertEquals("User with login: IvanIvanov@gmail.com not found!", userNotFoundException.getMessage());
+        assertThrows(UserNotFoundException.class, () -> jwtAuthenticationFilter.doFilterInternal(request, response, filterChain));
+
+        verify(userRepository, times(2)).findByLogin("IvanIvanov@gmail.com");
     }
-}
\ No newline at end of file
+}
@@ -88,6 +88,14 @@ class JwtServiceImplTest {
         assertTrue(result);
     }
 
+    @Test
+    public void isValid_parsedClaims_returnTrue() {
+        String token = jwtService.generateToken(userDetails);
+        boolean result = jwtService.isValid(userDetails, jwtService.extractClaims(token));
+
+        assertTrue(result);
+    }
+
     @Test
     public void isValid_invalidLogin_returnFalse() {
         UserDetails user = User.builder()
@@ -116,6 +124,7 @@ class JwtServiceImplTest {
         Key secretKey = jwtService.getSecretKey();
 
         assertNotNull(secretKey);
+        assertSame(secretKey, jwtService.getSecretKey());
     }
 
 
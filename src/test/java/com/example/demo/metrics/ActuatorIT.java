@@ -0,0 +1,48 @@
+package com.example.demo.metrics;
+
+import com.example.demo.BaseIT;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActuatorIT extends BaseIT {
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Test
+    public void health_withoutCredentials_returnOk() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/health", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void prometheus_withoutCredentials_returnUnauthorized() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void prometheus_wrongPassword_returnUnauthorized() {
+        ResponseEntity<String> response = testRestTemplate.withBasicAuth("prometheus", "wrong")
+                .getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    public void prometheus_scrapeCredentials_returnMetrics() {
+        ResponseEntity<String> response = testRestTemplate.withBasicAuth("prometheus", "test_scrape_password")
+                .getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("http_server_requests"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementCountInterceptorTest {
+
+    @Spy
+    private StatementCounter statementCounter = new StatementCounter();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private StatementCountInterceptor statementCountInterceptor;
+
+    @Test
+    public void afterCompletion_recordStatementsPerRoute() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tools/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/tools/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        statementCounter.inspect("select 1");
+
+        statementCountInterceptor.preHandle(request, response, null);
+        statementCounter.inspect("select * from tools where id=?");
+        statementCounter.inspect("select * from photos_tools where tool_id=?");
+        statementCountInterceptor.afterCompletion(request, response, null, null);
+
+        DistributionSummary summary = meterRegistry.get("jpa.statements")
+                .tags("method", "GET", "uri", "/api/v1/tools/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+        assertEquals(0, statementCounter.get());
+    }
+
+    @Test
+    public void afterCompletion_withoutHandlerPattern_tagUnknown() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/missing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        statementCountInterceptor.preHandle(request, response, null);
+        statementCountInterceptor.afterCompletion(request, response, null, null);
+
+        assertEquals(0, meterRegistry.get("jpa.statements").tags("method", "POST", "uri", "UNKNOWN").summary().totalAmount());
+    }
+}
@@ -5,16 +5,26 @@ import com.example.demo.exception.MinIoException;
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
 import io.minio.messages.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 public class MinioIT extends BaseIT {
 
@@ -33,7 +43,8 @@ public class MinioIT extends BaseIT {
     private MinioInitializer minioInitializer;
 
     @Autowired
-    private CacheManager cacheManager;
+    private PresignedUrlSigner presignedUrlSigner;
+
 
     @BeforeEach
     public void setup() {
@@ -44,11 +55,31 @@ public class MinioIT extends BaseIT {
     public void uploadFile_uploadFileSuccessfully() {
         initMinio();
         ByteArrayInputStream inputStream = new ByteArrayInputStream("dummy".getBytes());
-        minioService.uploadFile("test-file.jpg", minioProperties.getBucket(), inputStream);
+        minioService.uploadFile("test-file.jpg", minioProperties.getBucket(), inputStream, 5);
 
         assertTrue(isFileExists("test-file.jpg"));
     }
 
+    @Test
+    public void uploadFile_largeFile_streamInConfiguredParts() throws Exception {
+        long partSize = minioProperties.getPartSize();
+        long size = 6 * partSize + 1;
+        MinioClient client = spy(minioClient);
+        MinioService service = new MinioServiceImpl(client, minioProperties, presignedUrlSigner, new SimpleMeterRegistry());
+        ArgumentCaptor<PutObjectArgs> argumentCaptor = ArgumentCaptor.forClass(PutObjectArgs.class);
+
+        service.uploadFile("large-file.bin", minioProperties.getBucket(), new GeneratedInputStream(size), size);
+
+        verify(client, times(1)).putObject(argumentCaptor.capture());
+        assertEquals(partSize, argumentCaptor.getValue().partSize());
+        assertEquals(7, argumentCaptor.getValue().partCount());
+        StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                .bucket(minioProperties.getBucket())
+                .object("large-file.bin")
+                .build());
+        assertEquals(size, stat.size());
+    }
+
     @Test
     public void getPresignedUrl_generatePresignedUrl() {
         initMinio();
@@ -59,28 +90,36 @@ public class MinioIT extends BaseIT {
     }
 
     @Test
-    public void getPresignedUrl_cachePresignedUrlCorrectly() {
+    public void getPresignedUrl_signatureAcceptedByMinio() throws Exception {
         initMinio();
-        Cache cache = cacheManager.getCache("minio");
-        assertNotNull(cache);
+        String presignedUrl = minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());
+        String directUrl = presignedUrl.replace(minioProperties.getProxyUrl(), minioProperties.getEndpoint());
 
-        long start = System.currentTimeMillis();
-        String firstCall = minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());
-        long firstDuration = System.currentTimeMillis() - start;
-        assertNotNull(firstCall);
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(directUrl)).GET().build(), HttpResponse.BodyHandlers.ofString());
 
-        String cacheKey = "bucket_" + minioProperties.getBucket() + "_file" + FILE_NAME;
-        Cache.ValueWrapper url = cache.get(cacheKey);
-        assertNotNull(url);
-        assertNotNull(url.get());
+        assertEquals(200, response.statusCode());
+        assertEquals("dummy", response.body());
+    }
 
-        start = System.currentTimeMillis();
-        String secondCall = minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());;
-        long secondDuration = System.currentTimeMillis() - start;
+    @Test
+    public void getPresignedUrl_returnStableUrl() {
+        initMinio();
+
+        String firstCall = minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());
+        String secondCall = minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());
 
-        assertNotNull(secondCall);
         assertEquals(firstCall, secondCall);
-        assertTrue(secondDuration < firstDuration / 2, "Get from cache");
+    }
+
+    @Test
+    public void getPresignedUrls_returnUrlForEveryFile() {
+        initMinio();
+        minioService.uploadFile("second.jpg", minioProperties.getBucket(), new ByteArrayInputStream("dummy".getBytes()), 5);
+
+        Map<String, String> urls = minioService.getPresignedUrls(List.of(FILE_NAME, "second.jpg"), minioProperties.getBucket());
+
+        assertEquals(2, urls.size());
+        assertTrue(urls.values().stream().allMatch(el -> el.startsWith(minioProperties.getProxyUrl())));
     }
 
     @Test
@@ -92,26 +131,39 @@ public class MinioIT extends BaseIT {
     }
 
     @Test
-    public void removeFile_deleteFromCacheCorrectly() {
+    public void removeFiles_removeAllFilesInOneBatch() {
         initMinio();
-        Cache cache = cacheManager.getCache("minio");
-        assertNotNull(cache);
+        minioService.uploadFile("second.jpg", minioProperties.getBucket(), new ByteArrayInputStream("dummy".getBytes()), 5);
 
-        String cacheKey = "bucket_" + minioProperties.getBucket() + "_file" + FILE_NAME;
-        minioService.getPresignedUrl(FILE_NAME, minioProperties.getBucket());
-        Cache.ValueWrapper fromCache = cache.get(cacheKey);
-        assertNotNull(fromCache);
-        assertNotNull(fromCache.get());
+        minioService.removeFiles(List.of(FILE_NAME, "second.jpg"), minioProperties.getBucket());
 
-        minioService.removeFile(FILE_NAME, minioProperties.getBucket());
-        Cache.ValueWrapper fromCacheAfterRemove = cache.get(cacheKey);
-        assertNull(fromCacheAfterRemove);
+        assertFalse(isFileExists(FILE_NAME));
+        assertFalse(isFileExists("second.jpg"));
+    }
+
+    @Test
+    public void exists_returnWhetherObjectIsStored() {
+        initMinio();
+
+        assertTrue(minioService.exists(FILE_NAME, minioProperties.getBucket()));
+        assertFalse(minioService.exists("missing.jpg", minioProperties.getBucket()));
+    }
+
+    @Test
+    public void listFiles_returnFilesModifiedBeforeInstant() {
+        initMinio();
+
+        List<String> before = minioService.listFiles(minioProperties.getBucket(), Instant.now().plusSeconds(60)).toList();
+        List<String> after = minioService.listFiles(minioProperties.getBucket(), Instant.now().minusSeconds(3600)).toList();
+
+        assertEquals(List.of(FILE_NAME), before);
+        assertTrue(after.isEmpty());
     }
 
     @SneakyThrows
     private void initMinio() {
         ByteArrayInputStream inputStream = new ByteArrayInputStream("dummy".getBytes());
-        minioService.uploadFile(FILE_NAME, minioProperties.getBucket(), inputStream);
+        minioService.uploadFile(FILE_NAME, minioProperties.getBucket(), inputStream, 5);
     }
 
     @SneakyThrows
@@ -149,4 +201,33 @@ public class MinioIT extends BaseIT {
             throw new MinIoException("Get stat file failed: " + e.getMessage(), e);
         }
     }
+
+    private static class GeneratedInputStream extends InputStream {
+
+        private long remaining;
+
+        private GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0) {
+                return -1;
+            }
+            remaining--;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+            remaining -= count;
+            return count;
+        }
+    }
 }
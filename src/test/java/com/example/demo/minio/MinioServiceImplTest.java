@@ -2,20 +2,32 @@ package com.example.demo.minio;
 
 import com.example.demo.exception.FileUploadException;
 import com.example.demo.exception.MinIoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.minio.*;
 import io.minio.errors.*;
-import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +41,12 @@ class MinioServiceImplTest {
     @Mock
     private MinioProperties minioProperties;
 
+    @Mock
+    private PresignedUrlSigner presignedUrlSigner;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private MinioServiceImpl minioService;
 
@@ -36,23 +54,103 @@ class MinioServiceImplTest {
     public void uploadFile_uploadsFile() throws Exception {
         ArgumentCaptor<PutObjectArgs> argumentCaptor = ArgumentCaptor.forClass(PutObjectArgs.class);
         when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(null);
+        when(minioProperties.getPartSize()).thenReturn(10485760L);
 
-        minioService.uploadFile("test-file.jpg", "test-bucket", new ByteArrayInputStream("dummy data".getBytes()));
+        minioService.uploadFile("test-file.jpg", "test-bucket", new ByteArrayInputStream("dummy data".getBytes()), 10);
 
         verify(minioClient, times(1)).putObject(argumentCaptor.capture());
 
         PutObjectArgs putObjectArgs = argumentCaptor.getValue();
         assertEquals("test-file.jpg", putObjectArgs.object());
         assertEquals("test-bucket", putObjectArgs.bucket());
+        assertEquals(10, putObjectArgs.objectSize());
         assertEquals("dummy data", new String(putObjectArgs.stream().readAllBytes()));
+        assertEquals(1, meterRegistry.get("minio.upload").tag("outcome", "success").timer().count());
+        assertEquals(10, meterRegistry.get("minio.upload.bytes").summary().totalAmount());
     }
 
     @Test
     public void uploadFile_ifFailed_throwExc() throws Exception {
         when(minioClient.putObject(any(PutObjectArgs.class))).thenThrow(new RuntimeException("Upload file failed"));
 
-        FileUploadException fileUploadException = assertThrows(FileUploadException.class, () -> minioService.uploadFile("test-file.jpg", "test-bucket", new ByteArrayInputStream("dummy data".getBytes())));
+        FileUploadException fileUploadException = assertThrows(FileUploadException.class, () -> minioService.uploadFile("test-file.jpg", "test-bucket", new ByteArrayInputStream("dummy data".getBytes()), 10));
         assertEquals("File upload exception: Upload file failed", fileUploadException.getMessage());
+        assertEquals(1, meterRegistry.get("minio.upload").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    public void uploadFile_largeFile_streamWithDeclaredSizeAndPartSize() throws Exception {
+        long size = 300L * 1024 * 1024;
+        ArgumentCaptor<PutObjectArgs> argumentCaptor = ArgumentCaptor.forClass(PutObjectArgs.class);
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(null);
+        when(minioProperties.getPartSize()).thenReturn(16777216L);
+        InputStream inputStream = new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+
+        minioService.uploadFile("large-file.jpg", "test-bucket", inputStream, size);
+
+        verify(minioClient, times(1)).putObject(argumentCaptor.capture());
+
+        PutObjectArgs putObjectArgs = argumentCaptor.getValue();
+        assertEquals(size, putObjectArgs.objectSize());
+        assertEquals(16777216L, putObjectArgs.partSize());
+        assertEquals(19, putObjectArgs.partCount());
+        assertEquals(size, meterRegistry.get("minio.upload.bytes").summary().totalAmount());
+    }
+
+    @Test
+    public void exists_objectFound_returnTrue() throws Exception {
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(mock(StatObjectResponse.class));
+
+        assertTrue(minioService.exists("test-file.jpg", "test-bucket"));
+    }
+
+    @Test
+    public void exists_noSuchKey_returnFalse() throws Exception {
+        ErrorResponseException errorResponseException = mock(ErrorResponseException.class);
+        when(errorResponseException.errorResponse()).thenReturn(new ErrorResponse("NoSuchKey", "Object does not exist", "test-bucket", "test-file.jpg", null, null, null));
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(errorResponseException);
+
+        assertFalse(minioService.exists("test-file.jpg", "test-bucket"));
+    }
+
+    @Test
+    public void exists_ifFailed_throwExc() throws Exception {
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(new RuntimeException("Stat file failed"));
+
+        MinIoException minioException = assertThrows(MinIoException.class, () -> minioService.exists("test-file.jpg", "test-bucket"));
+        assertEquals("MinIo exception: Stat file failed", minioException.getMessage());
+    }
+
+    @Test
+    public void getFile_returnObjectStream() throws Exception {
+        ArgumentCaptor<GetObjectArgs> argumentCaptor = ArgumentCaptor.forClass(GetObjectArgs.class);
+        GetObjectResponse response = mock(GetObjectResponse.class);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(response);
+
+        InputStream result = minioService.getFile("test-file.jpg", "test-bucket");
+
+        assertSame(response, result);
+        verify(minioClient, times(1)).getObject(argumentCaptor.capture());
+        assertEquals("test-file.jpg", argumentCaptor.getValue().object());
+        assertEquals("test-bucket", argumentCaptor.getValue().bucket());
+    }
+
+    @Test
+    public void getFile_ifFailed_throwExc() throws Exception {
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(new RuntimeException("Get file failed"));
+
+        MinIoException minioException = assertThrows(MinIoException.class, () -> minioService.getFile("test-file.jpg", "test-bucket"));
+        assertEquals("MinIo exception: Get file failed", minioException.getMessage());
     }
 
     @Test
@@ -78,31 +176,88 @@ class MinioServiceImplTest {
     }
 
     @Test
-    public void getPresignedUrl_returnPresignedUrls() throws Exception {
-        ArgumentCaptor<GetPresignedObjectUrlArgs> argumentCaptor = ArgumentCaptor.forClass(GetPresignedObjectUrlArgs.class);
-        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class))).thenReturn("http://toolsminio:9000/testbucket/test-file.jpg");
-        when(minioProperties.getEndpoint()).thenReturn("http://toolsminio:9000");
-        when(minioProperties.getProxyUrl()).thenReturn("http://10.3.34.38:80");
+    public void removeFiles_removeInOneBatch() throws Exception {
+        ArgumentCaptor<RemoveObjectsArgs> argumentCaptor = ArgumentCaptor.forClass(RemoveObjectsArgs.class);
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
 
-        String result = minioService.getPresignedUrl("test-file.jpg", "test-bucket");
+        minioService.removeFiles(List.of("first.jpg", "second.jpg"), "test-bucket");
+
+        verify(minioClient, times(1)).removeObjects(argumentCaptor.capture());
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+
+        RemoveObjectsArgs removeObjectsArgs = argumentCaptor.getValue();
+        assertEquals("test-bucket", removeObjectsArgs.bucket());
+        List<String> objectNames = new ArrayList<>();
+        removeObjectsArgs.objects().forEach(el -> objectNames.add((String) ReflectionTestUtils.getField(el, "name")));
+        assertEquals(List.of("first.jpg", "second.jpg"), objectNames);
+    }
+
+    @Test
+    public void removeFiles_someFailed_throwExc() throws Exception {
+        DeleteError deleteError = mock(DeleteError.class);
+        when(deleteError.objectName()).thenReturn("second.jpg");
+        when(deleteError.message()).thenReturn("Access Denied");
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(new Result<>(deleteError)));
+
+        MinIoException minioException = assertThrows(MinIoException.class, () -> minioService.removeFiles(List.of("first.jpg", "second.jpg"), "test-bucket"));
+        assertEquals("MinIo exception: Failed to delete files: second.jpg (Access Denied)", minioException.getMessage());
+    }
+
+    @Test
+    public void listFiles_returnFilesModifiedBeforeInstant() {
+        Instant modifiedBefore = Instant.parse("2025-03-14T10:00:00Z");
+        Item oldFile = item("old.jpg", "2025-03-13T10:00:00Z");
+        Item newFile = item("new.jpg", "2025-03-14T11:00:00Z");
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of(new Result<>(oldFile), new Result<>(newFile)));
 
-        verify(minioClient, times(1)).getPresignedObjectUrl(argumentCaptor.capture());
-        GetPresignedObjectUrlArgs getPresignedObjectUrlArgs = argumentCaptor.getValue();
+        List<String> result = minioService.listFiles("test-bucket", modifiedBefore).toList();
 
-        assertNotNull(result);
-        assertEquals("http://10.3.34.38:80/testbucket/test-file.jpg", result);
-        assertEquals("test-file.jpg", getPresignedObjectUrlArgs.object());
-        assertEquals("test-bucket", getPresignedObjectUrlArgs.bucket());
-        assertEquals(Method.GET, getPresignedObjectUrlArgs.method());
+        assertEquals(List.of("old.jpg"), result);
+    }
+
+    private Item item(String objectName, String lastModified) {
+        Item item = mock(Item.class);
+        lenient().when(item.objectName()).thenReturn(objectName);
+        lenient().when(item.isDir()).thenReturn(false);
+        when(item.lastModified()).thenReturn(ZonedDateTime.parse(lastModified));
+        return item;
+    }
+
+    @Test
+    public void getPresignedUrl_returnPresignedUrls() {
+        when(presignedUrlSigner.sign("test-bucket", "test-file.jpg")).thenReturn("http://10.3.34.38:80/test-bucket/test-file.jpg?X-Amz-Signature=abc");
+
+        String result = minioService.getPresignedUrl("test-file.jpg", "test-bucket");
+
+        assertEquals("http://10.3.34.38:80/test-bucket/test-file.jpg?X-Amz-Signature=abc", result);
+        verifyNoInteractions(minioClient);
     }
 
     @Test
-    public void getPresignedUrl_ifFailed_throwExc() throws Exception {
-        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class))).thenThrow(new RuntimeException("Get presigned url failed"));
+    public void getPresignedUrl_ifFailed_throwExc() {
+        when(presignedUrlSigner.sign("test-bucket", "test-file.jpg")).thenThrow(new MinIoException("MinIo exception: Get presigned url failed", new RuntimeException()));
 
         MinIoException minioException = assertThrows(MinIoException.class, () -> minioService.getPresignedUrl("test-file.jpg", "test-bucket"));
         assertEquals("MinIo exception: Get presigned url failed", minioException.getMessage());
     }
 
+    @Test
+    public void getPresignedUrls_signEachFileOnce() {
+        when(presignedUrlSigner.sign("test-bucket", "first.jpg")).thenReturn("http://proxy/first.jpg");
+        when(presignedUrlSigner.sign("test-bucket", "second.jpg")).thenReturn("http://proxy/second.jpg");
+
+        Map<String, String> result = minioService.getPresignedUrls(List.of("first.jpg", "second.jpg", "first.jpg"), "test-bucket");
+
+        assertEquals(Map.of("first.jpg", "http://proxy/first.jpg", "second.jpg", "http://proxy/second.jpg"), result);
+        verify(presignedUrlSigner, times(1)).sign("test-bucket", "first.jpg");
+        verifyNoInteractions(minioClient);
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void getPresignedUrls_empty_returnEmptyMap() {
+        Map<String, String> result = minioService.getPresignedUrls(List.of(), "test-bucket");
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(presignedUrlSigner, minioClient);
+    }
+}
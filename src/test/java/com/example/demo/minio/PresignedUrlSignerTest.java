@@ -0,0 +1,94 @@
+package com.example.demo.minio;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.Signer;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresignedUrlSignerTest {
+
+    @Mock
+    private MinioProperties minioProperties;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PresignedUrlSigner presignedUrlSigner;
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(minioProperties.getUser()).thenReturn("test_user");
+        lenient().when(minioProperties.getPassword()).thenReturn("test_password");
+        lenient().when(minioProperties.getRegion()).thenReturn("us-east-1");
+        lenient().when(minioProperties.getEndpoint()).thenReturn("http://toolsminio:9000");
+        lenient().when(minioProperties.getProxyUrl()).thenReturn("http://10.3.34.38:80");
+        lenient().when(minioProperties.getPresignedUrlExpiry()).thenReturn(86400);
+        lenient().when(minioProperties.getPresignedUrlTimeBucket()).thenReturn(3600L);
+    }
+
+    @Test
+    public void sign_matchesMinioClientSignature() throws Exception {
+        String result = presignedUrlSigner.sign("toolsbucket", "photo 1+ä.jpg", Instant.parse("2025-03-14T10:00:00Z"));
+
+        Request request = new Request.Builder()
+                .url(HttpUrl.get("http://toolsminio:9000").newBuilder()
+                        .addEncodedPathSegments("toolsbucket/photo%201%2B%C3%A4.jpg")
+                        .build())
+                .header("Host", "toolsminio:9000")
+                .header("x-amz-date", "20250314T100000Z")
+                .build();
+        HttpUrl expected = Signer.presignV4(request, "us-east-1", "test_user", "test_password", 86400);
+
+        assertEquals(expected.queryParameter("X-Amz-Signature"), HttpUrl.get(result).queryParameter("X-Amz-Signature"));
+        assertEquals(expected.queryParameter("X-Amz-Credential"), HttpUrl.get(result).queryParameter("X-Amz-Credential"));
+        assertTrue(result.startsWith("http://10.3.34.38:80/toolsbucket/photo%201%2B%C3%A4.jpg?"));
+    }
+
+    @Test
+    public void sign_withinTimeBucket_returnSameUrl() {
+        String first = presignedUrlSigner.sign("toolsbucket", "file.jpg", Instant.parse("2025-03-14T10:00:01Z"));
+        String second = presignedUrlSigner.sign("toolsbucket", "file.jpg", Instant.parse("2025-03-14T10:59:59Z"));
+
+        assertEquals(first, second);
+        assertTrue(first.contains("X-Amz-Date=20250314T100000Z"));
+    }
+
+    @Test
+    public void sign_nextTimeBucket_returnNewUrl() {
+        String first = presignedUrlSigner.sign("toolsbucket", "file.jpg", Instant.parse("2025-03-14T10:59:59Z"));
+        String second = presignedUrlSigner.sign("toolsbucket", "file.jpg", Instant.parse("2025-03-14T11:00:00Z"));
+
+        assertNotEquals(first, second);
+        assertTrue(second.contains("X-Amz-Date=20250314T110000Z"));
+    }
+
+    @Test
+    public void sign_derivesSigningKeyOncePerDay() {
+        presignedUrlSigner.sign("toolsbucket", "first.jpg", Instant.parse("2025-03-14T10:00:00Z"));
+        presignedUrlSigner.sign("toolsbucket", "second.jpg", Instant.parse("2025-03-14T18:00:00Z"));
+
+        verify(minioProperties, times(1)).getPassword();
+        assertEquals(1, meterRegistry.get("minio.presign.signing.key").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("minio.presign.signing.key").tag("result", "hit").counter().count());
+
+        String nextDay = presignedUrlSigner.sign("toolsbucket", "first.jpg", Instant.parse("2025-03-15T00:00:00Z"));
+
+        verify(minioProperties, times(2)).getPassword();
+        assertTrue(nextDay.contains("X-Amz-Credential=test_user%2F20250315%2Fus-east-1%2Fs3%2Faws4_request"));
+    }
+}
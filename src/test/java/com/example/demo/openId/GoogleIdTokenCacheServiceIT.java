@@ -1,14 +1,13 @@
 package com.example.demo.openId;
 
 import com.example.demo.BaseIT;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.jwk.JWKSet;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.net.URL;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,36 +16,21 @@ public class GoogleIdTokenCacheServiceIT extends BaseIT {
     @Autowired
     private GoogleIdTokenCacheService googleIdTokenCacheService;
 
-    @Autowired
-    private CacheManager cacheManager;
-
-    @BeforeEach
-    public void setup() {
-        Cache cache = cacheManager.getCache("openid");
-        assertNotNull(cache);
-        cache.clear();
-    }
+    @Value("${openid.google.certs-url}")
+    private String certsUrl;
 
     @Test
-    public void getJwkSet_returnJwkSetAndCacheCorrectly() {
-        Cache cache = cacheManager.getCache("openid");
-        assertNotNull(cache);
+    public void getVerifier_returnVerifierAndKeepItInMemory() throws Exception {
+        String keyId = JWKSet.load(new URL(certsUrl)).getKeys().get(0).getKeyID();
 
-        long start = System.currentTimeMillis();
-        JWKSet firstCall = googleIdTokenCacheService.getJwkSet();
-        long firstDuration = System.currentTimeMillis() - start;
+        JWSVerifier firstCall = googleIdTokenCacheService.getVerifier(keyId);
         assertNotNull(firstCall);
 
-        Cache.ValueWrapper jwkset = cache.get("jwkset");
-        assertNotNull(jwkset);
-        assertNotNull(jwkset.get());
-
-        start = System.currentTimeMillis();
-        JWKSet secondCall = googleIdTokenCacheService.getJwkSet();
-        long secondDuration = System.currentTimeMillis() - start;
+        long start = System.nanoTime();
+        JWSVerifier secondCall = googleIdTokenCacheService.getVerifier(keyId);
+        long secondDuration = System.nanoTime() - start;
 
-        assertNotNull(secondCall);
-        assertEquals(firstCall, secondCall);
-        assertTrue(secondDuration < firstDuration / 2, "Get from cache");
+        assertSame(firstCall, secondCall);
+        assertTrue(secondDuration < 1_000_000, "Get from memory");
     }
 }
@@ -1,74 +1,191 @@
 package com.example.demo.openId;
 
 import com.example.demo.exception.OpenIdServiceException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-
-import static org.mockito.Mockito.*;
-
-import org.mockito.MockedStatic;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class GoogleIdTokenCacheServiceTest {
 
-    @InjectMocks
-    private GoogleIdTokenCacheService googleIdTokenCacheService = new GoogleIdTokenCacheService("https://www.googleapis.com/oauth2/v3/certs");
+    private static final String CERTS_URL = "https://www.googleapis.com/oauth2/v3/certs";
+
+    private static RSAKey firstKey;
+    private static RSAKey secondKey;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private OpenIdProperties openIdProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private GoogleIdTokenCacheService googleIdTokenCacheService;
+
+    @BeforeAll
+    public static void generateKeys() throws JOSEException {
+        firstKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        secondKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+    }
+
+    @BeforeEach
+    public void setup() {
+        openIdProperties = new OpenIdProperties();
+        openIdProperties.setCertsUrl(CERTS_URL);
+        meterRegistry = new SimpleMeterRegistry();
+        googleIdTokenCacheService = new GoogleIdTokenCacheService(restTemplate, openIdProperties, meterRegistry);
+    }
+
+    @Test
+    public void getVerifier_knownKey_fetchOnceAndVerify() throws JOSEException {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenReturn(certs("public, max-age=21600", firstKey));
+
+        JWSVerifier verifier = googleIdTokenCacheService.getVerifier("key-1");
+
+        assertTrue(sign(firstKey).verify(verifier));
+        assertSame(verifier, googleIdTokenCacheService.getVerifier("key-1"));
+        verify(restTemplate, times(1)).getForEntity(CERTS_URL, String.class);
+        assertEquals(1.0, meterRegistry.get("openid.jwks.fetch").tag("trigger", "unknownKey").tag("outcome", "success").counter().count());
+    }
 
     @Test
-    public void getJwkSet_returnJwkSet() throws IOException {
-        try (MockedStatic<JWKSet> mockedStatic = mockStatic(JWKSet.class)) {
-            URL url = new URL("https://www.googleapis.com/oauth2/v3/certs");
-            JWK jwk = mock(JWK.class);
-            JWKSet jwkSet = new JWKSet(jwk);
-            mockedStatic.when(() -> JWKSet.load(url)).thenReturn(jwkSet);
+    public void getVerifier_unknownKeyWithinMinInterval_returnNullWithoutFetch() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenReturn(certs("max-age=21600", firstKey));
+        googleIdTokenCacheService.getVerifier("key-1");
 
-            JWKSet result = googleIdTokenCacheService.getJwkSet();
+        assertNull(googleIdTokenCacheService.getVerifier("key-2"));
+        assertNull(googleIdTokenCacheService.getVerifier(null));
+        verify(restTemplate, times(1)).getForEntity(CERTS_URL, String.class);
+    }
 
-            assertNotNull(result);
-            assertEquals(1, result.getKeys().size());
-            assertSame(result.getKeys().get(0), jwk);
+    @Test
+    public void getVerifier_rotatedKey_refetch() {
+        openIdProperties.setJwksMinRefetchInterval(Duration.ZERO);
+        when(restTemplate.getForEntity(CERTS_URL, String.class))
+                .thenReturn(certs("max-age=21600", firstKey))
+                .thenReturn(certs("max-age=21600", firstKey, secondKey));
+        googleIdTokenCacheService.getVerifier("key-1");
+
+        assertNotNull(googleIdTokenCacheService.getVerifier("key-2"));
+        verify(restTemplate, times(2)).getForEntity(CERTS_URL, String.class);
+    }
 
-            mockedStatic.verify(() -> JWKSet.load(url), times(1));
-        }
+    @Test
+    public void getVerifier_refetchFailsWithKnownKeys_keepKnownKeys() {
+        openIdProperties.setJwksMinRefetchInterval(Duration.ZERO);
+        when(restTemplate.getForEntity(CERTS_URL, String.class))
+                .thenReturn(certs("max-age=21600", firstKey))
+                .thenThrow(new ResourceAccessException("Connect timed out"));
+        googleIdTokenCacheService.getVerifier("key-1");
+
+        assertNull(googleIdTokenCacheService.getVerifier("key-2"));
+        assertNotNull(googleIdTokenCacheService.getVerifier("key-1"));
+        assertEquals(1.0, meterRegistry.get("openid.jwks.fetch").tag("outcome", "error").counter().count());
     }
 
     @Test
-    public void getJwkSet_failedLoad_throwExc() throws MalformedURLException {
-        try (MockedStatic<JWKSet> mockedStatic = mockStatic(JWKSet.class)) {
-            URL url = new URL("https://www.googleapis.com/oauth2/v3/certs");
-            IOException loadException = new IOException("Load exception");
-            mockedStatic.when(() -> JWKSet.load(url)).thenThrow(loadException);
+    public void getVerifier_failedLoad_throwExc() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenThrow(new ResourceAccessException("Connect timed out"));
 
-            OpenIdServiceException openIdException = assertThrows(OpenIdServiceException.class, (() -> googleIdTokenCacheService.getJwkSet()));
-            assertEquals("Jwk set load exception: " + loadException.getMessage(), openIdException.getMessage());
+        OpenIdServiceException openIdException = assertThrows(OpenIdServiceException.class, () -> googleIdTokenCacheService.getVerifier("key-1"));
+        assertEquals("Jwk set load exception: Connect timed out", openIdException.getMessage());
 
-            mockedStatic.verify(() -> JWKSet.load(url), times(1));
-        }
+        OpenIdServiceException rateLimited = assertThrows(OpenIdServiceException.class, () -> googleIdTokenCacheService.getVerifier("key-1"));
+        assertEquals("JWK set is empty or it failed to load", rateLimited.getMessage());
+        verify(restTemplate, times(1)).getForEntity(CERTS_URL, String.class);
     }
 
     @Test
-    public void getJwkSet_failedParse_throwExc() throws MalformedURLException {
-        try (MockedStatic<JWKSet> mockedStatic = mockStatic(JWKSet.class)) {
-            URL url = new URL("https://www.googleapis.com/oauth2/v3/certs");
-            ParseException parseException = new ParseException("Parse exception", 0);
-            mockedStatic.when(() -> JWKSet.load(url)).thenThrow(parseException);
+    public void getVerifier_failedParse_throwExc() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenReturn(ResponseEntity.ok("not json"));
 
-            OpenIdServiceException openIdException = assertThrows(OpenIdServiceException.class, (() -> googleIdTokenCacheService.getJwkSet()));
-            assertEquals("Jwk set load exception: " + parseException.getMessage(), openIdException.getMessage());
+        OpenIdServiceException openIdException = assertThrows(OpenIdServiceException.class, () -> googleIdTokenCacheService.getVerifier("key-1"));
+        assertTrue(openIdException.getMessage().startsWith("Jwk set load exception: "));
+    }
+
+    @Test
+    public void refreshIfExpiring_freshKeys_skipFetch() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenReturn(certs("public, max-age=21600, must-revalidate", firstKey));
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        verify(restTemplate, times(1)).getForEntity(CERTS_URL, String.class);
+        assertNotNull(googleIdTokenCacheService.getVerifier("key-1"));
+        assertEquals(1.0, meterRegistry.get("openid.jwks.fetch").tag("trigger", "scheduled").counter().count());
+    }
+
+    @Test
+    public void refreshIfExpiring_maxAgeWithinRefreshAhead_fetchAgain() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class))
+                .thenReturn(certs("max-age=60", firstKey))
+                .thenReturn(certs("max-age=21600", secondKey));
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        verify(restTemplate, times(2)).getForEntity(CERTS_URL, String.class);
+        assertNotNull(googleIdTokenCacheService.getVerifier("key-2"));
+    }
 
-            mockedStatic.verify(() -> JWKSet.load(url), times(1));
+    @Test
+    public void refreshIfExpiring_noCacheControl_useDefaultMaxAge() {
+        openIdProperties.setJwksDefaultMaxAge(Duration.ofMinutes(1));
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenReturn(certs(null, firstKey));
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        googleIdTokenCacheService.refreshIfExpiring();
+
+        verify(restTemplate, times(2)).getForEntity(CERTS_URL, String.class);
+    }
+
+    @Test
+    public void refreshIfExpiring_fetchFails_doesNotThrow() {
+        when(restTemplate.getForEntity(CERTS_URL, String.class)).thenThrow(new ResourceAccessException("Connect timed out"));
+
+        assertDoesNotThrow(() -> googleIdTokenCacheService.refreshIfExpiring());
+    }
+
+    private static ResponseEntity<String> certs(String cacheControl, RSAKey... keys) {
+        List<JWK> publicKeys = new ArrayList<>();
+        for (RSAKey key : keys) {
+            publicKeys.add(key.toPublicJWK());
         }
+        String body = new JWKSet(publicKeys).toString();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (cacheControl != null) {
+            response.header("Cache-Control", cacheControl);
+        }
+        return response.body(body);
     }
 
-}
\ No newline at end of file
+    private static SignedJWT sign(RSAKey key) throws JOSEException {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().subject("1234567890").build());
+        signedJWT.sign(new RSASSASigner(key));
+        return signedJWT;
+    }
+}
@@ -4,10 +4,7 @@ import com.example.demo.exception.OpenIdValidationException;
 import com.example.demo.exception.OpenIdServiceException;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,8 +13,6 @@ import org.mockito.Mock;
 import static org.mockito.Mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.security.interfaces.RSAPublicKey;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,148 +44,69 @@ class GoogleIdTokenValidationServiceTest {
 
     @Test
     void validateIdToken_validToken_shouldNotThrowException() throws JOSEException {
-        String keyId = "validKeyId";
-
-        JWSHeader jwsHeader = mock(JWSHeader.class);
-        when(jwsHeader.getKeyID()).thenReturn(keyId);
-
-        SignedJWT signedJWT = mock(SignedJWT.class);
-        when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        JWK jwk = mock(JWK.class);
-        JWKSet jwkSet = new JWKSet(jwk);
-        when(idTokenCacheService.getJwkSet()).thenReturn(jwkSet);
-        when(jwk.getKeyID()).thenReturn(keyId);
-
-        RSAKey rsaKey = mock(RSAKey.class);
-        when(jwk.toRSAKey()).thenReturn(rsaKey);
-
-        RSAPublicKey rsaPublicKey = mock(RSAPublicKey.class);
-        when(rsaKey.toRSAPublicKey()).thenReturn(rsaPublicKey);
-
-        when(signedJWT.verify(any(RSASSAVerifier.class))).thenReturn(true);
+        SignedJWT signedJWT = signedJwt("validKeyId");
+        JWSVerifier verifier = mock(JWSVerifier.class);
+        when(idTokenCacheService.getVerifier("validKeyId")).thenReturn(verifier);
+        when(signedJWT.verify(verifier)).thenReturn(true);
 
         assertDoesNotThrow(() -> idTokenValidationService.validateIdToken(signedJWT));
-        verify(signedJWT, times(1)).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
-
+        verify(signedJWT, times(1)).verify(verifier);
+        verify(idTokenCacheService, times(1)).getVerifier("validKeyId");
     }
 
     @Test
-    public void validateIdToken_missingJwkSet_throwExc() throws JOSEException {
-        String keyId = "validKeyId";
-
-        JWSHeader jwsHeader = mock(JWSHeader.class);
-        when(jwsHeader.getKeyID()).thenReturn(keyId);
-
-        SignedJWT signedJWT = mock(SignedJWT.class);
-        when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        when(idTokenCacheService.getJwkSet()).thenReturn(null);
-
-        OpenIdServiceException exc = assertThrows(OpenIdServiceException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
-        assertEquals("JWK set is empty or it failed to load", exc.getMessage());
-
-        verify(signedJWT, never()).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
-    }
-
-    @Test
-    public void validateIdToken_emptyJwkSet_throwExc() throws JOSEException {
-        String keyId = "validKeyId";
-
-        JWSHeader jwsHeader = mock(JWSHeader.class);
-        when(jwsHeader.getKeyID()).thenReturn(keyId);
-
-        SignedJWT signedJWT = mock(SignedJWT.class);
-        when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        JWKSet jwkSet = new JWKSet();
-        when(idTokenCacheService.getJwkSet()).thenReturn(jwkSet);
+    public void validateIdToken_jwkSetFailedToLoad_throwExc() throws JOSEException {
+        SignedJWT signedJWT = signedJwt("validKeyId");
+        when(idTokenCacheService.getVerifier("validKeyId")).thenThrow(new OpenIdServiceException("JWK set is empty or it failed to load"));
 
         OpenIdServiceException exc = assertThrows(OpenIdServiceException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
         assertEquals("JWK set is empty or it failed to load", exc.getMessage());
 
-        verify(signedJWT, never()).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
+        verify(signedJWT, never()).verify(any(JWSVerifier.class));
     }
 
     @Test
     public void validateIdToken_invalidKeyId_throwExc() throws JOSEException {
-        JWSHeader jwsHeader = mock(JWSHeader.class);
-        when(jwsHeader.getKeyID()).thenReturn("invalidKeyId");
-
-        SignedJWT signedJWT = mock(SignedJWT.class);
-        when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        JWK jwk = mock(JWK.class);
-        JWKSet jwkSet = new JWKSet(jwk);
-        when(idTokenCacheService.getJwkSet()).thenReturn(jwkSet);
-
-        when(jwk.getKeyID()).thenReturn("validKeyId");
+        SignedJWT signedJWT = signedJwt("invalidKeyId");
+        when(idTokenCacheService.getVerifier("invalidKeyId")).thenReturn(null);
 
         OpenIdValidationException exc = assertThrows(OpenIdValidationException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
         assertEquals("Id token not valid", exc.getMessage());
-        verify(signedJWT, never()).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
+        verify(signedJWT, never()).verify(any(JWSVerifier.class));
+        verify(idTokenCacheService, times(1)).getVerifier("invalidKeyId");
     }
 
     @Test
     public void validateIdToken_invalidIdToken_throwExc() throws JOSEException {
-        String keyId = "validKeyId";
-
-        JWSHeader jwsHeader = mock(JWSHeader.class);
-        when(jwsHeader.getKeyID()).thenReturn(keyId);
-
-        SignedJWT signedJWT = mock(SignedJWT.class);
-        when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        JWK jwk = mock(JWK.class);
-        JWKSet jwkSet = new JWKSet(jwk);
-        when(idTokenCacheService.getJwkSet()).thenReturn(jwkSet);
-        when(jwk.getKeyID()).thenReturn(keyId);
-
-        RSAKey rsaKey = mock(RSAKey.class);
-        when(jwk.toRSAKey()).thenReturn(rsaKey);
-
-        RSAPublicKey rsaPublicKey = mock(RSAPublicKey.class);
-        when(rsaKey.toRSAPublicKey()).thenReturn(rsaPublicKey);
-
-        when(signedJWT.verify(any(RSASSAVerifier.class))).thenReturn(false);
+        SignedJWT signedJWT = signedJwt("validKeyId");
+        JWSVerifier verifier = mock(JWSVerifier.class);
+        when(idTokenCacheService.getVerifier("validKeyId")).thenReturn(verifier);
+        when(signedJWT.verify(verifier)).thenReturn(false);
 
         OpenIdValidationException exc = assertThrows(OpenIdValidationException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
         assertEquals("Id token not valid", exc.getMessage());
-        verify(signedJWT, times(1)).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
+        verify(signedJWT, times(1)).verify(verifier);
     }
 
     @Test
     public void validateIdToken_verifyFailed_throwExc() throws JOSEException {
-        String keyId = "validKeyId";
+        SignedJWT signedJWT = signedJwt("validKeyId");
+        JWSVerifier verifier = mock(JWSVerifier.class);
+        when(idTokenCacheService.getVerifier("validKeyId")).thenReturn(verifier);
+        JOSEException joseException = new JOSEException("exc");
+        when(signedJWT.verify(verifier)).thenThrow(joseException);
+
+        OpenIdValidationException exc = assertThrows(OpenIdValidationException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
+        assertEquals("JWK validate exception: " + joseException.getMessage(), exc.getMessage());
+        verify(signedJWT, times(1)).verify(verifier);
+    }
 
+    private static SignedJWT signedJwt(String keyId) {
         JWSHeader jwsHeader = mock(JWSHeader.class);
         when(jwsHeader.getKeyID()).thenReturn(keyId);
 
         SignedJWT signedJWT = mock(SignedJWT.class);
         when(signedJWT.getHeader()).thenReturn(jwsHeader);
-
-        JWK jwk = mock(JWK.class);
-        JWKSet jwkSet = new JWKSet(jwk);
-        when(idTokenCacheService.getJwkSet()).thenReturn(jwkSet);
-        when(jwk.getKeyID()).thenReturn(keyId);
-
-        RSAKey rsaKey = mock(RSAKey.class);
-        when(jwk.toRSAKey()).thenReturn(rsaKey);
-
-        RSAPublicKey rsaPublicKey = mock(RSAPublicKey.class);
-        when(rsaKey.toRSAPublicKey()).thenReturn(rsaPublicKey);
-
-        JOSEException joseException = new JOSEException("exc");
-        when(signedJWT.verify(any(RSASSAVerifier.class))).thenThrow(joseException);
-
-        OpenIdValidationException exc = assertThrows(OpenIdValidationException.class, () -> idTokenValidationService.validateIdToken(signedJWT));
-        assertEquals("JWK validate exception: " + joseException.getMessage(), exc.getMessage());
-        verify(signedJWT, times(1)).verify(any(RSASSAVerifier.class));
-        verify(idTokenCacheService, times(1)).getJwkSet();
+        return signedJWT;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.example.demo.openId;
 
 import com.example.demo.BaseIT;
+import com.example.demo.exception.OpenIdServiceException;
 import com.example.demo.exception.ResponseError;
 import com.example.demo.jwt.JwtService;
 import com.example.demo.user.Role;
@@ -10,6 +11,7 @@ import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
@@ -86,7 +88,7 @@ public class OpenIdIT extends BaseIT {
                 any(HttpEntity.class),
                 eq(String.class)
         )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(mockJwkSet);
+        when(idTokenCacheService.getVerifier("test-key-id")).thenReturn(new RSASSAVerifier(mockRsaKey));
 
         ResponseEntity<String> response = testRestTemplate.postForEntity(url, null, String.class);
 
@@ -105,7 +107,7 @@ public class OpenIdIT extends BaseIT {
     }
 
     @Test
-    public void getJwtTokenOpenId_userAlreadyExists_returnJwtTokenAndDoesNotCreateUser()  {
+    public void getJwtTokenOpenId_userAlreadyExists_returnJwtTokenAndDoesNotCreateUser() throws JOSEException {
         userRepository.save(User.builder()
                 .firstname("Ivan")
                 .lastname("Ivanov")
@@ -124,7 +126,7 @@ public class OpenIdIT extends BaseIT {
                 any(HttpEntity.class),
                 eq(String.class)
         )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(mockJwkSet);
+        when(idTokenCacheService.getVerifier("test-key-id")).thenReturn(new RSASSAVerifier(mockRsaKey));
 
         ResponseEntity<String> response = testRestTemplate.postForEntity(url, null, String.class);
 
@@ -155,7 +157,7 @@ public class OpenIdIT extends BaseIT {
     }
 
     @Test
-    public void getJwtTokenOpenId_emptyJwkSet_returnInternalServerError() throws JOSEException {
+    public void getJwtTokenOpenId_jwkSetFailedToLoad_returnInternalServerError() throws JOSEException {
         String authCode = "mockAuthCode";
         String state = "a2FsZmZsd2xmd2x3Zmx3ZmFhbGZ3bGZ3YWxmd2Fsd2FmbHdmYWw";
         String url = String.format("/api/v1/openid?authCode=%s&state=%s", authCode, state);
@@ -167,33 +169,7 @@ public class OpenIdIT extends BaseIT {
                 any(HttpEntity.class),
                 eq(String.class)
         )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(new JWKSet());
-
-        ResponseEntity<ResponseError> response = testRestTemplate.postForEntity(url, null, ResponseError.class);
-
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertEquals("JWK set is empty or it failed to load", response.getBody().getMessage());
-        assertEquals(500, response.getBody().getStatus());
-        assertTrue(LocalDateTime.now().isAfter(response.getBody().getTime()));
-
-        assertEquals(0, userRepository.count());
-    }
-
-    @Test
-    public void getJwtTokenOpenId_jwkSetIsNull_returnInternalServerError() throws JOSEException {
-        String authCode = "mockAuthCode";
-        String state = "a2FsZmZsd2xmd2x3Zmx3ZmFhbGZ3bGZ3YWxmd2Fsd2FmbHdmYWw";
-        String url = String.format("/api/v1/openid?authCode=%s&state=%s", authCode, state);
-
-        ResponseEntity<String> mockResponse = ResponseEntity.ok("{\"id_token\": \"" + mockIdToken + "\"}");
-        when(restTemplate.exchange(
-                eq("https://oauth2.googleapis.com/token"),
-                eq(HttpMethod.POST),
-                any(HttpEntity.class),
-                eq(String.class)
-        )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(null);
+        when(idTokenCacheService.getVerifier("test-key-id")).thenThrow(new OpenIdServiceException("JWK set is empty or it failed to load"));
 
         ResponseEntity<ResponseError> response = testRestTemplate.postForEntity(url, null, ResponseError.class);
 
@@ -221,7 +197,7 @@ public class OpenIdIT extends BaseIT {
                 any(HttpEntity.class),
                 eq(String.class)
         )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(mockJwkSet);
+        when(idTokenCacheService.getVerifier("wrong-key-id")).thenReturn(null);
 
         ResponseEntity<ResponseError> response = testRestTemplate.postForEntity(url, null, ResponseError.class);
 
@@ -274,7 +250,7 @@ public class OpenIdIT extends BaseIT {
                 any(HttpEntity.class),
                 eq(String.class)
         )).thenReturn(mockResponse);
-        when(idTokenCacheService.getJwkSet()).thenReturn(mockJwkSet);
+        when(idTokenCacheService.getVerifier("test-key-id")).thenReturn(new RSASSAVerifier(mockRsaKey));
 
         ResponseEntity<ResponseError> response = testRestTemplate.postForEntity(url, null, ResponseError.class);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
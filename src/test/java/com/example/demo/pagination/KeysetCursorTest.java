@@ -0,0 +1,46 @@
+package com.example.demo.pagination;
+
+import com.example.demo.exception.InvalidPaginationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    public void encode_decode_returnSameCursor() {
+        KeysetCursor cursor = KeysetCursor.builder()
+                .createdAt(LocalDateTime.of(2025, 3, 14, 10, 0, 0, 123456000))
+                .id(42L)
+                .build();
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void encode_decode_withoutCreatedAt_returnSameCursor() {
+        KeysetCursor cursor = KeysetCursor.builder()
+                .id(42L)
+                .build();
+
+        KeysetCursor result = KeysetCursor.decode(cursor.encode());
+
+        assertNull(result.getCreatedAt());
+        assertEquals(42L, result.getId());
+    }
+
+    @Test
+    public void decode_malformedCursor_throwExc() {
+        assertThrows(InvalidPaginationException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(InvalidPaginationException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    @Test
+    public void decodeWithCreatedAt_withoutCreatedAt_throwExc() {
+        String cursor = KeysetCursor.builder().id(42L).build().encode();
+
+        assertThrows(InvalidPaginationException.class, () -> KeysetCursor.decodeWithCreatedAt(cursor));
+    }
+}
@@ -56,6 +56,12 @@ public class ReviewIT extends BaseIT {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private UserRatingStatsRepository userRatingStatsRepository;
+
+    @Autowired
+    private UserRatingStatsRebuildJob userRatingStatsRebuildJob;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -484,6 +490,60 @@ public class ReviewIT extends BaseIT {
 
     }
 
+    @Test
+    public void send_keepRatingStatsEqualToAverageOverReviews() {
+        initDataSql();
+        List<Deal> deals = dealRepository.findAll();
+        int[] ratings = {5, 2, 4};
+        String token = registerAndGetToken("IvanIvanov2@gmail.com", "abcde");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+
+        for (int i = 0; i < deals.size(); i++) {
+            ReviewRequest reviewRequest = ReviewRequest.builder()
+                    .dealId(deals.get(i).getId())
+                    .rating(ratings[i])
+                    .message("Some message")
+                    .build();
+            testRestTemplate.postForEntity("/api/v1/reviews", new HttpEntity<>(reviewRequest, headers), ReviewDto.class);
+        }
+
+        Long userId = userRepository.findByLogin("IvanIvanov@gmail.com").get().getId();
+        UserRatingStats stats = userRatingStatsRepository.findById(userId).orElseThrow();
+        assertEquals(3L, stats.getReviewCount());
+        assertEquals(11L, stats.getRatingSum());
+
+        Double expected = reviewRepository.findAverageRatingByRecipient(userId);
+        assertEquals(expected, stats.getRatingSum() / (double) stats.getReviewCount(), 1e-9);
+
+        ResponseEntity<Double> response = testRestTemplate.exchange("/api/v1/reviews/" + userId + "/rating",
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                Double.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expected, response.getBody(), 1e-9);
+    }
+
+    @Test
+    public void rebuild_restoreRatingStatsFromReviews() {
+        initDataSql();
+        sendReviews();
+
+        Long userId = userRepository.findByLogin("IvanIvanov@gmail.com").get().getId();
+        Long requesterId = userRepository.findByLogin("IvanIvanov2@gmail.com").get().getId();
+        userRatingStatsRepository.save(UserRatingStats.builder().userId(userId).reviewCount(1L).ratingSum(1L).build());
+        userRatingStatsRepository.save(UserRatingStats.builder().userId(requesterId).reviewCount(2L).ratingSum(7L).build());
+
+        userRatingStatsRebuildJob.rebuild();
+
+        UserRatingStats stats = userRatingStatsRepository.findById(userId).orElseThrow();
+        assertEquals(3L, stats.getReviewCount());
+        assertEquals(15L, stats.getRatingSum());
+        assertEquals(reviewRepository.findAverageRatingByRecipient(userId), stats.getRatingSum() / (double) stats.getReviewCount(), 1e-9);
+        assertTrue(userRatingStatsRepository.findById(requesterId).isEmpty());
+    }
+
     private void sendReviews() {
         ReviewRequest reviewRequest = ReviewRequest.builder()
                 .dealId(0L)
@@ -565,6 +625,7 @@ public class ReviewIT extends BaseIT {
     }
 
     private void cleanSql() {
+        userRatingStatsRepository.deleteAll();
         reviewRepository.deleteAll();
         dealRepository.deleteAll();
         toolRepository.deleteAll();
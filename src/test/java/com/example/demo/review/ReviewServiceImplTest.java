@@ -4,9 +4,13 @@ import com.example.demo.deal.Deal;
 import com.example.demo.deal.DealDto;
 import com.example.demo.deal.DealRepository;
 import com.example.demo.deal.Status;
+import com.example.demo.event.ReviewCreatedEvent;
 import com.example.demo.exception.DealNotFoundException;
+import com.example.demo.exception.InvalidPaginationException;
 import com.example.demo.exception.UserDontHavePermissionException;
 import com.example.demo.exception.UserNotFoundException;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
 import com.example.demo.tool.Tool;
 import com.example.demo.user.User;
 import com.example.demo.user.UserDto;
@@ -18,10 +22,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -43,9 +49,15 @@ class ReviewServiceImplTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private UserRatingStatsRepository userRatingStatsRepository;
+
     @Mock
     private ReviewMapper reviewMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -146,6 +158,8 @@ class ReviewServiceImplTest {
         verify(reviewRepository, times(1)).existsBySenderAndDeal(requester, deal);
         verify(reviewMapper, times(1)).toDto(firstReview);
         verify(reviewRepository, times(1)).save(argumentCaptor.capture());
+        verify(userRatingStatsRepository, times(1)).increment(owner.getId(), 5);
+        verify(eventPublisher, times(1)).publishEvent(ReviewCreatedEvent.builder().recipientId(owner.getId()).build());
 
         Review review = argumentCaptor.getValue();
         assertNotNull(review);
@@ -175,6 +189,7 @@ class ReviewServiceImplTest {
         verify(reviewRepository, times(1)).existsBySenderAndDeal(owner, deal);
         verify(reviewMapper, times(1)).toDto(secondReview);
         verify(reviewRepository, times(1)).save(argumentCaptor.capture());
+        verify(userRatingStatsRepository, times(1)).increment(requester.getId(), 5);
 
         Review review = argumentCaptor.getValue();
         assertNotNull(review);
@@ -242,6 +257,7 @@ class ReviewServiceImplTest {
         verify(dealRepository, times(1)).findById(1L);
         verify(reviewRepository, times(1)).existsBySenderAndDeal(requester, deal);
         verify(reviewRepository, never()).save(any(Review.class));
+        verifyNoInteractions(userRatingStatsRepository);
     }
 
     @Test
@@ -264,10 +280,50 @@ class ReviewServiceImplTest {
         verify(reviewMapper, times(1)).toDto(secondReview);
     }
 
+    @Test
+    public void findByUserAfter_withoutCursor_returnFirstSliceAndNextCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 10, 0);
+        secondReview.setId(2L);
+        secondReview.setCreatedAt(createdAt);
+        when(userService.findById(1L)).thenReturn(owner);
+        when(reviewRepository.findFirstSliceByRecipient(owner, PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstReview, secondReview), PageRequest.ofSize(2), true));
+        when(reviewMapper.toDto(firstReview)).thenReturn(firstReviewDto);
+        when(reviewMapper.toDto(secondReview)).thenReturn(secondReviewDto);
+
+        CursorPage<ReviewDto> result = reviewService.findByUserAfter(1L, null, 2);
+
+        assertEquals(List.of(firstReviewDto, secondReviewDto), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(KeysetCursor.builder().createdAt(createdAt).id(2L).build(), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    public void findByUserAfter_cursorWithoutCreatedAt_throwExc() {
+        when(userService.findById(1L)).thenReturn(owner);
+        String cursor = KeysetCursor.builder().id(5L).build().encode();
+
+        assertThrows(InvalidPaginationException.class, () -> reviewService.findByUserAfter(1L, cursor, 2));
+
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    public void findByUserAfter_pageSizeOutOfRange_throwExc() {
+        when(userService.findById(1L)).thenReturn(owner);
+
+        assertThrows(InvalidPaginationException.class, () -> reviewService.findByUserAfter(1L, null, 0));
+
+        verifyNoInteractions(reviewRepository);
+    }
+
     @Test
     public void getAverageRatingByUser_returnAverageRating() {
         when(userService.findById(1L)).thenReturn(owner);
-        when(reviewRepository.findAverageRatingByRecipient(owner.getId())).thenReturn(4.9);
+        when(userRatingStatsRepository.findById(owner.getId())).thenReturn(Optional.of(UserRatingStats.builder()
+                .userId(owner.getId())
+                .reviewCount(10L)
+                .ratingSum(49L)
+                .build()));
 
         Double result = reviewService.getAverageRatingByUser(1L);
 
@@ -275,7 +331,21 @@ class ReviewServiceImplTest {
         assertEquals(4.9, result);
 
         verify(userService, times(1)).findById(1L);
-        verify(reviewRepository, times(1)).findAverageRatingByRecipient(owner.getId());
+        verify(userRatingStatsRepository, times(1)).findById(owner.getId());
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    public void getAverageRatingByUser_withoutReviews_returnNull() {
+        when(userService.findById(1L)).thenReturn(owner);
+        when(userRatingStatsRepository.findById(owner.getId())).thenReturn(Optional.empty());
+
+        Double result = reviewService.getAverageRatingByUser(1L);
+
+        assertNull(result);
+
+        verify(userService, times(1)).findById(1L);
+        verify(userRatingStatsRepository, times(1)).findById(owner.getId());
     }
 
-}
\ No newline at end of file
+}
@@ -1,11 +1,13 @@
 package com.example.demo.tool;
 
 import com.example.demo.category.CategoryDto;
+import com.example.demo.exception.InvalidPaginationException;
 import com.example.demo.exception.ManufacturerNotFoundException;
 import com.example.demo.exception.ToolNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
 import com.example.demo.handler.GlobalHandler;
 import com.example.demo.manufacturer.ManufacturerDto;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.user.UserDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -215,6 +217,83 @@ class ToolControllerTest {
         verify(toolService, times(1)).search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"), mockPageable);
     }
 
+    @Test
+    public void searchAfter_returnCursorPage() throws Exception {
+        CursorPage<ToolDto> cursorPage = CursorPage.<ToolDto>builder()
+                .content(List.of(firstToolDto, secondToolDto))
+                .size(2)
+                .nextCursor("next-cursor")
+                .hasNext(true)
+                .build();
+        when(toolService.searchAfter("description", null, null, null, null, null, null, "cursor", 2)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/tools/search/cursor")
+                        .param("description", "description")
+                        .param("cursor", "cursor")
+                        .param("pageSize", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[1].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(toolService, times(1)).searchAfter("description", null, null, null, null, null, null, "cursor", 2);
+    }
+
+    @Test
+    public void searchAfter_malformedCursor_returnBadRequest() throws Exception {
+        when(toolService.searchAfter(null, null, null, null, null, null, null, "bad", 10))
+                .thenThrow(new InvalidPaginationException("Cursor is malformed"));
+
+        mockMvc.perform(get("/api/v1/tools/search/cursor")
+                        .param("cursor", "bad")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor is malformed"));
+    }
+
+    @Test
+    public void findAllAfter_returnCursorPage() throws Exception {
+        CursorPage<ToolDto> cursorPage = CursorPage.<ToolDto>builder()
+                .content(List.of(firstToolDto, secondToolDto))
+                .size(2)
+                .nextCursor("next-cursor")
+                .hasNext(true)
+                .build();
+        when(toolService.findAllAfter("cursor", 2)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/tools/cursor")
+                        .param("cursor", "cursor")
+                        .param("pageSize", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[1].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(toolService, times(1)).findAllAfter("cursor", 2);
+    }
+
+    @Test
+    public void findMyAfter_withoutCursor_returnFirstPage() throws Exception {
+        CursorPage<ToolDto> cursorPage = CursorPage.<ToolDto>builder()
+                .content(List.of(firstToolDto))
+                .size(10)
+                .hasNext(false)
+                .build();
+        when(toolService.findMyAfter(null, 10)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/tools/my/cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(toolService, times(1)).findMyAfter(null, 10);
+    }
+
     @Test
     public void create_createsTool() throws Exception {
         ToolCreateUpdateDto toolCreateUpdateDto = ToolCreateUpdateDto.builder()
@@ -0,0 +1,76 @@
+package com.example.demo.tool;
+
+import com.example.demo.event.PhotoVariantsReadyEvent;
+import com.example.demo.exception.ToolNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ToolDetailsCacheTest {
+
+    @Mock
+    private ToolRepository toolRepository;
+
+    @Mock
+    private ToolMapper toolMapper;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private ToolDetailsCache toolDetailsCache;
+
+    @Test
+    public void get_returnUnsignedDto() {
+        Tool tool = Tool.builder().id(1L).build();
+        ToolDto toolDto = ToolDto.builder().id(1L).build();
+        when(toolRepository.findById(1L)).thenReturn(Optional.of(tool));
+        when(toolMapper.toUnsignedDto(tool)).thenReturn(toolDto);
+
+        assertEquals(toolDto, toolDetailsCache.get(1L));
+
+        verify(toolMapper, never()).toDto(any());
+    }
+
+    @Test
+    public void get_notFound_throwExc() {
+        when(toolRepository.findById(1L)).thenReturn(Optional.empty());
+
+        ToolNotFoundException toolNotFoundException = assertThrows(ToolNotFoundException.class, () -> toolDetailsCache.get(1L));
+        assertEquals("Tool with id: 1 not found", toolNotFoundException.getMessage());
+    }
+
+    @Test
+    public void handlePhotoVariantsReady_evictToolsShowingPhoto() {
+        when(toolRepository.findIdsByPhoto("photo1.jpg")).thenReturn(List.of(1L, 2L));
+        when(cacheManager.getCache("tools")).thenReturn(cache);
+
+        toolDetailsCache.handlePhotoVariantsReady(new PhotoVariantsReadyEvent("photo1.jpg"));
+
+        verify(cache, times(1)).evict(1L);
+        verify(cache, times(1)).evict(2L);
+    }
+
+    @Test
+    public void handlePhotoVariantsReady_photoNotUsed_doNothing() {
+        when(toolRepository.findIdsByPhoto("photo1.jpg")).thenReturn(List.of());
+
+        toolDetailsCache.handlePhotoVariantsReady(new PhotoVariantsReadyEvent("photo1.jpg"));
+
+        verifyNoInteractions(cacheManager);
+    }
+}
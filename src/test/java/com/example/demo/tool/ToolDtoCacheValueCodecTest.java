@@ -0,0 +1,74 @@
+package com.example.demo.tool;
+
+import com.example.demo.category.CategoryDto;
+import com.example.demo.manufacturer.ManufacturerDto;
+import com.example.demo.user.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolDtoCacheValueCodecTest {
+
+    private final ToolDtoCacheValueCodec codec = new ToolDtoCacheValueCodec();
+
+    @Test
+    public void encode_roundTripAllFields() throws IOException {
+        ToolDto tool = tool();
+
+        assertEquals(tool, codec.decode(new ByteArrayInputStream(encode(tool))));
+    }
+
+    @Test
+    public void encode_roundTripNullFields() throws IOException {
+        ToolDto tool = ToolDto.builder().id(1L).build();
+
+        assertEquals(tool, codec.decode(new ByteArrayInputStream(encode(tool))));
+    }
+
+    @Test
+    public void decode_truncated_throwException() throws IOException {
+        byte[] bytes = encode(tool());
+
+        assertThrows(EOFException.class, () -> codec.decode(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2))));
+    }
+
+    @Test
+    public void encode_writeNoTypeInformation() throws IOException {
+        int size = encode(tool()).length;
+
+        assertTrue(size < 300, "Encoded size: " + size);
+    }
+
+    private byte[] encode(ToolDto tool) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(tool, out);
+        return out.toByteArray();
+    }
+
+    private static ToolDto tool() {
+        return ToolDto.builder()
+                .id(1L)
+                .owner(UserDto.builder().id(2L).firstname("Ivan").lastname("Ivanov").build())
+                .manufacturer(ManufacturerDto.builder().id(3L).name("Makita").build())
+                .category(CategoryDto.builder().id(4L).name("Drill").build())
+                .type(Type.RENT)
+                .condition(Condition.USED)
+                .price(new BigDecimal("3000.50"))
+                .description("Cordless drill, два аккумулятора")
+                .photos(List.of("a.jpg", "b.png"))
+                .mediumPhotos(List.of("medium/a.jpg.jpg", "medium/b.png.jpg"))
+                .thumbnails(List.of("thumb/a.jpg.jpg", "thumb/b.png.jpg"))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 30, 15, 123_456_000))
+                .updatedAt(LocalDateTime.of(2024, 2, 1, 8, 0))
+                .build();
+    }
+}
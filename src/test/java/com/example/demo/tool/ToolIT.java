@@ -9,36 +9,54 @@ import com.example.demo.auth.AuthenticationResponse;
 import com.example.demo.category.Category;
 import com.example.demo.category.CategoryRepository;
 import com.example.demo.elasticsearch.*;
+import com.example.demo.event.ToolOutboxRepository;
 import com.example.demo.exception.ElasticsearchException;
 import com.example.demo.exception.MinIoException;
 import com.example.demo.exception.ResponseError;
+import com.example.demo.exception.ToolNotFoundException;
+import com.example.demo.image.ImageVariant;
+import com.example.demo.image.Photo;
+import com.example.demo.image.PhotoRepository;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.manufacturer.ManufacturerRepository;
 import com.example.demo.minio.MinioInitializer;
 import com.example.demo.minio.MinioProperties;
+import com.example.demo.pagination.CursorPage;
 import com.example.demo.user.Role;
 import com.example.demo.user.User;
 import com.example.demo.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.*;
+import jakarta.persistence.EntityManagerFactory;
 import io.minio.errors.ErrorResponseException;
 import io.minio.messages.Item;
 import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.testcontainers.shaded.org.awaitility.Awaitility;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -46,11 +64,18 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class ToolIT extends BaseIT {
 
+    @Autowired
+    private ToolOutboxRepository toolOutboxRepository;
+
     @Autowired
     private ToolRepository toolRepository;
 
+    @Autowired
+    private PhotoRepository photoRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -90,6 +115,15 @@ public class ToolIT extends BaseIT {
     @Autowired
     private MinioInitializer minioInitializer;
 
+    @Autowired
+    private ToolService toolService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final List<String> photos = List.of("photo1.jpg", "photo2.jpg", "photo3.jpg", "photo4.jpg", "photo5.jpg");
 
     @BeforeEach
@@ -176,6 +210,63 @@ public class ToolIT extends BaseIT {
         });
     }
 
+    @Test
+    public void findAll_loadPageWithConstantNumberOfStatements() {
+        initDataSqlWithDistinctRelations(6);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Page<ToolDto> smallPage = toolService.findAll(PageRequest.of(0, 3));
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<ToolDto> fullPage = toolService.findAll(PageRequest.of(0, 6));
+        long fullPageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(3, smallPage.getContent().size());
+        assertEquals(6, fullPage.getContent().size());
+        fullPage.getContent().forEach(tool -> {
+            assertNotNull(tool.getOwner());
+            assertNotNull(tool.getManufacturer());
+            assertNotNull(tool.getCategory());
+            assertEquals(2, tool.getPhotos().size());
+        });
+        assertEquals(3, smallPageStatements, "Select page, count and one batch of photos");
+        assertEquals(smallPageStatements, fullPageStatements);
+    }
+
+    @Test
+    public void findAllAfter_walkAllPagesNewestFirst() {
+        initDataSql();
+        initDataMinio();
+        String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        List<String> descriptions = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/v1/tools/cursor?pageSize=2" + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<CursorPage<ToolDto>> response = testRestTemplate.exchange(url,
+                    HttpMethod.GET,
+                    request,
+                    new ParameterizedTypeReference<>() {
+                    });
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getBody());
+            response.getBody().getContent().forEach(el -> descriptions.add(el.getDescription()));
+            cursor = response.getBody().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Screwdriver 5", "Wrench 4", "Hammer 3", "Saw 2", "Drill 1"), descriptions);
+    }
+
     @Test
     public void findAll_withNoTools_returnEmptyList() {
         String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
@@ -397,6 +488,7 @@ public class ToolIT extends BaseIT {
         Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
                 elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 1); // Wait until document appears in ES
         assertTrue(isDocumentExistsInElastic(savedTool.getId()), "Elasticsearch create document correctly");
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> toolOutboxRepository.count() == 0); // Relay removes delivered outbox events
 
         List<String> savedToolPhotos = toolRepository.findByIdWithPhotos(savedTool.getId()).get().getPhotos();
         assertTrue(isFileExistsInMinio(savedToolPhotos.get(0)), "Minio create file correctly");
@@ -565,6 +657,7 @@ public class ToolIT extends BaseIT {
         Tool existingTool = toolRepository.findAll().get(0);
         Long toolId = existingTool.getId();
         List<String> existingPhotos = toolRepository.findByIdWithPhotos(toolId).get().getPhotos();
+        assertEquals(existingTool.getDescription(), toolService.findById(toolId).getDescription()); // Cache tool details before the update
 
         Long manufacturerId = manufacturerRepository.findAll().get(0).getId();
         Long categoryId = categoryRepository.findAll().get(0).getId();
@@ -605,6 +698,7 @@ public class ToolIT extends BaseIT {
         assertEquals(Condition.USED, updatedTool.getCondition());
         assertEquals(new BigDecimal("4000.00"), updatedTool.getPrice());
         assertEquals("Updated description", updatedTool.getDescription());
+        assertEquals("Updated description", toolService.findById(toolId).getDescription(), "Tool details evicted from cache after commit");
 
         List<String> updatedPhotos = toolRepository.findByIdWithPhotos(toolId).get().getPhotos();
         assertNotNull(updatedPhotos);
@@ -616,7 +710,81 @@ public class ToolIT extends BaseIT {
         assertTrue(isDocumentExistsInElastic(toolId), "Elasticsearch update document correctly");
 
         assertTrue(isFileExistsInMinio(updatedPhotos.get(0)), "Minio create new file correctly");
-        assertFalse(isFileExistsInMinio(existingPhotos.get(0)), "Deleted file should be removed from minio");
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                !isFileExistsInMinio(existingPhotos.get(0))); // Deleted photos are removed after commit
+    }
+
+    @Test
+    public void create_connectionHoldTimeIndependentOfPhotoSize() {
+        initDataSql();
+        String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
+        createToolWithPhoto(token, 1024);
+
+        double smallPhotoHoldMillis = connectionHoldMillis(() -> createToolWithPhoto(token, 1024));
+        double largePhotoHoldMillis = connectionHoldMillis(() -> createToolWithPhoto(token, 64 * 1024 * 1024));
+
+        assertTrue(largePhotoHoldMillis < smallPhotoHoldMillis + 250,
+                "Connections were held for %.0f ms with a 64 MB photo and %.0f ms with a 1 KB photo".formatted(largePhotoHoldMillis, smallPhotoHoldMillis));
+    }
+
+    @Test
+    public void create_samePhotoTwice_storeOnceAndRemoveWithLastReference() {
+        initDataSql();
+        String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        createToolWithPhoto(token, 2048);
+        createToolWithPhoto(token, 2048);
+
+        List<Tool> created = toolRepository.findAll().stream()
+                .filter(el -> el.getDescription().equals("Tool with photo of 2048 bytes"))
+                .toList();
+        String firstPhoto = toolRepository.findByIdWithPhotos(created.get(0).getId()).get().getPhotos().get(0);
+        String secondPhoto = toolRepository.findByIdWithPhotos(created.get(1).getId()).get().getPhotos().get(0);
+        assertEquals(firstPhoto, secondPhoto);
+        assertEquals(2, photoRepository.findById(firstPhoto).get().getRefCount());
+
+        testRestTemplate.exchange("/api/v1/tools/%d".formatted(created.get(0).getId()), HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                photoRepository.findById(firstPhoto).get().getRefCount() == 1); // References are released after commit
+        assertTrue(isFileExistsInMinio(firstPhoto), "Photo still referenced by another tool should stay in minio");
+
+        testRestTemplate.exchange("/api/v1/tools/%d".formatted(created.get(1).getId()), HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                !isFileExistsInMinio(firstPhoto) && photoRepository.findById(firstPhoto).isEmpty()); // Last reference removes the photo
+    }
+
+    @Test
+    public void update_photoNotOwnedByTool_keepPhotoInMinio() {
+        initDataSql();
+        initDataMinio();
+        List<Tool> tools = toolRepository.findAll();
+        Long toolId = tools.get(0).getId();
+        String foreignPhoto = toolRepository.findByIdWithPhotos(tools.get(1).getId()).get().getPhotos().get(0);
+
+        String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("tool", ToolCreateUpdateDto.builder()
+                .manufacturerId(manufacturerRepository.findAll().get(0).getId())
+                .categoryId(categoryRepository.findAll().get(0).getId())
+                .type(Type.RENT)
+                .condition(Condition.NEW)
+                .price(new BigDecimal("100"))
+                .description("Updated description")
+                .build());
+        body.add("files", photoResource(16));
+        body.add("filesToDelete", List.of(foreignPhoto));
+
+        ResponseEntity<Void> response = testRestTemplate.exchange("/api/v1/tools/%d".formatted(toolId),
+                HttpMethod.PUT,
+                new HttpEntity<>(body, headers),
+                Void.class);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(List.of(foreignPhoto), toolRepository.findByIdWithPhotos(tools.get(1).getId()).get().getPhotos());
+        assertTrue(isFileExistsInMinio(foreignPhoto), "Photo of another tool should stay in minio");
     }
 
     @Test
@@ -1004,6 +1172,7 @@ public class ToolIT extends BaseIT {
         Tool toolToDelete = toolRepository.findAll().get(0);
         Long toolToDeleteId = toolToDelete.getId();
         List<String> deleteToolPhotos = toolRepository.findByIdWithPhotos(toolToDeleteId).get().getPhotos();
+        assertNotNull(toolService.findById(toolToDeleteId)); // Cache tool details before the delete
 
         String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
 
@@ -1018,12 +1187,66 @@ public class ToolIT extends BaseIT {
 
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertTrue(toolRepository.findById(toolToDeleteId).isEmpty());
+        assertThrows(ToolNotFoundException.class, () -> toolService.findById(toolToDeleteId), "Tool details evicted from cache after commit");
 
         Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
                 elasticsearchClient.count(c -> c.index(elasticProperties.getIndex())).count() == 4); // Wait until document deleted from ES
         assertFalse(isDocumentExistsInElastic(toolToDeleteId), "Elasticsearch delete document correctly");
 
-        assertFalse(isFileExistsInMinio(deleteToolPhotos.get(0)), "Minio delete file correctly");
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                !isFileExistsInMinio(deleteToolPhotos.get(0))); // Photos are removed after commit
+    }
+
+    @Test
+    public void create_generatePhotoVariants_removeThemWithTool() throws IOException {
+        initDataSql();
+        String token = registerAndGetToken("IvanIvanov@gmail.com", "abcde");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+
+        ByteArrayOutputStream photo = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2400, 1600, BufferedImage.TYPE_INT_RGB), "jpg", photo);
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("tool", ToolCreateUpdateDto.builder()
+                .manufacturerId(manufacturerRepository.findAll().get(0).getId())
+                .categoryId(categoryRepository.findAll().get(0).getId())
+                .type(Type.RENT)
+                .condition(Condition.NEW)
+                .price(new BigDecimal("100"))
+                .description("Tool with variants")
+                .build());
+        body.add("files", new ByteArrayResource(photo.toByteArray()) {
+            @Override
+            public String getFilename() {
+                return "photo.jpg";
+            }
+        });
+
+        ResponseEntity<ToolDto> response = testRestTemplate.postForEntity("/api/v1/tools", new HttpEntity<>(body, headers), ToolDto.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, response.getBody().getThumbnails().size());
+        assertEquals(1, response.getBody().getMediumPhotos().size());
+
+        String fileName = toolRepository.findByIdWithPhotos(response.getBody().getId()).get().getPhotos().get(0);
+        String thumbnail = ImageVariant.THUMBNAIL.fileName(fileName, minioProperties.getVariantFormat());
+        String medium = ImageVariant.MEDIUM.fileName(fileName, minioProperties.getVariantFormat());
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() ->
+                isFileExistsInMinio(thumbnail) && isFileExistsInMinio(medium)); // Variants are generated after commit
+
+        try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(minioProperties.getBucket())
+                .object(thumbnail)
+                .build())) {
+            BufferedImage image = ImageIO.read(inputStream);
+            assertEquals(minioProperties.getThumbnailSize(), image.getWidth());
+        } catch (Exception e) {
+            throw new MinIoException("Get file failed: " + e.getMessage(), e);
+        }
+
+        testRestTemplate.exchange(String.format("/api/v1/tools/%d", response.getBody().getId()), HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() ->
+                !isFileExistsInMinio(fileName) && !isFileExistsInMinio(thumbnail) && !isFileExistsInMinio(medium)); // Variants are removed with the photo
     }
 
     @Test
@@ -1088,6 +1311,45 @@ public class ToolIT extends BaseIT {
         assertTrue(LocalDateTime.now().isAfter(response.getBody().getTime()));
     }
 
+    private void createToolWithPhoto(String token, int photoSize) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", token);
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("tool", ToolCreateUpdateDto.builder()
+                .manufacturerId(manufacturerRepository.findAll().get(0).getId())
+                .categoryId(categoryRepository.findAll().get(0).getId())
+                .type(Type.RENT)
+                .condition(Condition.NEW)
+                .price(new BigDecimal("100"))
+                .description("Tool with photo of %d bytes".formatted(photoSize))
+                .build());
+        body.add("files", photoResource(photoSize));
+
+        ResponseEntity<ToolDto> response = testRestTemplate.postForEntity("/api/v1/tools", new HttpEntity<>(body, headers), ToolDto.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    }
+
+    private ByteArrayResource photoResource(int size) {
+        return new ByteArrayResource(new byte[size]) {
+            @Override
+            public String getFilename() {
+                return "photo.jpg";
+            }
+        };
+    }
+
+    private double connectionHoldMillis(Runnable action) {
+        double before = connectionUsageMillis();
+        action.run();
+        return connectionUsageMillis() - before;
+    }
+
+    private double connectionUsageMillis() {
+        return meterRegistry.find("hikaricp.connections.usage").timers().stream()
+                .mapToDouble(el -> el.totalTime(TimeUnit.MILLISECONDS))
+                .sum();
+    }
+
     private String registerAndGetToken(String login, String password) {
         Optional<User> byLogin = userRepository.findByLogin(login);
         if (byLogin.isEmpty()) {
@@ -1133,6 +1395,18 @@ public class ToolIT extends BaseIT {
         toolRepository.saveAll(tools);
     }
 
+    private void initDataSqlWithDistinctRelations(int count) {
+        for (int i = 0; i < count; i++) {
+            User owner = userRepository.save(User.builder().firstname("Owner").lastname(String.valueOf(i))
+                    .login("owner" + i + "@gmail.com").password(passwordEncoder.encode("abcde")).role(Role.ROLE_USER).build());
+            Manufacturer manufacturer = manufacturerRepository.save(Manufacturer.builder().name("Manufacturer " + i).build());
+            Category category = categoryRepository.save(Category.builder().name("Category " + i).build());
+
+            toolRepository.save(Tool.builder().owner(owner).manufacturer(manufacturer).category(category).type(Type.RENT).condition(Condition.NEW)
+                    .price(BigDecimal.valueOf(10 + i)).description("Tool " + i).photos(List.of(photos.get(0), photos.get(1))).build());
+        }
+    }
+
     @SneakyThrows
     private void initDataMinio() {
         String bucketName = minioProperties.getBucket();
@@ -1143,6 +1417,7 @@ public class ToolIT extends BaseIT {
                     .bucket(bucketName)
                     .object(photo)
                     .build());
+            photoRepository.save(Photo.builder().name(photo).refCount(1).build());
         }
     }
 
@@ -1197,7 +1472,7 @@ public class ToolIT extends BaseIT {
         boolean bucketExists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
 
         if (bucketExists) {
-            Iterable<Result<Item>> objects = minioClient.listObjects(ListObjectsArgs.builder().bucket(bucketName).build());
+            Iterable<Result<Item>> objects = minioClient.listObjects(ListObjectsArgs.builder().bucket(bucketName).recursive(true).build());
 
             for (Result<Item> object : objects) {
                 minioClient.removeObject(RemoveObjectArgs.builder()
@@ -1216,7 +1491,13 @@ public class ToolIT extends BaseIT {
         String index = elasticProperties.getIndex();
 
         try {
-            elasticsearchClient.indices().delete(d -> d.index(index));
+            List<String> indices = List.copyOf(elasticsearchClient.indices().get(g -> g
+                    .index(index)
+                    .ignoreUnavailable(true)
+                    .allowNoIndices(true)).result().keySet());
+            if (!indices.isEmpty()) {
+                elasticsearchClient.indices().delete(d -> d.index(indices));
+            }
         } catch (IOException e) {
             throw new ElasticsearchException("Delete index failed:" + e.getMessage(), e);
         }
@@ -1229,7 +1510,9 @@ public class ToolIT extends BaseIT {
     }
 
     private void cleanSql() {
+        toolOutboxRepository.deleteAll();
         toolRepository.deleteAll();
+        photoRepository.deleteAll();
         categoryRepository.deleteAll();
         manufacturerRepository.deleteAll();
         userRepository.deleteAll();
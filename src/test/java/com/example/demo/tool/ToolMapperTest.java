@@ -3,6 +3,7 @@ package com.example.demo.tool;
 import com.example.demo.category.Category;
 import com.example.demo.category.CategoryDto;
 import com.example.demo.category.CategoryMapper;
+import com.example.demo.image.PhotoRepository;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.manufacturer.ManufacturerDto;
 import com.example.demo.manufacturer.ManufacturerMapper;
@@ -23,6 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +48,9 @@ class ToolMapperTest {
     @Mock
     private MinioProperties minioProperties;
 
+    @Mock
+    private PhotoRepository photoRepository;
+
     @InjectMocks
     private ToolMapper toolMapper;
 
@@ -70,8 +77,19 @@ class ToolMapperTest {
         when(userMapper.toDto(owner)).thenReturn(UserDto.builder().firstname("Ivan").build());
         when(manufacturerMapper.toDto(manufacturer)).thenReturn(ManufacturerDto.builder().id(1L).build());
         when(categoryMapper.toDto(category)).thenReturn(CategoryDto.builder().id(1L).build());
-        when(minioService.getPresignedUrl("photo1.jpg", "test-bucket")).thenReturn("http://minio/photo1.jpg");
-        when(minioService.getPresignedUrl("photo2.jpg", "test-bucket")).thenReturn("http://minio/photo2.jpg");
+        when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        when(photoRepository.findWithVariants(List.of("photo1.jpg", "photo2.jpg"))).thenReturn(Set.of("photo1.jpg", "photo2.jpg"));
+        when(minioService.getPresignedUrls(List.of(
+                "photo1.jpg", "photo2.jpg",
+                "medium/photo1.jpg.jpg", "medium/photo2.jpg.jpg",
+                "thumb/photo1.jpg.jpg", "thumb/photo2.jpg.jpg"), "test-bucket")).thenReturn(Map.of(
+                "photo1.jpg", "http://minio/photo1.jpg",
+                "medium/photo1.jpg.jpg", "http://minio/medium/photo1.jpg.jpg",
+                "thumb/photo1.jpg.jpg", "http://minio/thumb/photo1.jpg.jpg",
+                "photo2.jpg", "http://minio/photo2.jpg",
+                "medium/photo2.jpg.jpg", "http://minio/medium/photo2.jpg.jpg",
+                "thumb/photo2.jpg.jpg", "http://minio/thumb/photo2.jpg.jpg"
+        ));
 
         ToolDto result = toolMapper.toDto(tool);
 
@@ -88,9 +106,113 @@ class ToolMapperTest {
         assertNotNull(tool.getUpdatedAt());
         assertEquals("http://minio/photo1.jpg", result.getPhotos().get(0));
         assertEquals("http://minio/photo2.jpg", result.getPhotos().get(1));
+        assertEquals(List.of("http://minio/medium/photo1.jpg.jpg", "http://minio/medium/photo2.jpg.jpg"), result.getMediumPhotos());
+        assertEquals(List.of("http://minio/thumb/photo1.jpg.jpg", "http://minio/thumb/photo2.jpg.jpg"), result.getThumbnails());
+
+        verify(minioService, times(1)).getPresignedUrls(anyCollection(), eq("test-bucket"));
+    }
+
+    @Test
+    public void toDtos_requestsAllPhotoUrlsAtOnce() {
+        Tool firstTool = Tool.builder()
+                .id(1L)
+                .owner(User.builder().build())
+                .manufacturer(Manufacturer.builder().build())
+                .category(Category.builder().build())
+                .photos(List.of("photo1.jpg", "photo2.jpg"))
+                .build();
+        Tool secondTool = Tool.builder()
+                .id(2L)
+                .owner(User.builder().build())
+                .manufacturer(Manufacturer.builder().build())
+                .category(Category.builder().build())
+                .photos(List.of("photo3.jpg"))
+                .build();
+
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        when(photoRepository.findWithVariants(List.of("photo1.jpg", "photo2.jpg", "photo3.jpg"))).thenReturn(Set.of("photo3.jpg"));
+        when(minioService.getPresignedUrls(anyCollection(), eq("test-bucket"))).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .collect(Collectors.toMap(el -> el, el -> "http://minio/" + el)));
+
+        List<ToolDto> result = toolMapper.toDtos(List.of(firstTool, secondTool));
+
+        assertEquals(2, result.size());
+        assertEquals(List.of("http://minio/photo1.jpg", "http://minio/photo2.jpg"), result.get(0).getPhotos());
+        assertEquals(List.of("http://minio/photo3.jpg"), result.get(1).getPhotos());
+        assertEquals(List.of("http://minio/photo1.jpg", "http://minio/photo2.jpg"), result.get(0).getThumbnails());
+        assertEquals(List.of("http://minio/thumb/photo3.jpg.jpg"), result.get(1).getThumbnails());
+        verify(photoRepository, times(1)).findWithVariants(anyCollection());
+
+        verify(minioService, times(1)).getPresignedUrls(anyCollection(), eq("test-bucket"));
+        verify(minioService, never()).getPresignedUrl(anyString(), anyString());
+    }
+
+    @Test
+    public void toUnsignedDto_keepObjectNamesWithoutSigning() {
+        Tool tool = Tool.builder()
+                .id(1L)
+                .owner(User.builder().build())
+                .manufacturer(Manufacturer.builder().build())
+                .category(Category.builder().build())
+                .photos(List.of("photo1.jpg"))
+                .build();
+
+        when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        when(photoRepository.findWithVariants(List.of("photo1.jpg"))).thenReturn(Set.of("photo1.jpg"));
+
+        ToolDto result = toolMapper.toUnsignedDto(tool);
+
+        assertEquals(List.of("photo1.jpg"), result.getPhotos());
+        assertEquals(List.of("medium/photo1.jpg.jpg"), result.getMediumPhotos());
+        assertEquals(List.of("thumb/photo1.jpg.jpg"), result.getThumbnails());
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    public void withPhotoUrls_signCopyAndKeepOriginal() {
+        ToolDto tool = ToolDto.builder()
+                .id(1L)
+                .description("Some description")
+                .photos(List.of("photo1.jpg"))
+                .mediumPhotos(List.of("medium/photo1.jpg.jpg"))
+                .thumbnails(List.of("thumb/photo1.jpg.jpg"))
+                .build();
+
+        when(minioProperties.getBucket()).thenReturn("test-bucket");
+        when(minioService.getPresignedUrls(List.of("photo1.jpg", "medium/photo1.jpg.jpg", "thumb/photo1.jpg.jpg"), "test-bucket")).thenReturn(Map.of(
+                "photo1.jpg", "http://minio/photo1.jpg",
+                "medium/photo1.jpg.jpg", "http://minio/medium/photo1.jpg.jpg",
+                "thumb/photo1.jpg.jpg", "http://minio/thumb/photo1.jpg.jpg"
+        ));
+
+        ToolDto result = toolMapper.withPhotoUrls(tool);
+
+        assertEquals("Some description", result.getDescription());
+        assertEquals(List.of("http://minio/photo1.jpg"), result.getPhotos());
+        assertEquals(List.of("http://minio/medium/photo1.jpg.jpg"), result.getMediumPhotos());
+        assertEquals(List.of("http://minio/thumb/photo1.jpg.jpg"), result.getThumbnails());
+        assertEquals(List.of("photo1.jpg"), tool.getPhotos());
+        verifyNoInteractions(photoRepository);
+    }
+
+    @Test
+    public void toUnsignedDto_variantsMissing_keepOriginalName() {
+        Tool tool = Tool.builder()
+                .id(1L)
+                .owner(User.builder().build())
+                .manufacturer(Manufacturer.builder().build())
+                .category(Category.builder().build())
+                .photos(List.of("photo1.jpg", "photo2.jpg"))
+                .build();
+
+        when(minioProperties.getVariantFormat()).thenReturn("jpg");
+        when(photoRepository.findWithVariants(List.of("photo1.jpg", "photo2.jpg"))).thenReturn(Set.of("photo2.jpg"));
+
+        ToolDto result = toolMapper.toUnsignedDto(tool);
 
-        verify(minioService, times(1)).getPresignedUrl("photo1.jpg", "test-bucket");
-        verify(minioService, times(1)).getPresignedUrl("photo2.jpg", "test-bucket");
+        assertEquals(List.of("photo1.jpg", "medium/photo2.jpg.jpg"), result.getMediumPhotos());
+        assertEquals(List.of("photo1.jpg", "thumb/photo2.jpg.jpg"), result.getThumbnails());
     }
 
     @Test
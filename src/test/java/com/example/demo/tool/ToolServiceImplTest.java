@@ -4,15 +4,22 @@ import com.example.demo.category.Category;
 import com.example.demo.category.CategoryDto;
 import com.example.demo.category.CategoryService;
 import com.example.demo.elasticsearch.ElasticService;
+import com.example.demo.elasticsearch.ToolSearchHits;
 import com.example.demo.event.ToolCreatedEvent;
 import com.example.demo.event.ToolDeletedEvent;
+import com.example.demo.event.ToolPhotosAddedEvent;
+import com.example.demo.event.ToolPhotosRemovedEvent;
 import com.example.demo.event.ToolUpdatedEvent;
+import com.example.demo.exception.InvalidPaginationException;
 import com.example.demo.exception.ToolNotFoundException;
 import com.example.demo.exception.UserDontHavePermissionException;
 import com.example.demo.image.ImageService;
 import com.example.demo.manufacturer.Manufacturer;
 import com.example.demo.manufacturer.ManufacturerDto;
 import com.example.demo.manufacturer.ManufacturerService;
+import com.example.demo.pagination.CursorPage;
+import com.example.demo.pagination.KeysetCursor;
+import com.example.demo.pagination.PageSize;
 import com.example.demo.user.User;
 import com.example.demo.user.UserDto;
 import com.example.demo.user.UserService;
@@ -27,6 +34,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -62,9 +71,15 @@ class ToolServiceImplTest {
     @Mock
     private ToolRepository toolRepository;
 
+    @Mock
+    private ToolDetailsCache toolDetailsCache;
+
     @Mock
     private ElasticService elasticService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ToolServiceImpl toolService;
 
@@ -188,8 +203,7 @@ class ToolServiceImplTest {
     @Test
     public void findAll_returnTwoTools() {
         when(toolRepository.findAll(mockPageable)).thenReturn(mockPage);
-        when(toolMapper.toDto(firstTool)).thenReturn(firstToolDto);
-        when(toolMapper.toDto(secondTool)).thenReturn(secondToolDto);
+        when(toolMapper.toDtos(List.of(firstTool, secondTool))).thenReturn(List.of(firstToolDto, secondToolDto));
 
         Page<ToolDto> result = toolService.findAll(mockPageable);
 
@@ -199,16 +213,14 @@ class ToolServiceImplTest {
         assertEquals(secondToolDto, result.getContent().get(1));
 
         verify(toolRepository, times(1)).findAll(mockPageable);
-        verify(toolMapper, times(1)).toDto(firstTool);
-        verify(toolMapper, times(1)).toDto(secondTool);
+        verify(toolMapper, times(1)).toDtos(List.of(firstTool, secondTool));
     }
 
     @Test
     public void findMy_returnTwoTools() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(toolRepository.findByOwner(mockPageable, user)).thenReturn(mockPage);
-        when(toolMapper.toDto(firstTool)).thenReturn(firstToolDto);
-        when(toolMapper.toDto(secondTool)).thenReturn(secondToolDto);
+        when(toolMapper.toDtos(List.of(firstTool, secondTool))).thenReturn(List.of(firstToolDto, secondToolDto));
 
         Page<ToolDto> result = toolService.findMy(mockPageable);
 
@@ -217,54 +229,149 @@ class ToolServiceImplTest {
         assertEquals(firstToolDto, result.getContent().get(0));
         assertEquals(secondToolDto, result.getContent().get(1));
 
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
         verify(toolRepository, times(1)).findByOwner(mockPageable, user);
-        verify(toolMapper, times(1)).toDto(firstTool);
-        verify(toolMapper, times(1)).toDto(secondTool);
+        verify(toolMapper, times(1)).toDtos(List.of(firstTool, secondTool));
     }
 
     @Test
-    public void findById_returnTool() {
-        when(toolRepository.findById(1L)).thenReturn(Optional.of(firstTool));
-        when(toolMapper.toDto(firstTool)).thenReturn(firstToolDto);
+    public void findById_returnCachedToolWithPhotoUrls() {
+        ToolDto cachedTool = ToolDto.builder().id(1L).photos(List.of("photo1.jpg")).build();
+        when(toolDetailsCache.get(1L)).thenReturn(cachedTool);
+        when(toolMapper.withPhotoUrls(cachedTool)).thenReturn(firstToolDto);
 
         ToolDto result = toolService.findById(1L);
         assertNotNull(result);
         assertEquals(firstToolDto, result);
 
-        verify(toolRepository, times(1)).findById(1L);
-        verify(toolMapper, times(1)).toDto(firstTool);
+        verify(toolDetailsCache, times(1)).get(1L);
+        verify(toolMapper, times(1)).withPhotoUrls(cachedTool);
+        verifyNoInteractions(toolRepository);
     }
 
     @Test
     public void findById_notFound_throwExc() {
-        when(toolRepository.findById(1L)).thenReturn(Optional.empty());
+        when(toolDetailsCache.get(1L)).thenThrow(new ToolNotFoundException("Tool with id: 1 not found"));
 
         ToolNotFoundException toolNotFoundException = assertThrows(ToolNotFoundException.class, () -> toolService.findById(1L));
         assertEquals("Tool with id: 1 not found", toolNotFoundException.getMessage());
 
-        verify(toolRepository, times(1)).findById(1L);
+        verify(toolMapper, never()).withPhotoUrls(any(ToolDto.class));
     }
 
     @Test
-    public void search_returnTwoTools() {
-        List<Long> ids = List.of(1L, 2L);
-        when(elasticService.search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"))).thenReturn(ids);
-        when(toolRepository.findAllByIdIn(ids, mockPageable)).thenReturn(mockPage);
-        when(toolMapper.toDto(firstTool)).thenReturn(firstToolDto);
-        when(toolMapper.toDto(secondTool)).thenReturn(secondToolDto);
+    public void search_returnTwoToolsInRelevanceOrder() {
+        List<Long> ids = List.of(2L, 1L);
+        when(elasticService.search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"), mockPageable))
+                .thenReturn(ToolSearchHits.builder().ids(ids).total(12L).build());
+        when(toolRepository.findAllByIdIn(ids)).thenReturn(List.of(firstTool, secondTool));
+        when(toolMapper.toDtos(List.of(secondTool, firstTool))).thenReturn(List.of(secondToolDto, firstToolDto));
 
         Page<ToolDto> result = toolService.search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"), mockPageable);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        assertEquals(firstToolDto, result.getContent().get(0));
-        assertEquals(secondToolDto, result.getContent().get(1));
+        assertEquals(12L, result.getTotalElements());
+        assertEquals(secondToolDto, result.getContent().get(0));
+        assertEquals(firstToolDto, result.getContent().get(1));
 
-        verify(elasticService, times(1)).search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"));
-        verify(toolRepository, times(1)).findAllByIdIn(ids, mockPageable);
-        verify(toolMapper, times(1)).toDto(firstTool);
-        verify(toolMapper, times(1)).toDto(secondTool);
+        verify(elasticService, times(1)).search("description", 1L, 1L, "RENT", "NEW", new BigDecimal("1000"), new BigDecimal("3000"), mockPageable);
+        verify(toolRepository, times(1)).findAllByIdIn(ids);
+        verify(toolMapper, times(1)).toDtos(List.of(secondTool, firstTool));
+    }
+
+    @Test
+    public void search_noHits_doesNotQueryDatabase() {
+        when(elasticService.search(null, null, null, null, null, null, null, mockPageable))
+                .thenReturn(ToolSearchHits.builder().ids(List.of()).total(0L).build());
+
+        Page<ToolDto> result = toolService.search(null, null, null, null, null, null, null, mockPageable);
+
+        assertTrue(result.getContent().isEmpty());
+        verify(toolRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    public void searchAfter_returnToolsAndNextCursor() {
+        List<Long> ids = List.of(1L, 2L);
+        when(elasticService.searchAfter("description", null, null, null, null, null, null, "cursor", 2))
+                .thenReturn(ToolSearchHits.builder().ids(ids).total(2L).nextCursor("next-cursor").build());
+        when(toolRepository.findAllByIdIn(ids)).thenReturn(List.of(secondTool, firstTool));
+        when(toolMapper.toDtos(List.of(firstTool, secondTool))).thenReturn(List.of(firstToolDto, secondToolDto));
+
+        CursorPage<ToolDto> result = toolService.searchAfter("description", null, null, null, null, null, null, "cursor", 2);
+
+        assertNotNull(result);
+        assertEquals(List.of(firstToolDto, secondToolDto), result.getContent());
+        assertEquals("next-cursor", result.getNextCursor());
+        assertTrue(result.isHasNext());
+        assertEquals(2, result.getSize());
+    }
+
+    @Test
+    public void findAllAfter_withoutCursor_returnFirstSliceAndNextCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 10, 0);
+        secondTool.setCreatedAt(createdAt);
+        when(toolRepository.findFirstSlice(PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstTool, secondTool), PageRequest.ofSize(2), true));
+        when(toolMapper.toDtos(List.of(firstTool, secondTool))).thenReturn(List.of(firstToolDto, secondToolDto));
+
+        CursorPage<ToolDto> result = toolService.findAllAfter(null, 2);
+
+        assertEquals(List.of(firstToolDto, secondToolDto), result.getContent());
+        assertTrue(result.isHasNext());
+        assertEquals(KeysetCursor.builder().createdAt(createdAt).id(2L).build(), KeysetCursor.decode(result.getNextCursor()));
+        verify(toolRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    public void findAllAfter_withCursor_seekAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 10, 0);
+        String cursor = KeysetCursor.builder().createdAt(createdAt).id(5L).build().encode();
+        when(toolRepository.findSliceAfter(createdAt, 5L, PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstTool), PageRequest.ofSize(2), false));
+        when(toolMapper.toDtos(List.of(firstTool))).thenReturn(List.of(firstToolDto));
+
+        CursorPage<ToolDto> result = toolService.findAllAfter(cursor, 2);
+
+        assertEquals(List.of(firstToolDto), result.getContent());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void findAllAfter_malformedCursor_throwExc() {
+        assertThrows(InvalidPaginationException.class, () -> toolService.findAllAfter("bad-cursor", 2));
+
+        verifyNoInteractions(toolRepository);
+    }
+
+    @Test
+    public void findAllAfter_pageSizeOutOfRange_throwExc() {
+        assertThrows(InvalidPaginationException.class, () -> toolService.findAllAfter(null, 0));
+        assertThrows(InvalidPaginationException.class, () -> toolService.findAllAfter(null, PageSize.MAX + 1));
+
+        verifyNoInteractions(toolRepository);
+    }
+
+    @Test
+    public void searchAfter_pageSizeOutOfRange_throwExc() {
+        assertThrows(InvalidPaginationException.class, () -> toolService.searchAfter("description", null, null, null, null, null, null, null, -1));
+
+        verifyNoInteractions(elasticService);
+    }
+
+    @Test
+    public void findMyAfter_withCursor_seekAfterCursorForCurrentUser() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 10, 0);
+        String cursor = KeysetCursor.builder().createdAt(createdAt).id(5L).build().encode();
+        when(userService.getCurrentUserReference()).thenReturn(user);
+        when(toolRepository.findSliceByOwnerAfter(user, createdAt, 5L, PageRequest.ofSize(2))).thenReturn(new SliceImpl<>(List.of(firstTool), PageRequest.ofSize(2), false));
+        when(toolMapper.toDtos(List.of(firstTool))).thenReturn(List.of(firstToolDto));
+
+        CursorPage<ToolDto> result = toolService.findMyAfter(cursor, 2);
+
+        assertEquals(List.of(firstToolDto), result.getContent());
+        assertFalse(result.isHasNext());
+        verify(toolRepository, never()).findByOwner(any(Pageable.class), any(User.class));
     }
 
     @Test
@@ -294,6 +401,7 @@ class ToolServiceImplTest {
         assertEquals(firstToolDto, result);
 
         verify(eventPublisher, times(1)).publishEvent(ToolCreatedEvent.builder().createdTool(savedTool).build());
+        verify(eventPublisher, times(1)).publishEvent(ToolPhotosAddedEvent.builder().fileNames(fileNames).build());
         verify(userService, times(1)).getCurrentUser();
         verify(manufacturerService, times(1)).findById(1L);
         verify(categoryService, times(1)).findById(1L);
@@ -301,26 +409,45 @@ class ToolServiceImplTest {
         verify(toolMapper, times(1)).toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(fileNames), any(LocalDateTime.class));
         verify(toolRepository, times(1)).save(firstTool);
         verify(toolMapper, times(1)).toDto(savedTool);
+        verify(imageService, never()).deleteFiles(any());
     }
 
     @Test
-    public void delete_deleteTool() {
+    public void create_saveFailed_removeUploadedFilesAndThrowExc() {
         when(userService.getCurrentUser()).thenReturn(user);
+        when(manufacturerService.findById(1L)).thenReturn(manufacturer);
+        when(categoryService.findById(1L)).thenReturn(category);
+        when(imageService.processFiles(files)).thenReturn(fileNames);
+        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(fileNames), any(LocalDateTime.class))).thenReturn(firstTool);
+        when(toolRepository.save(firstTool)).thenThrow(new IllegalStateException("Connection refused"));
+
+        IllegalStateException illegalStateException = assertThrows(IllegalStateException.class, () -> toolService.create(toolCreateUpdateDto, files));
+        assertEquals("Connection refused", illegalStateException.getMessage());
+
+        verify(imageService, times(1)).deleteFiles(fileNames);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void delete_deleteTool() {
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(toolRepository.findById(1L)).thenReturn(Optional.of(firstTool));
-        doNothing().when(imageService).deleteFiles(firstTool.getPhotos());
 
         toolService.delete(1L);
 
         verify(eventPublisher, times(1)).publishEvent(ToolDeletedEvent.builder().toolId(1L).build());
-        verify(userService, times(1)).getCurrentUser();
+        verify(eventPublisher, times(1)).publishEvent(ToolPhotosRemovedEvent.builder().fileNames(firstTool.getPhotos()).build());
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(toolRepository, times(1)).findById(1L);
         verify(toolRepository, times(1)).delete(firstTool);
-        verify(imageService, times(1)).deleteFiles(firstTool.getPhotos());
+        verify(imageService, never()).deleteFiles(any());
     }
 
     @Test
     public void delete_toolNotFound_throwExc() {
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(toolRepository.findById(1L)).thenReturn(Optional.empty());
 
         ToolNotFoundException toolNotFoundException = assertThrows(ToolNotFoundException.class, () -> toolService.delete(1L));
@@ -328,7 +455,8 @@ class ToolServiceImplTest {
         assertEquals("Tool with id: 1 not found", toolNotFoundException.getMessage());
 
         verify(eventPublisher, never()).publishEvent(any());
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(toolRepository, times(1)).findById(1L);
         verify(toolRepository, never()).delete(any(Tool.class));
     }
@@ -339,7 +467,7 @@ class ToolServiceImplTest {
                 .id(1L)
                 .owner(User.builder().id(3L).build())
                 .build();
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(toolRepository.findById(1L)).thenReturn(Optional.of(tool));
 
         UserDontHavePermissionException userDontHavePermissionException = assertThrows(UserDontHavePermissionException.class, () -> toolService.delete(1L));
@@ -347,7 +475,8 @@ class ToolServiceImplTest {
         assertEquals("User with id: 1 cannot perform actions with tool with id: 1", userDontHavePermissionException.getMessage());
 
         verify(eventPublisher, never()).publishEvent(any());
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(toolRepository, times(1)).findById(1L);
         verify(toolRepository, never()).delete(any(Tool.class));
     }
@@ -367,29 +496,31 @@ class ToolServiceImplTest {
                 .build();
         List<String> filesToDelete = List.of("first-file.jpg", "second-file.jpg");
         when(toolRepository.findById(1L)).thenReturn(Optional.of(existingTool));
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(toolRepository.findByIdWithPhotos(1L)).thenReturn(Optional.of(existingTool));
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(manufacturerService.findById(1L)).thenReturn(manufacturer);
         when(categoryService.findById(1L)).thenReturn(category);
-        doNothing().when(imageService).deleteFiles(filesToDelete);
         when(imageService.processFiles(files)).thenReturn(List.of("first-file.jpg"));
-        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(existingTool.getPhotos()), any())).thenReturn(firstTool);
+        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("test-file1.jpg", "test-file2.jpg", "first-file.jpg")), any())).thenReturn(firstTool);
         when(toolRepository.save(firstTool)).thenReturn(firstTool);
 
         toolService.update(1L, toolCreateUpdateDto, files, filesToDelete);
 
-        assertEquals(List.of("test-file1.jpg", "test-file2.jpg", "first-file.jpg"), existingTool.getPhotos());
         assertEquals(existingTool.getId(), firstTool.getId());
         assertEquals(existingTool.getCreatedAt(), firstTool.getCreatedAt());
 
 
         verify(eventPublisher, times(1)).publishEvent(ToolUpdatedEvent.builder().updatedTool(firstTool).build());
+        verify(eventPublisher, times(1)).publishEvent(ToolPhotosAddedEvent.builder().fileNames(List.of("first-file.jpg")).build());
         verify(toolRepository, times(1)).findById(1L);
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
+        verify(userService, never()).getCurrentUser();
         verify(manufacturerService, times(1)).findById(1L);
         verify(categoryService, times(1)).findById(1L);
-        verify(imageService, times(1)).deleteFiles(filesToDelete);
         verify(imageService, times(1)).processFiles(files);
-        verify(toolMapper, times(1)).toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(existingTool.getPhotos()), any());
+        verify(imageService, never()).deleteFiles(any());
+        verify(eventPublisher, never()).publishEvent(any(ToolPhotosRemovedEvent.class));
+        verify(toolMapper, times(1)).toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("test-file1.jpg", "test-file2.jpg", "first-file.jpg")), any());
         verify(toolRepository, times(1)).save(firstTool);
     }
 
@@ -408,16 +539,63 @@ class ToolServiceImplTest {
                 .build();
         List<String> filesToDelete = List.of("test-file1.jpg", "test-file2.jpg");
         when(toolRepository.findById(1L)).thenReturn(Optional.of(existingTool));
-        when(userService.getCurrentUser()).thenReturn(user);
+        when(toolRepository.findByIdWithPhotos(1L)).thenReturn(Optional.of(existingTool));
+        when(userService.getCurrentUserReference()).thenReturn(user);
         when(manufacturerService.findById(1L)).thenReturn(manufacturer);
         when(categoryService.findById(1L)).thenReturn(category);
-        doNothing().when(imageService).deleteFiles(filesToDelete);
         when(imageService.processFiles(files)).thenReturn(List.of("first-file.jpg"));
-        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(existingTool.getPhotos()), any())).thenReturn(firstTool);
+        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("first-file.jpg")), any())).thenReturn(firstTool);
 
         toolService.update(1L, toolCreateUpdateDto, files, filesToDelete);
 
-        assertEquals(List.of("first-file.jpg"), existingTool.getPhotos());
+        verify(toolMapper, times(1)).toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("first-file.jpg")), any());
+        verify(eventPublisher, times(1)).publishEvent(ToolPhotosRemovedEvent.builder().fileNames(List.of("test-file1.jpg", "test-file2.jpg")).build());
+        verify(imageService, never()).deleteFiles(any());
+    }
+
+    @Test
+    public void update_duplicatePhoto_dropAndReleaseEveryCopy() {
+        Tool existingTool = Tool.builder()
+                .id(1L)
+                .owner(user)
+                .manufacturer(manufacturer)
+                .category(category)
+                .photos(new ArrayList<>(List.of("same-file.jpg", "test-file2.jpg", "same-file.jpg")))
+                .build();
+        when(toolRepository.findById(1L)).thenReturn(Optional.of(existingTool));
+        when(toolRepository.findByIdWithPhotos(1L)).thenReturn(Optional.of(existingTool));
+        when(userService.getCurrentUserReference()).thenReturn(user);
+        when(manufacturerService.findById(1L)).thenReturn(manufacturer);
+        when(categoryService.findById(1L)).thenReturn(category);
+        when(imageService.processFiles(files)).thenReturn(List.of());
+        when(toolMapper.toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("test-file2.jpg")), any())).thenReturn(firstTool);
+
+        toolService.update(1L, toolCreateUpdateDto, files, List.of("same-file.jpg"));
+
+        verify(toolMapper, times(1)).toEntity(eq(toolCreateUpdateDto), eq(user), eq(manufacturer), eq(category), eq(List.of("test-file2.jpg")), any());
+        verify(eventPublisher, times(1)).publishEvent(ToolPhotosRemovedEvent.builder().fileNames(List.of("same-file.jpg", "same-file.jpg")).build());
+    }
+
+    @Test
+    public void update_saveFailed_removeUploadedFilesAndThrowExc() {
+        Tool existingTool = Tool.builder()
+                .id(1L)
+                .owner(user)
+                .photos(new ArrayList<>(List.of("test-file1.jpg")))
+                .build();
+        when(toolRepository.findById(1L)).thenReturn(Optional.of(existingTool));
+        when(toolRepository.findByIdWithPhotos(1L)).thenReturn(Optional.empty());
+        when(userService.getCurrentUserReference()).thenReturn(user);
+        when(manufacturerService.findById(1L)).thenReturn(manufacturer);
+        when(categoryService.findById(1L)).thenReturn(category);
+        when(imageService.processFiles(files)).thenReturn(List.of("first-file.jpg"));
+
+        ToolNotFoundException toolNotFoundException = assertThrows(ToolNotFoundException.class, () -> toolService.update(1L, toolCreateUpdateDto, files, List.of("test-file1.jpg")));
+        assertEquals("Tool with id: 1 not found", toolNotFoundException.getMessage());
+
+        verify(imageService, times(1)).deleteFiles(List.of("first-file.jpg"));
+        verify(toolRepository, never()).save(any(Tool.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -64,6 +64,34 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findByLogin("IvanIvanov@gmail.com");
     }
 
+    @Test
+    public void getCurrentUser_userPrincipal_loadById() {
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.of(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        User result = userService.getCurrentUser();
+
+        assertEquals(user, result);
+        verify(userRepository, never()).findByLogin(anyString());
+    }
+
+    @Test
+    public void getCurrentUserReference_userPrincipal_returnReferenceWithoutQuery() {
+        User reference = User.builder().id(1L).build();
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.of(user));
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+
+        User result = userService.getCurrentUserReference();
+
+        assertSame(reference, result);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findByLogin(anyString());
+    }
+
     @Test
     public void getCurrentUser_userNotFound_throwExc() {
         when(securityContext.getAuthentication()).thenReturn(authentication);